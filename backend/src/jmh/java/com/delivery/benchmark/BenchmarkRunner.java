@@ -0,0 +1,43 @@
+package com.delivery.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every benchmark twice: once for throughput in ops/s and once in
+ * sample-time mode for latency percentiles, both with the GC profiler so
+ * allocation rates are reported. JSON results are written to target/jmh.
+ * Arguments are regular JMH command-line options, e.g. a benchmark regex.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new File("target/jmh").mkdirs();
+
+        new Runner(options(cli, Mode.Throughput, TimeUnit.SECONDS, "target/jmh/throughput.json")).run();
+        new Runner(options(cli, Mode.SampleTime, TimeUnit.MICROSECONDS, "target/jmh/latency.json")).run();
+    }
+
+    private static Options options(CommandLineOptions cli, Mode mode, TimeUnit unit, String resultFile) {
+        return new OptionsBuilder()
+                .parent(cli)
+                .mode(mode)
+                .timeUnit(unit)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.delivery.benchmark;
+
+import com.delivery.config.DtoJsonEncoder;
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response serialization of a day's slot listing and of one reservation,
+ * through Jackson as before and through DtoJsonEncoder. Output goes to a
+ * discarding stream, so the GC profiler shows what serialization allocates.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoJsonBenchmark {
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private ObjectWriter slotListWriter;
+    private ObjectWriter reservationWriter;
+    private DtoJsonEncoder encoder;
+    private List<TimeSlotDTO> slots;
+    private ReservationDTO reservation;
+
+    @Setup
+    public void setUp() {
+        // Like Spring's Jackson converter, leave the response stream open
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        slotListWriter = objectMapper.writerFor(new TypeReference<List<TimeSlotDTO>>() {});
+        reservationWriter = objectMapper.writerFor(ReservationDTO.class);
+        encoder = new DtoJsonEncoder();
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        slots = new ArrayList<>();
+        for (int hour = 8; hour < 20; hour++) {
+            slots.add(new TimeSlotDTO((long) hour, DeliveryMethod.DELIVERY, tomorrow,
+                    LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0), 20, hour % 7));
+        }
+        reservation = new ReservationDTO(1_000_001L, 12L, DeliveryMethod.DELIVERY, tomorrow,
+                LocalTime.of(14, 0), LocalTime.of(15, 0), ReservationStatus.HELD,
+                Instant.parse("2026-01-08T10:15:30.123Z"), "CUST-001");
+    }
+
+    @Benchmark
+    public void slotsJackson() throws IOException {
+        slotListWriter.writeValue(sink, slots);
+    }
+
+    @Benchmark
+    public void slotsEncoder() throws IOException {
+        try (DtoJsonEncoder.Buffer buffer = encoder.acquire()) {
+            buffer.put((byte) '[');
+            for (int i = 0; i < slots.size(); i++) {
+                if (i > 0) {
+                    buffer.put((byte) ',');
+                }
+                encoder.write(buffer, slots.get(i));
+            }
+            buffer.put((byte) ']');
+            buffer.drainTo(sink);
+        }
+    }
+
+    @Benchmark
+    public void reservationJackson() throws IOException {
+        reservationWriter.writeValue(sink, reservation);
+    }
+
+    @Benchmark
+    public void reservationEncoder() throws IOException {
+        try (DtoJsonEncoder.Buffer buffer = encoder.acquire()) {
+            encoder.write(buffer, reservation);
+            buffer.drainTo(sink);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.delivery.benchmark;
+
+import com.delivery.DeliveryApplication;
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationRequest;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.service.ReservationService;
+import com.delivery.service.SlotAvailabilitySnapshots;
+import com.delivery.service.TimeSlotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * End-to-end benchmarks through the Spring beans against embedded H2.
+ * Slot capacity is raised at setup so reservations never run out mid-run.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationEndToEndBenchmark {
+
+    private static final int CAPACITY = 100_000_000;
+
+    private ConfigurableApplicationContext context;
+    private TimeSlotService timeSlotService;
+    private ReservationService reservationService;
+    private SlotAvailabilitySnapshots availabilitySnapshots;
+    private LocalDate tomorrow;
+    private long[] slotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DeliveryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        timeSlotService = context.getBean(TimeSlotService.class);
+        reservationService = context.getBean(ReservationService.class);
+        availabilitySnapshots = context.getBean(SlotAvailabilitySnapshots.class);
+        tomorrow = LocalDate.now().plusDays(1);
+
+        context.getBean(JdbcTemplate.class).update(
+                "UPDATE time_slots SET capacity = ?, remaining = ? WHERE method = ? AND slot_date = ?",
+                CAPACITY, CAPACITY, DeliveryMethod.DELIVERY.name(), java.sql.Date.valueOf(tomorrow));
+        slotIds = timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow).stream()
+                .mapToLong(TimeSlotDTO::id)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TimeSlotDTO> getSlotsCached() {
+        return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    @Benchmark
+    public List<TimeSlotDTO> getSlotsFromDatabase() {
+        availabilitySnapshots.invalidate(DeliveryMethod.DELIVERY, tomorrow);
+        return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    @Benchmark
+    public ReservationDTO createReservation(SlotCursor cursor) {
+        long slotId = slotIds[cursor.next(slotIds.length)];
+        return reservationService.createReservation(
+                new ReservationRequest(DeliveryMethod.DELIVERY, tomorrow, slotId));
+    }
+
+    /**
+     * Per-thread round robin over the benchmark day's slots.
+     */
+    @State(Scope.Thread)
+    public static class SlotCursor {
+
+        private int position;
+
+        int next(int size) {
+            position = (position + 1) % size;
+            return position;
+        }
+    }
+}
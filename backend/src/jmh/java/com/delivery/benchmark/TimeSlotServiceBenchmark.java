@@ -0,0 +1,156 @@
+package com.delivery.benchmark;
+
+import com.delivery.config.ClusterProperties;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.ReservationRepository;
+import com.delivery.repository.SlotTemplateRepository;
+import com.delivery.repository.TimeSlotRepository;
+import com.delivery.service.ClusterMembership;
+import com.delivery.service.ClusterRouter;
+import com.delivery.service.DeliveryMetrics;
+import com.delivery.service.SlotAvailabilityChangedEvent;
+import com.delivery.service.SlotAvailabilitySnapshots;
+import com.delivery.service.SlotInventory;
+import com.delivery.service.SlotTemplateService;
+import com.delivery.service.SlotWindow;
+import com.delivery.service.TimeSlotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Isolated benchmarks of the slot read path, with repositories replaced by
+ * in-memory stubs so only service, snapshot and DTO mapping code is measured.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimeSlotServiceBenchmark {
+
+    private static final LocalTime ASAP_PROBE_TIME = LocalTime.of(14, 35);
+
+    private TimeSlotService timeSlotService;
+    private SlotTemplateService slotTemplateService;
+    private SlotAvailabilitySnapshots availabilitySnapshots;
+    private LocalDate today;
+    private LocalDate tomorrow;
+    private SlotAvailabilityChangedEvent bookingEvent;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.now();
+        tomorrow = today.plusDays(1);
+
+        List<SlotTemplate> templates = templates();
+        List<TimeSlot> deliverySlots = new ArrayList<>();
+        long id = 1;
+        for (SlotTemplate template : templates) {
+            if (template.getMethod() == DeliveryMethod.DELIVERY) {
+                TimeSlot slot = new TimeSlot(DeliveryMethod.DELIVERY, tomorrow,
+                        template.getStartTime(), template.getEndTime(), template.getCapacity());
+                slot.setId(id++);
+                deliverySlots.add(slot);
+            }
+        }
+        TimeSlot booked = deliverySlots.get(0);
+        bookingEvent = new SlotAvailabilityChangedEvent(booked.getId(), DeliveryMethod.DELIVERY, tomorrow,
+                booked.getStartTime(), booked.getCapacity() - 1);
+        TimeSlot asapSlot = new TimeSlot(DeliveryMethod.DELIVERY_ASAP, today,
+                LocalTime.of(14, 0), LocalTime.of(16, 0));
+        asapSlot.setId(id);
+
+        TimeSlotRepository timeSlotRepository = RepositoryStubs.stub(TimeSlotRepository.class, Map.of(
+                "findByMethodAndDateOrderByStartTimeAsc", args -> deliverySlots,
+                "findByMethodAndDateAndStartTime", args -> Optional.of(asapSlot)));
+        ReservationRepository reservationRepository = RepositoryStubs.stub(ReservationRepository.class, Map.of(
+                "countByTimeSlotIdAndStatusIn", args -> 0L));
+        SlotTemplateRepository slotTemplateRepository = RepositoryStubs.stub(SlotTemplateRepository.class, Map.of(
+                "findAll", args -> templates,
+                "findLatestRevision", args -> 1L));
+
+        slotTemplateService = new SlotTemplateService(slotTemplateRepository, event -> { });
+        slotTemplateService.reload(false);
+        SlotInventory inventory = new SlotInventory(reservationRepository, timeSlotRepository);
+        availabilitySnapshots = new SlotAvailabilitySnapshots(inventory, Duration.ofMinutes(10));
+        ClusterProperties standalone = new ClusterProperties(false, "http://localhost:8080", List.of(), 64,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), null);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ClusterRouter clusterRouter = new ClusterRouter(
+                new ClusterMembership(standalone, objectMapper, event -> { }), inventory, objectMapper);
+        timeSlotService = new TimeSlotService(timeSlotRepository, inventory,
+                availabilitySnapshots, slotTemplateService, clusterRouter,
+                new DeliveryMetrics(new SimpleMeterRegistry()), 30);
+    }
+
+    @Benchmark
+    public void validateMethodAndDate() {
+        timeSlotService.validateMethodAndDate(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    @Benchmark
+    public List<TimeSlotDTO> getSlotsCached() {
+        return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    /**
+     * Cache miss on every call: measures the repository read and the toDTO mapping.
+     */
+    @Benchmark
+    public List<TimeSlotDTO> getSlotsUncached() {
+        availabilitySnapshots.invalidate(DeliveryMethod.DELIVERY, tomorrow);
+        return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    /**
+     * Snapshot patch a booking on the day applies, run on the booking thread.
+     */
+    @Benchmark
+    public List<TimeSlotDTO> patchAfterBooking() {
+        availabilitySnapshots.onAvailabilityChanged(bookingEvent);
+        return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    /**
+     * Template lookup behind generateAsapSlot, at a fixed time of day.
+     */
+    @Benchmark
+    public SlotWindow asapWindowLookup() {
+        return slotTemplateService.findWindowAt(DeliveryMethod.DELIVERY_ASAP, today, ASAP_PROBE_TIME);
+    }
+
+    @Benchmark
+    public List<SlotWindow> templateWindows() {
+        return slotTemplateService.getWindows(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    private static List<SlotTemplate> templates() {
+        List<SlotTemplate> templates = new ArrayList<>();
+        for (int hour : new int[]{9, 11, 14, 16}) {
+            templates.add(new SlotTemplate(DeliveryMethod.DELIVERY, null,
+                    LocalTime.of(hour, 0), LocalTime.of(hour + 2, 0), 1, 1));
+        }
+        for (int hour = 0; hour <= 18; hour++) {
+            templates.add(new SlotTemplate(DeliveryMethod.DELIVERY_ASAP, null,
+                    LocalTime.of(hour, 0), LocalTime.of(Math.min(hour + 2, 20), 0), 1, 1));
+        }
+        return templates;
+    }
+}
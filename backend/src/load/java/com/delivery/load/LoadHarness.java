@@ -0,0 +1,307 @@
+package com.delivery.load;
+
+import com.delivery.DeliveryApplication;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.load.LoadStats.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a same-day rush: boots the application on embedded H2 and a
+ * random port, then has thousands of virtual-thread clients list and book
+ * slots over HTTP. The report holds throughput, latency percentiles and
+ * error counts per operation, plus an oversell check that compares both the
+ * bookings the server acknowledged and the active reservations in the
+ * database against each slot's capacity. It is written as JSON so runs can
+ * be compared over time.
+ * <p>
+ * Arguments are {@code --name=value} pairs, see {@link LoadOptions}; any
+ * other argument is passed to the application, e.g.
+ * {@code --delivery.reservations.strategy=OPTIMISTIC}. Admission control is
+ * off unless enabled that way, so the harness measures the booking path.
+ */
+public final class LoadHarness {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final List<DeliveryMethod> SAME_DAY =
+            List.of(DeliveryMethod.DELIVERY_TODAY, DeliveryMethod.DELIVERY_ASAP);
+
+    private final LoadOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final LoadStats stats = new LoadStats();
+
+    private LoadHarness(LoadOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(LoadOptions.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load",
+                "--delivery.admission.enabled=false",
+                "--logging.level.root=WARN"));
+        appArgs.addAll(options.appArgs());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DeliveryApplication.class)
+                .run(appArgs.toArray(String[]::new));
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api";
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            if (options.capacity() > 0) {
+                for (DeliveryMethod method : options.methods()) {
+                    jdbcTemplate.update(
+                            "UPDATE time_slots SET capacity = ?, remaining = ? WHERE method = ? AND slot_date = ?",
+                            options.capacity(), options.capacity(), method.name(), Date.valueOf(dateFor(method)));
+                }
+            }
+
+            Map<DeliveryMethod, long[]> slots = discoverSlots(http, baseUrl);
+            if (slots.isEmpty()) {
+                throw new IllegalStateException("None of " + options.methods()
+                        + " has bookable slots right now; same-day methods close in the evening,"
+                        + " so add e.g. DELIVERY to --methods");
+            }
+
+            double seconds = drive(http, baseUrl, slots) / 1e9;
+
+            Map<String, Object> report = report(slots, seconds, jdbcTemplate);
+            Files.createDirectories(options.output().toAbsolutePath().getParent());
+            objectMapper.writeValue(options.output().toFile(), report);
+            System.out.println(objectMapper.writeValueAsString(report));
+        }
+    }
+
+    /**
+     * Look up the bookable slot ids of every configured method, skipping methods
+     * that have none right now.
+     */
+    private Map<DeliveryMethod, long[]> discoverSlots(HttpClient http, String baseUrl)
+            throws IOException, InterruptedException {
+        Map<DeliveryMethod, long[]> slots = new EnumMap<>(DeliveryMethod.class);
+        for (DeliveryMethod method : options.methods()) {
+            HttpResponse<String> response = http.send(slotsRequest(baseUrl, method), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                System.err.println("Skipping " + method + ": " + response.statusCode() + " " + response.body());
+                continue;
+            }
+            List<Long> available = new ArrayList<>();
+            for (JsonNode slot : objectMapper.readTree(response.body())) {
+                if (slot.path("remaining").asInt() > 0) {
+                    available.add(slot.path("id").asLong());
+                }
+            }
+            long[] ids = available.stream().mapToLong(Long::longValue).toArray();
+            if (ids.length == 0) {
+                System.err.println("Skipping " + method + ": no slots with capacity left");
+            } else {
+                slots.put(method, ids);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Start every client at once, record after the warmup and stop them after the duration.
+     *
+     * @return nanoseconds during which results were recorded
+     */
+    private long drive(HttpClient http, String baseUrl, Map<DeliveryMethod, long[]> slots)
+            throws InterruptedException {
+        List<DeliveryMethod> methods = List.copyOf(slots.keySet());
+        long warmupEnds = System.nanoTime() + options.warmup().toNanos();
+        long deadline = warmupEnds + options.duration().toNanos();
+        SplittableRandom seeds = new SplittableRandom(options.seed());
+
+        long recordingStarted;
+        long recordingStopped;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.clients(); i++) {
+                SplittableRandom random = seeds.split();
+                clients.submit(() -> client(http, baseUrl, slots, methods, random, deadline));
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnds - System.nanoTime()));
+            stats.startRecording();
+            recordingStarted = System.nanoTime();
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, deadline - System.nanoTime()));
+            stats.stopRecording();
+            recordingStopped = System.nanoTime();
+        }
+        return recordingStopped - recordingStarted;
+    }
+
+    private void client(HttpClient http, String baseUrl, Map<DeliveryMethod, long[]> slots,
+                        List<DeliveryMethod> methods, SplittableRandom random, long deadline) {
+        while (System.nanoTime() - deadline < 0) {
+            DeliveryMethod method = methods.get(random.nextInt(methods.size()));
+            if (random.nextDouble() < options.readRatio()) {
+                send(http, Operation.READ, slotsRequest(baseUrl, method), 200, 0);
+            } else {
+                long[] ids = slots.get(method);
+                long slotId = ids[random.nextInt(ids.length)];
+                String body = "{\"method\":\"" + method + "\",\"date\":\"" + dateFor(method)
+                        + "\",\"slotId\":" + slotId + "}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/reservations"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                send(http, Operation.RESERVE, request, 201, slotId);
+            }
+            if (!options.think().isZero()) {
+                try {
+                    Thread.sleep(options.think());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void send(HttpClient http, Operation operation, HttpRequest request, int expectedStatus, long slotId) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            long elapsed = System.nanoTime() - started;
+            if (response.statusCode() == expectedStatus) {
+                stats.recordSuccess(operation, elapsed);
+                if (operation == Operation.RESERVE) {
+                    stats.recordBooking(slotId);
+                }
+            } else {
+                stats.recordError(operation, Integer.toString(response.statusCode()), elapsed);
+            }
+        } catch (IOException e) {
+            stats.recordError(operation, e.getClass().getSimpleName(), System.nanoTime() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest slotsRequest(String baseUrl, DeliveryMethod method) {
+        return HttpRequest.newBuilder(URI.create(
+                        baseUrl + "/time-slots?method=" + method + "&date=" + dateFor(method)))
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    private static LocalDate dateFor(DeliveryMethod method) {
+        return SAME_DAY.contains(method) ? LocalDate.now() : LocalDate.now().plusDays(1);
+    }
+
+    private Map<String, Object> report(Map<DeliveryMethod, long[]> slots, double seconds, JdbcTemplate jdbcTemplate) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("clients", options.clients());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("warmupSeconds", options.warmup().toSeconds());
+        config.put("readRatio", options.readRatio());
+        config.put("methods", slots.keySet());
+        config.put("capacity", options.capacity());
+        config.put("thinkMillis", options.think().toMillis());
+        config.put("seed", options.seed());
+        config.put("appArgs", options.appArgs());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = stats.latencies(operation);
+            total += histogram.getTotalCount();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getTotalCount());
+            summary.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+            summary.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+            summary.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+            summary.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+            summary.put("maxMillis", millis(histogram.getMaxValue()));
+            operations.put(operation.name().toLowerCase(), summary);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("seconds", round(seconds));
+        report.put("requests", total);
+        report.put("throughputPerSecond", round(total / seconds));
+        report.put("operations", operations);
+        report.put("errors", stats.errors());
+        report.put("oversell", oversell(slots, jdbcTemplate));
+        return report;
+    }
+
+    /**
+     * Bookings beyond capacity, counted once from the 201 responses the clients
+     * saw and once from the active reservations stored per slot.
+     */
+    private Map<String, Object> oversell(Map<DeliveryMethod, long[]> slots, JdbcTemplate jdbcTemplate) {
+        Map<Long, Long> acknowledged = stats.bookedPerSlot();
+        long acknowledgedBookings = 0;
+        long acknowledgedOversold = 0;
+        long storedOversold = 0;
+        int oversoldSlots = 0;
+        for (long[] ids : slots.values()) {
+            for (long slotId : ids) {
+                int capacity = jdbcTemplate.queryForObject(
+                        "SELECT capacity FROM time_slots WHERE id = ?", Integer.class, slotId);
+                long stored = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM reservations WHERE time_slot_id = ? AND status IN ('HELD', 'CONFIRMED')",
+                        Long.class, slotId);
+                long booked = acknowledged.getOrDefault(slotId, 0L);
+                acknowledgedBookings += booked;
+                acknowledgedOversold += Math.max(0, booked - capacity);
+                storedOversold += Math.max(0, stored - capacity);
+                if (booked > capacity || stored > capacity) {
+                    oversoldSlots++;
+                }
+            }
+        }
+        Map<String, Object> oversell = new LinkedHashMap<>();
+        oversell.put("acknowledgedBookings", acknowledgedBookings);
+        oversell.put("oversoldSlots", oversoldSlots);
+        oversell.put("acknowledgedOversold", acknowledgedOversold);
+        oversell.put("storedOversold", storedOversold);
+        return oversell;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.delivery.load;
+
+import com.delivery.entity.DeliveryMethod;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load harness settings, parsed from {@code --name=value} arguments.
+ *
+ * @param clients   concurrent virtual-thread clients
+ * @param duration  how long results are recorded
+ * @param warmup    how long clients run before recording starts
+ * @param readRatio share of requests that list slots rather than book one
+ * @param methods   delivery methods to hit; same-day methods book today, the others tomorrow
+ * @param capacity  capacity given to every targeted slot before the run, or 0 to keep the templates' capacity
+ * @param think     pause between one client's requests
+ * @param seed      random seed, so a run's request mix can be repeated
+ * @param output    where the JSON report is written
+ * @param appArgs   extra Spring arguments for the application, e.g. a reservation strategy
+ */
+record LoadOptions(
+        int clients,
+        Duration duration,
+        Duration warmup,
+        double readRatio,
+        List<DeliveryMethod> methods,
+        int capacity,
+        Duration think,
+        long seed,
+        Path output,
+        List<String> appArgs
+) {
+
+    private static final Set<String> NAMES = Set.of(
+            "clients", "duration", "warmup", "read-ratio", "methods", "capacity", "think", "seed", "output");
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (NAMES.contains(name)) {
+                values.put(name, value);
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        return new LoadOptions(
+                Integer.parseInt(values.getOrDefault("clients", "2000")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "5s")),
+                Double.parseDouble(values.getOrDefault("read-ratio", "0.8")),
+                Arrays.stream(values.getOrDefault("methods", "DELIVERY_TODAY,DELIVERY_ASAP").split(","))
+                        .map(String::trim)
+                        .map(DeliveryMethod::valueOf)
+                        .toList(),
+                Integer.parseInt(values.getOrDefault("capacity", "0")),
+                duration(values.getOrDefault("think", "0s")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", "target/load/report.json")),
+                List.copyOf(appArgs));
+    }
+
+    /**
+     * Parse a duration such as {@code 500ms}, {@code 30s} or {@code 2m}.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unknown duration unit: " + value);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.delivery.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results collected by the load clients. Latencies go into lock-free
+ * HdrHistogram recorders, one per operation, so thousands of clients can
+ * record without contending; errors and bookings are striped counters.
+ * Nothing is recorded until {@link #startRecording()}.
+ */
+final class LoadStats {
+
+    /**
+     * An operation a client performs.
+     */
+    enum Operation {
+        READ,
+        RESERVE
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<Operation, Recorder> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> bookedPerSlot = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    LoadStats() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+        }
+    }
+
+    void startRecording() {
+        for (Recorder recorder : latencies.values()) {
+            recorder.reset();
+        }
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void recordSuccess(Operation operation, long nanos) {
+        if (recording) {
+            latencies.get(operation).recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        }
+    }
+
+    /**
+     * Record a failed request under a key such as {@code RESERVE:409}.
+     */
+    void recordError(Operation operation, String cause, long nanos) {
+        if (recording) {
+            latencies.get(operation).recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            errors.computeIfAbsent(operation + ":" + cause, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Count a booking the server acknowledged, whether or not recording has started,
+     * so it can be checked against the slot's capacity.
+     */
+    void recordBooking(long slotId) {
+        bookedPerSlot.computeIfAbsent(slotId, k -> new LongAdder()).increment();
+    }
+
+    Histogram latencies(Operation operation) {
+        return latencies.get(operation).getIntervalHistogram();
+    }
+
+    Map<String, Long> errors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    Map<Long, Long> bookedPerSlot() {
+        Map<Long, Long> counts = new TreeMap<>();
+        bookedPerSlot.forEach((slotId, count) -> counts.put(slotId, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,34 @@
+package com.delivery.config;
+
+import com.delivery.service.AdmissionControl;
+import com.delivery.service.ClusterRouter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts admission control in front of the slot and reservation APIs.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControl admissionControl;
+    private final ClusterRouter clusterRouter;
+    private final AdmissionProperties properties;
+
+    public AdmissionControlConfig(AdmissionControl admissionControl, ClusterRouter clusterRouter,
+                                  AdmissionProperties properties) {
+        this.admissionControl = admissionControl;
+        this.clusterRouter = clusterRouter;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(admissionControl, clusterRouter,
+                        properties.clientHeader(), new TrustedProxies(properties.trustedProxies())))
+                .addPathPatterns("/api/time-slots/**", "/api/reservations/**");
+    }
+}
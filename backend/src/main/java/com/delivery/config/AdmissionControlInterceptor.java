@@ -0,0 +1,88 @@
+package com.delivery.config;
+
+import com.delivery.service.AdmissionControl;
+import com.delivery.service.ClusterMembership;
+import com.delivery.service.ClusterRouter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+
+/**
+ * Charges every request to its client's rate limit and makes reservation
+ * writes hold a concurrency slot until they complete. Rejections are thrown
+ * before the handler runs, so they are rendered by the exception handler like
+ * any other error.
+ * <p>
+ * A client is the authenticated principal if there is one. Otherwise it is
+ * the remote address, unless the request comes from a trusted proxy, which
+ * may name the client in the client header or else in X-Forwarded-For. A
+ * name supplied by anyone else is ignored, so a caller can neither pick
+ * somebody else's bucket nor mint new ones. A request forwarded by a cluster
+ * member keeps the client the member named. The client is left in
+ * {@link AdmissionControl#CLIENT_ATTRIBUTE} for the handler.
+ */
+final class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+    private final ClusterRouter clusterRouter;
+    private final String clientHeader;
+    private final TrustedProxies trustedProxies;
+
+    AdmissionControlInterceptor(AdmissionControl admissionControl, ClusterRouter clusterRouter,
+                                String clientHeader, TrustedProxies trustedProxies) {
+        this.admissionControl = admissionControl;
+        this.clusterRouter = clusterRouter;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (clusterRouter.isForwardedByMember(request.getHeader(ClusterRouter.FORWARDED_HEADER),
+                request.getHeader(ClusterMembership.SECRET_HEADER), request.getRemoteAddr())) {
+            // Already charged to its client on the node that received it
+            String forwardedClient = request.getHeader(ClusterRouter.FORWARDED_CLIENT_HEADER);
+            request.setAttribute(AdmissionControl.CLIENT_ATTRIBUTE,
+                    forwardedClient != null ? forwardedClient : clientId(request));
+        } else {
+            String client = clientId(request);
+            request.setAttribute(AdmissionControl.CLIENT_ATTRIBUTE, client);
+            admissionControl.admitClient(client);
+        }
+        if (HttpMethod.POST.matches(request.getMethod()) && request.getRequestURI().startsWith("/api/reservations")) {
+            request.setAttribute(PERMIT_ATTRIBUTE, admissionControl.acquireReservationPermit());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionControl.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release(ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String named = request.getHeader(clientHeader);
+        if (named != null && !named.isBlank()) {
+            return named;
+        }
+        String forwarded = trustedProxies.forwardedClient(request.getHeader(TrustedProxies.FORWARDED_FOR_HEADER));
+        return forwarded != null ? forwarded : remoteAddress;
+    }
+}
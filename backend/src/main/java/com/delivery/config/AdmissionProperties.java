@@ -0,0 +1,39 @@
+package com.delivery.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Admission control settings bound from delivery.admission.*.
+ *
+ * @param enabled        shed excess load with 429 responses; off until clients can be told apart,
+ *                       which behind a load balancer needs {@code trustedProxies}
+ * @param clientHeader   request header in which a trusted proxy names the client
+ * @param trustedProxies IP addresses or CIDR blocks of the proxies in front of this node; a request
+ *                       from one of them is charged to the client named in {@code clientHeader}, else
+ *                       the one recorded in X-Forwarded-For, instead of to the proxy
+ * @param clientRate     sustained requests per second allowed for one client
+ * @param clientBurst    requests one client may send at once after being idle
+ * @param maxClients     most client buckets kept; the least recently seen are dropped first
+ * @param methodRate     sustained slot queries and bookings per second for one delivery method
+ * @param methodBurst    queries and bookings one delivery method may take at once
+ * @param initialLimit   concurrent reservation requests allowed before any latency is measured
+ * @param minLimit       lowest concurrency limit the latency gradient may set
+ * @param maxLimit       highest concurrency limit the latency gradient may set
+ */
+@ConfigurationProperties(prefix = "delivery.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("X-Client-Id") String clientHeader,
+        @DefaultValue List<String> trustedProxies,
+        @DefaultValue("50") double clientRate,
+        @DefaultValue("100") int clientBurst,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue("1000") double methodRate,
+        @DefaultValue("2000") int methodBurst,
+        @DefaultValue("64") int initialLimit,
+        @DefaultValue("8") int minLimit,
+        @DefaultValue("512") int maxLimit
+) {}
@@ -0,0 +1,29 @@
+package com.delivery.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Clustered mode settings bound from delivery.cluster.*.
+ *
+ * @param enabled           partition slot ownership across the nodes listed by heartbeats
+ * @param advertisedUrl     base URL other nodes reach this one at; also its identity on the ring
+ * @param seeds             base URLs of nodes to join through; empty for the first node
+ * @param virtualNodes      ring positions per node; more spread ownership more evenly
+ * @param failureTimeout    silence after which a node is considered gone
+ * @param forwardTimeout    longest wait for a node a request was forwarded to or a handoff was asked of
+ * @param secret            shared by all nodes and sent with every call between them; required when enabled
+ */
+@ConfigurationProperties(prefix = "delivery.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("http://localhost:8080") String advertisedUrl,
+        @DefaultValue List<String> seeds,
+        @DefaultValue("64") int virtualNodes,
+        @DefaultValue("5s") Duration failureTimeout,
+        @DefaultValue("5s") Duration forwardTimeout,
+        String secret
+) {}
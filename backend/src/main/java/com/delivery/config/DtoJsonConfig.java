@@ -0,0 +1,27 @@
+package com.delivery.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves slot and reservation responses through {@link DtoJsonEncoder}.
+ */
+@Configuration
+public class DtoJsonConfig implements WebMvcConfigurer {
+
+    private final DtoJsonEncoder dtoJsonEncoder = new DtoJsonEncoder();
+
+    @Bean
+    public DtoJsonEncoder dtoJsonEncoder() {
+        return dtoJsonEncoder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new DtoJsonHttpMessageConverter(dtoJsonEncoder));
+    }
+}
@@ -0,0 +1,326 @@
+package com.delivery.config;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes {@link TimeSlotDTO} and {@link ReservationDTO} as JSON straight into
+ * pooled byte buffers, producing exactly what Jackson would. Field names, enum
+ * names and whole-minute times are encoded once up front and dates are cached
+ * by epoch day, so a slot listing is written without allocating per field.
+ * Only reservation expiry instants are still formatted per value; customer
+ * ids are escaped as they are copied.
+ */
+public final class DtoJsonEncoder {
+
+    private static final int POOL_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final int DATE_CACHE_SIZE = 1024;
+
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] SLOT_ID = ascii(",\"slotId\":");
+    private static final byte[] METHOD = ascii(",\"method\":");
+    private static final byte[] DATE = ascii(",\"date\":");
+    private static final byte[] START_TIME = ascii(",\"startTime\":");
+    private static final byte[] END_TIME = ascii(",\"endTime\":");
+    private static final byte[] CAPACITY = ascii(",\"capacity\":");
+    private static final byte[] REMAINING = ascii(",\"remaining\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] EXPIRES_AT = ascii(",\"expiresAt\":");
+    private static final byte[] CUSTOMER_ID = ascii(",\"customerId\":");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private final byte[][] methods = quotedNames(DeliveryMethod.values());
+    private final byte[][] statuses = quotedNames(ReservationStatus.values());
+    private final byte[][] minutes = new byte[24 * 60][];
+    private final DateFragment[] dates = new DateFragment[DATE_CACHE_SIZE];
+    private final BlockingQueue<Buffer> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public DtoJsonEncoder() {
+        for (int minute = 0; minute < minutes.length; minute++) {
+            minutes[minute] = quoted(LocalTime.of(minute / 60, minute % 60).format(DateTimeFormatter.ISO_LOCAL_TIME));
+        }
+    }
+
+    /**
+     * Take a buffer from the pool; closing it puts it back.
+     */
+    public Buffer acquire() {
+        Buffer buffer = pool.poll();
+        return buffer != null ? buffer : new Buffer(this);
+    }
+
+    public void write(Buffer out, TimeSlotDTO slot) {
+        out.put(ID);
+        writeNumber(out, slot.id());
+        out.put(METHOD);
+        out.put(slot.method() == null ? NULL : methods[slot.method().ordinal()]);
+        out.put(DATE);
+        writeDate(out, slot.date());
+        out.put(START_TIME);
+        writeTime(out, slot.startTime());
+        out.put(END_TIME);
+        writeTime(out, slot.endTime());
+        out.put(CAPACITY);
+        out.putLong(slot.capacity());
+        out.put(REMAINING);
+        out.putLong(slot.remaining());
+        out.put((byte) '}');
+    }
+
+    public void write(Buffer out, ReservationDTO reservation) {
+        out.put(ID);
+        writeNumber(out, reservation.id());
+        out.put(SLOT_ID);
+        writeNumber(out, reservation.slotId());
+        out.put(METHOD);
+        out.put(reservation.method() == null ? NULL : methods[reservation.method().ordinal()]);
+        out.put(DATE);
+        writeDate(out, reservation.date());
+        out.put(START_TIME);
+        writeTime(out, reservation.startTime());
+        out.put(END_TIME);
+        writeTime(out, reservation.endTime());
+        out.put(STATUS);
+        out.put(reservation.status() == null ? NULL : statuses[reservation.status().ordinal()]);
+        out.put(EXPIRES_AT);
+        writeInstant(out, reservation.expiresAt());
+        out.put(CUSTOMER_ID);
+        writeString(out, reservation.customerId());
+        out.put((byte) '}');
+    }
+
+    private void writeNumber(Buffer out, Long value) {
+        if (value == null) {
+            out.put(NULL);
+        } else {
+            out.putLong(value);
+        }
+    }
+
+    private void writeDate(Buffer out, LocalDate date) {
+        if (date == null) {
+            out.put(NULL);
+            return;
+        }
+        long epochDay = date.toEpochDay();
+        int slot = (int) Math.floorMod(epochDay, DATE_CACHE_SIZE);
+        // Entries are immutable, so a racing reader sees either a whole entry or another day's
+        DateFragment cached = dates[slot];
+        if (cached == null || cached.epochDay() != epochDay) {
+            cached = new DateFragment(epochDay, quoted(date.format(DateTimeFormatter.ISO_LOCAL_DATE)));
+            dates[slot] = cached;
+        }
+        out.put(cached.json());
+    }
+
+    private void writeTime(Buffer out, LocalTime time) {
+        if (time == null) {
+            out.put(NULL);
+        } else if (time.getSecond() == 0 && time.getNano() == 0) {
+            out.put(minutes[time.getHour() * 60 + time.getMinute()]);
+        } else {
+            out.putQuoted(time.format(DateTimeFormatter.ISO_LOCAL_TIME));
+        }
+    }
+
+    private static void writeInstant(Buffer out, Instant instant) {
+        if (instant == null) {
+            out.put(NULL);
+        } else {
+            out.putQuoted(DateTimeFormatter.ISO_INSTANT.format(instant));
+        }
+    }
+
+    /**
+     * Write a free-form string, escaped the way Jackson escapes it.
+     */
+    private static void writeString(Buffer out, String value) {
+        if (value == null) {
+            out.put(NULL);
+            return;
+        }
+        out.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                out.put((byte) c);
+            } else if (c == '"' || c == '\\') {
+                out.put((byte) '\\');
+                out.put((byte) c);
+            } else if (c < 0x20) {
+                writeControl(out, c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                writeUtf8(out, Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                writeUtf8(out, c);
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private static void writeControl(Buffer out, char c) {
+        out.put((byte) '\\');
+        switch (c) {
+            case '\b' -> out.put((byte) 'b');
+            case '\t' -> out.put((byte) 't');
+            case '\n' -> out.put((byte) 'n');
+            case '\f' -> out.put((byte) 'f');
+            case '\r' -> out.put((byte) 'r');
+            default -> {
+                out.put((byte) 'u');
+                out.put((byte) '0');
+                out.put((byte) '0');
+                out.put(HEX[c >> 4]);
+                out.put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private static void writeUtf8(Buffer out, int codePoint) {
+        if (codePoint < 0x800) {
+            out.put((byte) (0xC0 | codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            out.put((byte) (0xE0 | codePoint >> 12));
+            out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        } else {
+            out.put((byte) (0xF0 | codePoint >> 18));
+            out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+            out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        }
+        out.put((byte) (0x80 | codePoint & 0x3F));
+    }
+
+    private void release(Buffer buffer) {
+        buffer.size = 0;
+        if (buffer.bytes.length <= MAX_POOLED_CAPACITY) {
+            pool.offer(buffer);
+        }
+    }
+
+    private static byte[][] quotedNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = quoted(value.name());
+        }
+        return names;
+    }
+
+    private static byte[] quoted(String value) {
+        return ascii('"' + value + '"');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record DateFragment(long epochDay, byte[] json) {}
+
+    /**
+     * Growable byte buffer holding JSON until it is written to the response.
+     * Not thread-safe; one request uses it at a time.
+     */
+    public static final class Buffer implements AutoCloseable {
+
+        private final DtoJsonEncoder owner;
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        private Buffer(DtoJsonEncoder owner) {
+            this.owner = owner;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void put(byte b) {
+            ensureCapacity(1);
+            bytes[size++] = b;
+        }
+
+        public void put(byte[] src) {
+            ensureCapacity(src.length);
+            System.arraycopy(src, 0, bytes, size, src.length);
+            size += src.length;
+        }
+
+        /**
+         * Write the buffered bytes and empty the buffer.
+         */
+        public void drainTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+            size = 0;
+        }
+
+        @Override
+        public void close() {
+            owner.release(this);
+        }
+
+        void putLong(long value) {
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value));
+                return;
+            }
+            ensureCapacity(20);
+            if (value < 0) {
+                bytes[size++] = '-';
+                value = -value;
+            }
+            int end = size + digits(value);
+            for (int i = end - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size = end;
+        }
+
+        /**
+         * Append an ASCII string that needs no escaping, in quotes.
+         */
+        void putQuoted(String value) {
+            put((byte) '"');
+            putAscii(value);
+            put((byte) '"');
+        }
+
+        private void putAscii(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+    }
+}
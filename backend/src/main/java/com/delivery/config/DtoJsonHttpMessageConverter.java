@@ -0,0 +1,96 @@
+package com.delivery.config;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.TimeSlotDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes slot and reservation responses, alone or as lists, with
+ * {@link DtoJsonEncoder} instead of Jackson. Registered ahead of the Jackson
+ * converter; every other type, and every request body, still goes to Jackson.
+ */
+class DtoJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final DtoJsonEncoder encoder;
+
+    DtoJsonHttpMessageConverter(DtoJsonEncoder encoder) {
+        super(MediaType.APPLICATION_JSON);
+        this.encoder = encoder;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TimeSlotDTO.class || clazz == ReservationDTO.class;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type != null && List.class.isAssignableFrom(clazz)) {
+            Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric();
+            return element != null && supports(element) && canWrite(mediaType);
+        }
+        return super.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (DtoJsonEncoder.Buffer buffer = encoder.acquire()) {
+            if (value instanceof List<?> list) {
+                buffer.put((byte) '[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        buffer.put((byte) ',');
+                    }
+                    writeElement(buffer, list.get(i));
+                }
+                buffer.put((byte) ']');
+            } else {
+                writeElement(buffer, value);
+            }
+            outputMessage.getHeaders().setContentLength(buffer.size());
+            OutputStream body = outputMessage.getBody();
+            buffer.drainTo(body);
+            body.flush();
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Request bodies are read by Jackson", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        return readInternal(Object.class, inputMessage);
+    }
+
+    private void writeElement(DtoJsonEncoder.Buffer buffer, Object element) {
+        if (element instanceof TimeSlotDTO slot) {
+            encoder.write(buffer, slot);
+        } else if (element instanceof ReservationDTO reservation) {
+            encoder.write(buffer, reservation);
+        } else {
+            throw new IllegalArgumentException("Cannot write " + element);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.delivery.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Write-behind journal settings bound from delivery.reservations.journal.*.
+ *
+ * @param enabled         acknowledge bookings from the journal and persist them in the background
+ * @param path            journal file location
+ * @param capacity        most entries that may wait for the database before appends block
+ * @param drainBatchSize  entries inserted per JDBC batch
+ * @param idReserveBlocks reservation id blocks kept in hand so bookings continue while the database is slow
+ */
+@ConfigurationProperties(prefix = "delivery.reservations.journal")
+public record ReservationJournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/reservations.journal") Path path,
+        @DefaultValue("1048576") int capacity,
+        @DefaultValue("1000") int drainBatchSize,
+        @DefaultValue("20") int idReserveBlocks
+) {}
@@ -0,0 +1,27 @@
+package com.delivery.config;
+
+import com.delivery.service.ReservationStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Reservation settings bound from delivery.reservations.*.
+ *
+ * @param strategy      how concurrent bookings of one slot are serialized
+ * @param maxAttempts   attempts per reservation when an optimistic lock conflict occurs
+ * @param retryBackoff  base delay between attempts, doubled each time and jittered
+ * @param lockStripes   number of per-slot lock stripes, rounded up to a power of two
+ * @param lockTimeout   longest wait for a slot's stripe before the booking is rejected
+ * @param holdTtl       how long a new reservation holds its slot before it must be confirmed
+ */
+@ConfigurationProperties(prefix = "delivery.reservations")
+public record ReservationProperties(
+        @DefaultValue("IN_MEMORY") ReservationStrategy strategy,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("5ms") Duration retryBackoff,
+        @DefaultValue("64") int lockStripes,
+        @DefaultValue("250ms") Duration lockTimeout,
+        @DefaultValue("10m") Duration holdTtl
+) {}
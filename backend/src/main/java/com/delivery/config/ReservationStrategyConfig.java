@@ -0,0 +1,39 @@
+package com.delivery.config;
+
+import com.delivery.repository.ReservationRepository;
+import com.delivery.repository.TimeSlotRepository;
+import com.delivery.service.ConditionalUpdateCapacityGuard;
+import com.delivery.service.OptimisticCapacityGuard;
+import com.delivery.service.PessimisticCapacityGuard;
+import com.delivery.service.ReservationJournalWriter;
+import com.delivery.service.SlotCapacityGuard;
+import com.delivery.service.SlotInventory;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+/**
+ * Selects the slot capacity guard from delivery.reservations.strategy.
+ */
+@Configuration
+@EnableConfigurationProperties({ReservationProperties.class, ReservationJournalProperties.class})
+public class ReservationStrategyConfig {
+
+    @Bean
+    public SlotCapacityGuard slotCapacityGuard(ReservationProperties properties,
+                                               ReservationRepository reservationRepository,
+                                               TimeSlotRepository timeSlotRepository,
+                                               EntityManager entityManager,
+                                               Optional<ReservationJournalWriter> journalWriter) {
+        return switch (properties.strategy()) {
+            case IN_MEMORY -> new SlotInventory(reservationRepository, timeSlotRepository,
+                    journalWriter.orElse(null));
+            case OPTIMISTIC -> new OptimisticCapacityGuard(timeSlotRepository);
+            case PESSIMISTIC -> new PessimisticCapacityGuard(entityManager, timeSlotRepository);
+            case CONDITIONAL_UPDATE -> new ConditionalUpdateCapacityGuard(timeSlotRepository);
+        };
+    }
+}
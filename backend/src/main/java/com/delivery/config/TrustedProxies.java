@@ -0,0 +1,109 @@
+package com.delivery.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Addresses of the proxies in front of this node, as IP literals or CIDR
+ * blocks. Only a request arriving from one of them may say who its client
+ * is; anyone else could claim to be anybody.
+ */
+final class TrustedProxies {
+
+    static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private final List<Block> blocks = new ArrayList<>();
+
+    TrustedProxies(List<String> entries) {
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int slash = trimmed.indexOf('/');
+            byte[] address = parse(slash < 0 ? trimmed : trimmed.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("Trusted proxy is not an IP address: " + trimmed);
+            }
+            int prefix = slash < 0 ? address.length * 8 : Integer.parseInt(trimmed.substring(slash + 1));
+            if (prefix < 0 || prefix > address.length * 8) {
+                throw new IllegalArgumentException("Trusted proxy prefix out of range: " + trimmed);
+            }
+            blocks.add(new Block(address, prefix));
+        }
+    }
+
+    boolean contains(String remoteAddress) {
+        if (blocks.isEmpty() || remoteAddress == null) {
+            return false;
+        }
+        byte[] address = parse(remoteAddress.trim());
+        if (address == null) {
+            return false;
+        }
+        for (Block block : blocks) {
+            if (block.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The client address a chain of trusted proxies recorded in
+     * X-Forwarded-For: the rightmost hop that is not itself a trusted proxy.
+     *
+     * @return the client address, or null if the header is absent
+     */
+    String forwardedClient(String forwardedFor) {
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return null;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && (i == 0 || !contains(hop))) {
+                return hop;
+            }
+        }
+        return null;
+    }
+
+    // Only literals are accepted, so nothing here waits on DNS
+    private static byte[] parse(String literal) {
+        if (literal.indexOf(':') < 0 && !IPV4.matcher(literal).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record Block(byte[] address, int prefix) {
+
+        boolean matches(byte[] candidate) {
+            if (candidate.length != address.length) {
+                return false;
+            }
+            int fullBytes = prefix / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != address[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefix % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (candidate[fullBytes] & mask) == (address[fullBytes] & mask);
+        }
+    }
+}
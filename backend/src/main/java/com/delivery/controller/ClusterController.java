@@ -0,0 +1,112 @@
+package com.delivery.controller;
+
+import com.delivery.dto.ClusterView;
+import com.delivery.service.ClusterMembership;
+import com.delivery.service.ClusterRouter;
+import com.delivery.service.SlotAvailabilityBroadcaster;
+import com.delivery.service.SlotAvailabilityChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Endpoints the cluster nodes use to talk to each other.
+ * Only present in clustered mode. Every call must carry the cluster secret
+ * and is refused with 403 otherwise; the endpoints should still not be
+ * reachable from outside the nodes' network.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@ConditionalOnProperty(name = "delivery.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final ClusterRouter router;
+    private final SlotAvailabilityBroadcaster broadcaster;
+
+    public ClusterController(ClusterMembership membership, ClusterRouter router,
+                             SlotAvailabilityBroadcaster broadcaster) {
+        this.membership = membership;
+        this.router = router;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * This node's view of the members.
+     */
+    @GetMapping
+    public ResponseEntity<ClusterView> getView(
+            @RequestHeader(value = ClusterMembership.SECRET_HEADER, required = false) String secret) {
+        if (!membership.isAuthentic(secret)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(membership.view());
+    }
+
+    /**
+     * Merge another node's member list and answer with this node's.
+     */
+    @PostMapping("/heartbeat")
+    public ResponseEntity<ClusterView> heartbeat(
+            @RequestHeader(value = ClusterMembership.SECRET_HEADER, required = false) String secret,
+            @RequestBody ClusterView view) {
+        if (!membership.isAuthentic(secret)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(membership.onHeartbeat(view));
+    }
+
+    /**
+     * Drop a node that is shutting down.
+     */
+    @PostMapping("/leave")
+    public ResponseEntity<Void> leave(
+            @RequestHeader(value = ClusterMembership.SECRET_HEADER, required = false) String secret,
+            @RequestBody ClusterView view) {
+        if (!membership.isAuthentic(secret)) {
+            return forbidden();
+        }
+        membership.onLeave(view.from());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Give up a partition the calling node is taking over.
+     *
+     * @param partition packed key of the delivery method and day
+     * @return 200 once the partition is released, 409 if this node is taking it over itself
+     */
+    @PostMapping("/handoff")
+    public ResponseEntity<Void> handOff(
+            @RequestHeader(value = ClusterMembership.SECRET_HEADER, required = false) String secret,
+            @RequestParam("partition") long partition) {
+        if (!membership.isAuthentic(secret)) {
+            return forbidden();
+        }
+        return router.handOff(partition)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * Pass availability changes committed on the node owning their days to
+     * the live streams open here, in the order they were sent.
+     */
+    @PostMapping("/availability")
+    public ResponseEntity<Void> availability(
+            @RequestHeader(value = ClusterMembership.SECRET_HEADER, required = false) String secret,
+            @RequestBody List<SlotAvailabilityChangedEvent> events) {
+        if (!membership.isAuthentic(secret)) {
+            return forbidden();
+        }
+        events.forEach(broadcaster::onRelayedAvailabilityChanged);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static <T> ResponseEntity<T> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+}
@@ -1,13 +1,32 @@
 package com.delivery.controller;
 
+import com.delivery.dto.BatchReservationRequest;
+import com.delivery.dto.BatchReservationResponse;
+import com.delivery.dto.BatchReservationResult;
 import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationPage;
 import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import com.delivery.service.AdmissionControl;
+import com.delivery.service.ClusterRouter;
+import com.delivery.service.IdempotencyStore;
 import com.delivery.service.ReservationService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 /**
  * REST controller for reservations.
  */
@@ -15,24 +34,120 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/reservations")
 public class ReservationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ReservationService reservationService;
+    private final IdempotencyStore idempotencyStore;
+    private final AdmissionControl admissionControl;
+    private final ClusterRouter clusterRouter;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService,
+                                 IdempotencyStore idempotencyStore,
+                                 AdmissionControl admissionControl,
+                                 ClusterRouter clusterRouter) {
         this.reservationService = reservationService;
+        this.idempotencyStore = idempotencyStore;
+        this.admissionControl = admissionControl;
+        this.clusterRouter = clusterRouter;
     }
 
     /**
      * Create a new reservation.
+     * The reservation starts as a hold that lapses unless confirmed.
+     * A retry by the same client with the same Idempotency-Key gets the
+     * original reservation back instead of booking again.
      *
-     * @param request Reservation request with method, date, slotId, and customerId
+     * @param idempotencyKey Optional client-chosen key identifying this attempt
+     * @param client         The client the request was charged to
+     * @param request        Reservation request with method, date, slotId, and an optional customerId
      * @return Created reservation details
      */
     @PostMapping
-    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody ReservationRequest request) {
-        ReservationDTO reservation = reservationService.createReservation(request);
+    public ResponseEntity<ReservationDTO> createReservation(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = ClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy,
+            @RequestAttribute(AdmissionControl.CLIENT_ATTRIBUTE) String client,
+            @Valid @RequestBody ReservationRequest request) {
+        Supplier<ReservationDTO> attempt = () -> clusterRouter.route(request.method(), request.date(),
+                forwardedBy != null,
+                () -> book(request),
+                owner -> clusterRouter.forward(owner, "/api/reservations", request, ReservationDTO.class,
+                        idempotencyKey == null
+                                ? Map.of(ClusterRouter.FORWARDED_CLIENT_HEADER, client)
+                                : Map.of(ClusterRouter.FORWARDED_CLIENT_HEADER, client,
+                                        IDEMPOTENCY_KEY_HEADER, idempotencyKey)));
+        ReservationDTO reservation = idempotencyKey == null
+                ? attempt.get()
+                : idempotencyStore.execute(client, idempotencyKey, request, attempt);
         return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
 
+    /**
+     * Create many reservations at once.
+     * Items are processed independently; failures are reported per item.
+     * In clustered mode the items of each method and day go to the node owning them.
+     *
+     * @param request Reservation requests, at most {@value BatchReservationRequest#MAX_SIZE}
+     * @return One result per request item, in request order
+     */
+    @PostMapping("/batch")
+    public BatchReservationResponse createReservations(
+            @RequestHeader(value = ClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy,
+            @Valid @RequestBody BatchReservationRequest request) {
+        if (!clusterRouter.isEnabled()) {
+            return bookBatch(request.reservations());
+        }
+
+        Map<SlotPartition, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < request.reservations().size(); i++) {
+            ReservationRequest item = request.reservations().get(i);
+            groups.computeIfAbsent(new SlotPartition(item.method(), item.date()), k -> new ArrayList<>()).add(i);
+        }
+
+        BatchReservationResult[] results = new BatchReservationResult[request.reservations().size()];
+        groups.forEach((partition, indexes) -> {
+            List<ReservationRequest> items = indexes.stream().map(request.reservations()::get).toList();
+            List<BatchReservationResult> groupResults;
+            try {
+                groupResults = clusterRouter.route(partition.method(), partition.date(), forwardedBy != null,
+                        () -> bookBatch(items),
+                        owner -> clusterRouter.forward(owner, "/api/reservations/batch",
+                                new BatchReservationRequest(items), BatchReservationResponse.class, Map.of())
+                ).results();
+            } catch (RuntimeException e) {
+                groupResults = items.stream().map(item -> BatchReservationResult.failure(0, e.getMessage())).toList();
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                BatchReservationResult result = groupResults.get(i);
+                results[indexes.get(i)] = new BatchReservationResult(indexes.get(i), result.reservation(), result.error());
+            }
+        });
+
+        int succeeded = (int) Arrays.stream(results).filter(result -> result.reservation() != null).count();
+        return new BatchReservationResponse(succeeded, results.length - succeeded, List.of(results));
+    }
+
+    /**
+     * List a customer's reservations, newest first, one page at a time.
+     *
+     * @param customerId Customer whose reservations to list
+     * @param before     Continue below this reservation ID, as returned in {@code nextBefore}
+     * @param limit      Page size, at most {@value #MAX_PAGE_SIZE}
+     * @return The page and the cursor of the next one
+     */
+    @GetMapping
+    public ReservationPage listReservations(
+            @RequestParam("customerId") String customerId,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException(Reason.INVALID_PAGE, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return reservationService.getCustomerReservations(customerId, before, limit);
+    }
+
     /**
      * Get reservation by ID.
      *
@@ -43,4 +158,55 @@ public class ReservationController {
     public ReservationDTO getReservation(@PathVariable Long id) {
         return reservationService.getReservation(id);
     }
+
+    /**
+     * Confirm a held reservation before it expires.
+     *
+     * @param id Reservation ID
+     * @return Confirmed reservation details
+     */
+    @PostMapping("/{id}/confirm")
+    public ReservationDTO confirmReservation(@PathVariable Long id) {
+        return reservationService.confirmReservation(id);
+    }
+
+    /**
+     * Cancel a held or confirmed reservation and free its slot.
+     *
+     * @param id Reservation ID
+     * @return Cancelled reservation details
+     */
+    @PostMapping("/{id}/cancel")
+    public ReservationDTO cancelReservation(
+            @RequestHeader(value = ClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy,
+            @PathVariable Long id) {
+        if (!clusterRouter.isEnabled()) {
+            return reservationService.cancelReservation(id);
+        }
+        // Freeing capacity changes the owner's counters, so cancel where the slot is owned
+        ReservationDTO reservation = reservationService.getReservation(id);
+        return clusterRouter.route(reservation.method(), reservation.date(), forwardedBy != null,
+                () -> reservationService.cancelReservation(id),
+                owner -> clusterRouter.forward(owner, "/api/reservations/" + id + "/cancel", null,
+                        ReservationDTO.class, Map.of()));
+    }
+
+    /**
+     * Replays of an idempotent request skip this, so they are not charged to the method's rate.
+     */
+    private ReservationDTO book(ReservationRequest request) {
+        admissionControl.admitMethod(request.method(), 1);
+        return reservationService.createReservation(request);
+    }
+
+    private BatchReservationResponse bookBatch(List<ReservationRequest> items) {
+        Map<DeliveryMethod, Integer> perMethod = new EnumMap<>(DeliveryMethod.class);
+        for (ReservationRequest item : items) {
+            perMethod.merge(item.method(), 1, Integer::sum);
+        }
+        perMethod.forEach(admissionControl::admitMethod);
+        return reservationService.createReservations(items);
+    }
+
+    private record SlotPartition(DeliveryMethod method, LocalDate date) {}
 }
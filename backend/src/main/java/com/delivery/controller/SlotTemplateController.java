@@ -0,0 +1,67 @@
+package com.delivery.controller;
+
+import com.delivery.dto.SlotTemplateDTO;
+import com.delivery.dto.SlotTemplateRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import com.delivery.service.SlotTemplateService;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for slot templates.
+ */
+@RestController
+@RequestMapping("/api/slot-templates")
+public class SlotTemplateController {
+
+    private final SlotTemplateService slotTemplateService;
+
+    public SlotTemplateController(SlotTemplateService slotTemplateService) {
+        this.slotTemplateService = slotTemplateService;
+    }
+
+    /**
+     * Get all slot templates.
+     *
+     * @return Templates ordered by method, day of week and start time
+     */
+    @GetMapping
+    public List<SlotTemplateDTO> getTemplates() {
+        return slotTemplateService.getTemplates();
+    }
+
+    /**
+     * Replace the slot layout of a delivery method.
+     * Days already materialized keep their slots; new windows are added to them.
+     *
+     * @param method  Delivery method (DRIVE, DELIVERY, DELIVERY_TODAY, DELIVERY_ASAP)
+     * @param request Windows of the new layout
+     * @return Stored templates of the new revision
+     */
+    @PutMapping("/{method}")
+    public List<SlotTemplateDTO> replaceTemplates(
+            @PathVariable("method") String method,
+            @Valid @RequestBody SlotTemplateRequest request) {
+
+        DeliveryMethod deliveryMethod;
+        try {
+            deliveryMethod = DeliveryMethod.valueOf(method.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(Reason.INVALID_METHOD, "Invalid delivery method: " + method);
+        }
+
+        return slotTemplateService.replaceTemplates(deliveryMethod, request);
+    }
+
+    /**
+     * Recompile the stored templates without waiting for the next poll.
+     */
+    @PostMapping("/reload")
+    public void reload() {
+        slotTemplateService.reload(true);
+    }
+}
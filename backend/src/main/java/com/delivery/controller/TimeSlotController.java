@@ -1,12 +1,23 @@
 package com.delivery.controller;
 
+import com.delivery.config.DtoJsonEncoder;
 import com.delivery.dto.TimeSlotDTO;
 import com.delivery.entity.DeliveryMethod;
 import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import com.delivery.service.AdmissionControl;
+import com.delivery.service.SlotAvailabilityBroadcaster;
+import com.delivery.service.SlotRangeService;
 import com.delivery.service.TimeSlotService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,10 +28,27 @@ import java.util.List;
 @RequestMapping("/api/time-slots")
 public class TimeSlotController {
 
+    /**
+     * Range responses are written out in chunks of about this size.
+     */
+    private static final int RANGE_FLUSH_BYTES = 8 * 1024;
+
     private final TimeSlotService timeSlotService;
+    private final SlotRangeService slotRangeService;
+    private final SlotAvailabilityBroadcaster broadcaster;
+    private final AdmissionControl admissionControl;
+    private final DtoJsonEncoder dtoJsonEncoder;
 
-    public TimeSlotController(TimeSlotService timeSlotService) {
+    public TimeSlotController(TimeSlotService timeSlotService,
+                              SlotRangeService slotRangeService,
+                              SlotAvailabilityBroadcaster broadcaster,
+                              AdmissionControl admissionControl,
+                              DtoJsonEncoder dtoJsonEncoder) {
         this.timeSlotService = timeSlotService;
+        this.slotRangeService = slotRangeService;
+        this.broadcaster = broadcaster;
+        this.admissionControl = admissionControl;
+        this.dtoJsonEncoder = dtoJsonEncoder;
     }
 
     /**
@@ -35,13 +63,77 @@ public class TimeSlotController {
             @RequestParam("method") String method,
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
-        DeliveryMethod deliveryMethod;
+        DeliveryMethod deliveryMethod = parseMethod(method);
+        admissionControl.admitMethod(deliveryMethod, 1);
+        return timeSlotService.getSlots(deliveryMethod, date);
+    }
+
+    /**
+     * Get availability for every day in a range, streamed as a JSON array.
+     *
+     * @param method Delivery method, or omitted for all methods except DELIVERY_ASAP
+     * @param from   First date in YYYY-MM-DD format
+     * @param to     Last date (inclusive) in YYYY-MM-DD format
+     * @return Time slots ordered by date, method and start time
+     */
+    @GetMapping("/range")
+    public ResponseEntity<StreamingResponseBody> getTimeSlotRange(
+            @RequestParam(value = "method", required = false) String method,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        DeliveryMethod deliveryMethod = method == null ? null : parseMethod(method);
+        slotRangeService.validateRange(deliveryMethod, from, to);
+
+        StreamingResponseBody body = out -> {
+            try (DtoJsonEncoder.Buffer buffer = dtoJsonEncoder.acquire()) {
+                buffer.put((byte) '[');
+                boolean[] first = {true};
+                slotRangeService.forEachSlot(deliveryMethod, from, to, slot -> {
+                    if (!first[0]) {
+                        buffer.put((byte) ',');
+                    }
+                    first[0] = false;
+                    dtoJsonEncoder.write(buffer, slot);
+                    if (buffer.size() >= RANGE_FLUSH_BYTES) {
+                        try {
+                            buffer.drainTo(out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+                buffer.put((byte) ']');
+                buffer.drainTo(out);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Stream live availability for a delivery method and date as Server-Sent Events.
+     * The first {@code snapshot} event carries the current slots; each following
+     * {@code availability} event carries the new remaining count of one slot.
+     *
+     * @param method Delivery method (DRIVE, DELIVERY, DELIVERY_TODAY, DELIVERY_ASAP)
+     * @param date   Date in YYYY-MM-DD format
+     * @return Event stream that stays open until the client disconnects or falls behind
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTimeSlots(
+            @RequestParam("method") String method,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        DeliveryMethod deliveryMethod = parseMethod(method);
+        admissionControl.admitMethod(deliveryMethod, 1);
+        return broadcaster.subscribe(deliveryMethod, date, () -> timeSlotService.getSlots(deliveryMethod, date));
+    }
+
+    private DeliveryMethod parseMethod(String method) {
         try {
-            deliveryMethod = DeliveryMethod.valueOf(method.toUpperCase());
+            return DeliveryMethod.valueOf(method.toUpperCase());
         } catch (IllegalArgumentException e) {
-            throw new InvalidRequestException("Invalid delivery method: " + method);
+            throw new InvalidRequestException(Reason.INVALID_METHOD, "Invalid delivery method: " + method);
         }
-
-        return timeSlotService.getSlots(deliveryMethod, date);
     }
 }
@@ -0,0 +1,20 @@
+package com.delivery.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request DTO for creating many reservations in one call.
+ */
+public record BatchReservationRequest(
+        @NotEmpty(message = "At least one reservation is required")
+        @Size(max = BatchReservationRequest.MAX_SIZE, message = "At most " + BatchReservationRequest.MAX_SIZE
+                + " reservations per batch")
+        List<@Valid @NotNull ReservationRequest> reservations
+) {
+
+    public static final int MAX_SIZE = 5000;
+}
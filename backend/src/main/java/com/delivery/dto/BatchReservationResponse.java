@@ -0,0 +1,12 @@
+package com.delivery.dto;
+
+import java.util.List;
+
+/**
+ * DTO for batch reservation response, with one result per request item in order.
+ */
+public record BatchReservationResponse(
+        int succeeded,
+        int failed,
+        List<BatchReservationResult> results
+) {}
@@ -0,0 +1,20 @@
+package com.delivery.dto;
+
+/**
+ * Outcome of one item of a batch reservation request.
+ * Exactly one of reservation and error is set.
+ */
+public record BatchReservationResult(
+        int index,
+        ReservationDTO reservation,
+        String error
+) {
+
+    public static BatchReservationResult success(int index, ReservationDTO reservation) {
+        return new BatchReservationResult(index, reservation, null);
+    }
+
+    public static BatchReservationResult failure(int index, String error) {
+        return new BatchReservationResult(index, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.delivery.dto;
+
+import java.util.List;
+
+/**
+ * Membership exchanged between cluster nodes on every heartbeat.
+ *
+ * @param from    advertised URL of the sending node
+ * @param members advertised URLs of every node the sender considers alive, itself included
+ */
+public record ClusterView(
+        String from,
+        List<String> members
+) {}
@@ -1,6 +1,9 @@
 package com.delivery.dto;
 
 import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
@@ -13,5 +16,8 @@ public record ReservationDTO(
         DeliveryMethod method,
         LocalDate date,
         LocalTime startTime,
-        LocalTime endTime
+        LocalTime endTime,
+        ReservationStatus status,
+        Instant expiresAt,
+        String customerId
 ) {}
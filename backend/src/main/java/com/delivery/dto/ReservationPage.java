@@ -0,0 +1,14 @@
+package com.delivery.dto;
+
+import java.util.List;
+
+/**
+ * One page of a customer's reservations, newest first.
+ *
+ * @param reservations the page
+ * @param nextBefore   pass as {@code before} to get the next page; null on the last page
+ */
+public record ReservationPage(
+        List<ReservationDTO> reservations,
+        Long nextBefore
+) {}
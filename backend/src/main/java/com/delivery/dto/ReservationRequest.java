@@ -1,7 +1,10 @@
 package com.delivery.dto;
 
 import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.Reservation;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 
 /**
@@ -15,5 +18,18 @@ public record ReservationRequest(
         LocalDate date,
 
         @NotNull(message = "Slot ID is required")
-        Long slotId
-) {}
+        Long slotId,
+
+        @Size(max = Reservation.CUSTOMER_ID_MAX_LENGTH, message = "Customer ID is at most "
+                + Reservation.CUSTOMER_ID_MAX_LENGTH + " characters")
+        @Pattern(regexp = "\\p{Graph}+", message = "Customer ID must be printable ASCII without spaces")
+        String customerId
+) {
+
+    /**
+     * A request without a customer.
+     */
+    public ReservationRequest(DeliveryMethod method, LocalDate date, Long slotId) {
+        this(method, date, slotId, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.delivery.dto;
+
+import com.delivery.entity.DeliveryMethod;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * DTO for slot template response.
+ */
+public record SlotTemplateDTO(
+        Long id,
+        DeliveryMethod method,
+        DayOfWeek dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        int capacity,
+        long revision
+) {}
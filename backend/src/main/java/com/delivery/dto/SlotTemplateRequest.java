@@ -0,0 +1,34 @@
+package com.delivery.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Request DTO for replacing the slot layout of a delivery method.
+ */
+public record SlotTemplateRequest(
+        @NotEmpty(message = "At least one window is required")
+        List<@Valid Window> windows
+) {
+
+    /**
+     * One window of the layout. A null day of week applies to every day.
+     */
+    public record Window(
+            DayOfWeek dayOfWeek,
+
+            @NotNull(message = "Start time is required")
+            LocalTime startTime,
+
+            @NotNull(message = "End time is required")
+            LocalTime endTime,
+
+            @Min(value = 1, message = "Capacity must be at least 1")
+            int capacity
+    ) {}
+}
@@ -12,5 +12,7 @@ public record TimeSlotDTO(
         DeliveryMethod method,
         LocalDate date,
         LocalTime startTime,
-        LocalTime endTime
+        LocalTime endTime,
+        int capacity,
+        int remaining
 ) {}
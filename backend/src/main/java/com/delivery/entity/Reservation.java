@@ -2,21 +2,59 @@ package com.delivery.entity;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 /**
  * Represents a reservation for a time slot.
+ * The slot is fetched lazily: reads that only need the reservation's fields
+ * skip it, reads that need both use the {@value #WITH_TIME_SLOT} graph, and
+ * reads for responses project straight into a ReservationDTO.
  */
 @Entity
-@Table(name = "reservations")
+@NamedEntityGraph(name = Reservation.WITH_TIME_SLOT, attributeNodes = @NamedAttributeNode("timeSlot"))
+@Table(name = "reservations",
+       indexes = {
+           @Index(name = "idx_reservation_slot_status", columnList = "time_slot_id, status"),
+           @Index(name = "idx_reservation_status_expiry", columnList = "status, expires_at"),
+           @Index(name = "idx_reservation_customer", columnList = "customer_id, id")
+       })
 public class Reservation {
 
+    /**
+     * Ids handed out per sequence call; the journal allocates from the same blocks.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
+    public static final String SEQUENCE_NAME = "reservations_seq";
+
+    public static final int CUSTOMER_ID_MAX_LENGTH = 64;
+
+    /**
+     * Entity graph that loads the slot in the same statement as the reservation.
+     */
+    public static final String WITH_TIME_SLOT = "Reservation.timeSlot";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = SEQUENCE_NAME, allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "time_slot_id", nullable = false)
     private TimeSlot timeSlot;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    // When an unconfirmed hold lapses; null once confirmed
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    // Opaque id of the customer who booked; null for clients that do not send one
+    @Column(name = "customer_id", length = CUSTOMER_ID_MAX_LENGTH)
+    private String customerId;
+
     // Default constructor for JPA
     public Reservation() {}
 
@@ -24,6 +62,17 @@ public class Reservation {
         this.timeSlot = timeSlot;
     }
 
+    public Reservation(TimeSlot timeSlot, Instant expiresAt) {
+        this.timeSlot = timeSlot;
+        this.expiresAt = expiresAt;
+    }
+
+    public Reservation(TimeSlot timeSlot, Instant expiresAt, String customerId) {
+        this.timeSlot = timeSlot;
+        this.expiresAt = expiresAt;
+        this.customerId = customerId;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -40,4 +89,28 @@ public class Reservation {
     public void setTimeSlot(TimeSlot timeSlot) {
         this.timeSlot = timeSlot;
     }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
 }
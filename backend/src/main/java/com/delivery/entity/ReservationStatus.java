@@ -0,0 +1,21 @@
+package com.delivery.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of a reservation.
+ * A reservation starts as a hold that expires unless confirmed; holds and
+ * confirmed bookings occupy capacity, cancelled and expired ones do not.
+ */
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    CANCELLED,
+    EXPIRED;
+
+    /**
+     * Statuses that occupy slot capacity.
+     */
+    public static final Set<ReservationStatus> ACTIVE = EnumSet.of(HELD, CONFIRMED);
+}
@@ -0,0 +1,113 @@
+package com.delivery.entity;
+
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Represents one window of a delivery method's slot layout.
+ * A template without a day of week applies to every day that has no
+ * weekday-specific templates of its own.
+ */
+@Entity
+@Table(name = "slot_templates")
+public class SlotTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slot_template_seq")
+    @SequenceGenerator(name = "slot_template_seq", sequenceName = "slot_templates_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryMethod method;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    /**
+     * Revision of the template set this row was written with.
+     */
+    @Column(nullable = false)
+    private long revision;
+
+    // Default constructor for JPA
+    public SlotTemplate() {}
+
+    public SlotTemplate(DeliveryMethod method, DayOfWeek dayOfWeek, LocalTime startTime,
+                        LocalTime endTime, int capacity, long revision) {
+        this.method = method;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.capacity = capacity;
+        this.revision = revision;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public DeliveryMethod getMethod() {
+        return method;
+    }
+
+    public void setMethod(DeliveryMethod method) {
+        this.method = method;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+}
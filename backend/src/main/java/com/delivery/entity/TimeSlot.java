@@ -13,11 +13,25 @@ import java.time.LocalTime;
        uniqueConstraints = @UniqueConstraint(
            columnNames = {"method", "slot_date", "start_time"},
            name = "uk_slot_method_date_time"
-       ))
+       ),
+       indexes = @Index(name = "idx_slot_date_method_time", columnList = "slot_date, method, start_time"))
 public class TimeSlot {
 
+    /**
+     * Capacity assigned to slots created without an explicit value.
+     */
+    public static final int DEFAULT_CAPACITY = 1;
+
+    /**
+     * Ids handed out per sequence call; the calendar generator allocates from the same blocks.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
+    public static final String SEQUENCE_NAME = "time_slots_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_slot_seq")
+    @SequenceGenerator(name = "time_slot_seq", sequenceName = SEQUENCE_NAME, allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -33,6 +47,16 @@ public class TimeSlot {
     @Column(name = "end_time", nullable = false)
     private LocalTime endTime;
 
+    @Column(nullable = false)
+    private int capacity;
+
+    /**
+     * Remaining capacity as last written back by {@code SlotInventory}.
+     * The in-memory counter is authoritative; this column may lag behind it.
+     */
+    @Column(nullable = false)
+    private int remaining;
+
     @Version
     private Long version;
 
@@ -40,10 +64,16 @@ public class TimeSlot {
     public TimeSlot() {}
 
     public TimeSlot(DeliveryMethod method, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this(method, date, startTime, endTime, DEFAULT_CAPACITY);
+    }
+
+    public TimeSlot(DeliveryMethod method, LocalDate date, LocalTime startTime, LocalTime endTime, int capacity) {
         this.method = method;
         this.date = date;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.capacity = capacity;
+        this.remaining = capacity;
     }
 
     // Getters and Setters
@@ -87,6 +117,22 @@ public class TimeSlot {
         this.endTime = endTime;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
     public Long getVersion() {
         return version;
     }
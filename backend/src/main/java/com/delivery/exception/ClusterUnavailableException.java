@@ -0,0 +1,12 @@
+package com.delivery.exception;
+
+/**
+ * Exception thrown when the node owning a request's slots cannot serve it
+ * yet, e.g. while ownership moves between nodes.
+ */
+public class ClusterUnavailableException extends RuntimeException {
+
+    public ClusterUnavailableException(String message) {
+        super(message);
+    }
+}
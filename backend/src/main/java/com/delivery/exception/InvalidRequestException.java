@@ -4,8 +4,31 @@ package com.delivery.exception;
  * Exception thrown for invalid delivery method or date combinations.
  */
 public class InvalidRequestException extends RuntimeException {
-    
-    public InvalidRequestException(String message) {
+
+    /**
+     * Why a request was rejected, reported as a metric tag.
+     */
+    public enum Reason {
+        INVALID_METHOD,
+        DATE_IN_PAST,
+        BEYOND_HORIZON,
+        METHOD_NOT_AVAILABLE,
+        INVALID_RANGE,
+        NOT_FOUND,
+        SLOT_MISMATCH,
+        INVALID_TEMPLATE,
+        INVALID_IDEMPOTENCY_KEY,
+        INVALID_PAGE
+    }
+
+    private final Reason reason;
+
+    public InvalidRequestException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
 }
@@ -0,0 +1,11 @@
+package com.delivery.exception;
+
+/**
+ * Exception thrown when a reservation is not in a state that allows the requested change.
+ */
+public class InvalidReservationStateException extends RuntimeException {
+
+    public InvalidReservationStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.delivery.exception;
+
+import java.util.Map;
+
+/**
+ * Exception carrying an error response from the node a request was forwarded
+ * to, so it reaches the client unchanged.
+ */
+public class RemoteNodeException extends RuntimeException {
+
+    private final int status;
+    private final Map<String, Object> body;
+
+    public RemoteNodeException(int status, Map<String, Object> body) {
+        super("Owning node answered " + status);
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,11 @@
+package com.delivery.exception;
+
+/**
+ * Exception thrown when a time slot has no capacity left.
+ */
+public class SlotUnavailableException extends RuntimeException {
+
+    public SlotUnavailableException(String message) {
+        super(message);
+    }
+}
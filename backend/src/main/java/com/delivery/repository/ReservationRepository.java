@@ -1,10 +1,20 @@
 package com.delivery.repository;
 
+import com.delivery.dto.ReservationDTO;
 import com.delivery.entity.Reservation;
+import com.delivery.entity.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
@@ -13,4 +23,68 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      * Check if a reservation exists for a given time slot.
      */
     boolean existsByTimeSlotId(Long timeSlotId);
+
+    /**
+     * Count reservations in the given statuses against a time slot.
+     */
+    long countByTimeSlotIdAndStatusIn(Long timeSlotId, Collection<ReservationStatus> statuses);
+
+    /**
+     * Select clause that builds a ReservationDTO in the query, joining the
+     * slot once instead of loading either entity.
+     */
+    String SELECT_DTO = "SELECT new com.delivery.dto.ReservationDTO(r.id, s.id, s.method, s.date, s.startTime, "
+            + "s.endTime, r.status, r.expiresAt, r.customerId) FROM Reservation r JOIN r.timeSlot s ";
+
+    /**
+     * Load a reservation together with its slot in one statement.
+     */
+    @EntityGraph(Reservation.WITH_TIME_SLOT)
+    Optional<Reservation> findWithTimeSlotById(Long id);
+
+    /**
+     * A reservation read straight into its DTO.
+     */
+    @Query(SELECT_DTO + "WHERE r.id = :id")
+    Optional<ReservationDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * A customer's reservations with an id below {@code before}, newest first,
+     * read straight into DTOs.
+     */
+    @Query(SELECT_DTO + "WHERE r.customerId = :customerId AND r.id < :before ORDER BY r.id DESC")
+    List<ReservationDTO> findCustomerPage(@Param("customerId") String customerId,
+                                          @Param("before") long before,
+                                          Pageable page);
+
+    /**
+     * Turn a hold that has not lapsed into a booking.
+     *
+     * @return 1 if confirmed, 0 if the reservation is not an unexpired hold
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = com.delivery.entity.ReservationStatus.CONFIRMED, r.expiresAt = null "
+            + "WHERE r.id = :id AND r.status = com.delivery.entity.ReservationStatus.HELD AND r.expiresAt > :now")
+    int confirmHold(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Cancel a hold or booking.
+     *
+     * @return 1 if cancelled, 0 if the reservation is no longer active
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = com.delivery.entity.ReservationStatus.CANCELLED, r.expiresAt = null "
+            + "WHERE r.id = :id AND r.status IN (com.delivery.entity.ReservationStatus.HELD, "
+            + "com.delivery.entity.ReservationStatus.CONFIRMED)")
+    int cancel(@Param("id") Long id);
+
+    /**
+     * Expire a hold whose deadline has passed.
+     *
+     * @return 1 if expired, 0 if it was confirmed, cancelled or is not due yet
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = com.delivery.entity.ReservationStatus.EXPIRED "
+            + "WHERE r.id = :id AND r.status = com.delivery.entity.ReservationStatus.HELD AND r.expiresAt <= :now")
+    int expireHold(@Param("id") Long id, @Param("now") Instant now);
 }
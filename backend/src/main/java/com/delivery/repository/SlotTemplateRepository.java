@@ -0,0 +1,42 @@
+package com.delivery.repository;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SlotTemplateRepository extends JpaRepository<SlotTemplate, Long> {
+
+    /**
+     * Latest template revision, or 0 when no templates are stored.
+     */
+    @Query("SELECT COALESCE(MAX(t.revision), 0) FROM SlotTemplate t")
+    long findLatestRevision();
+
+    /**
+     * Take the next template revision, past any stored one. The counter row
+     * stays locked until the transaction ends, so concurrent replacements are
+     * numbered and applied one after another.
+     */
+    @Modifying
+    @Query(value = "UPDATE slot_template_revision SET revision = GREATEST(revision, "
+            + "(SELECT COALESCE(MAX(revision), 0) FROM slot_templates)) + 1", nativeQuery = true)
+    int advanceRevision();
+
+    /**
+     * Revision last taken by {@link #advanceRevision()}.
+     */
+    @Query(value = "SELECT revision FROM slot_template_revision", nativeQuery = true)
+    long findCurrentRevision();
+
+    /**
+     * Remove all templates of a delivery method.
+     */
+    @Modifying
+    @Query("DELETE FROM SlotTemplate t WHERE t.method = :method")
+    int deleteByMethod(@Param("method") DeliveryMethod method);
+}
@@ -5,9 +5,11 @@ import com.delivery.entity.TimeSlot;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
@@ -21,9 +23,9 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
 
 
     /**
-     * Find all slots for a given method and date.
+     * Find all slots for a given method and date, ordered by start time.
      */
-    List<TimeSlot> findByMethodAndDate(DeliveryMethod method, LocalDate date);
+    List<TimeSlot> findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod method, LocalDate date);
 
     /**
      * Find a specific slot by method, date, and start time.
@@ -36,4 +38,37 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
      */
     boolean existsByMethodAndDateAndStartTime(
             DeliveryMethod method, LocalDate date, LocalTime startTime);
+
+    /**
+     * Write back the remaining capacity tracked in memory for a slot.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TimeSlot s SET s.remaining = :remaining WHERE s.id = :id")
+    int updateRemaining(@Param("id") Long id, @Param("remaining") int remaining);
+
+    /**
+     * Take one unit of capacity if any is left.
+     *
+     * @return 1 if the slot had capacity, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE TimeSlot s SET s.remaining = s.remaining - 1, s.version = s.version + 1 "
+            + "WHERE s.id = :id AND s.remaining > 0")
+    int decrementRemaining(@Param("id") Long id);
+
+    /**
+     * Give one unit of capacity back, never exceeding the slot's capacity.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TimeSlot s SET s.remaining = s.remaining + 1, s.version = s.version + 1 "
+            + "WHERE s.id = :id AND s.remaining < s.capacity")
+    int incrementRemaining(@Param("id") Long id);
+
+    /**
+     * Read the current remaining capacity of a slot.
+     */
+    @Query("SELECT s.remaining FROM TimeSlot s WHERE s.id = :id")
+    int findRemainingById(@Param("id") Long id);
 }
@@ -0,0 +1,173 @@
+package com.delivery.service;
+
+import com.delivery.config.AdmissionProperties;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sheds load before it reaches the database. Each client and each delivery
+ * method has a token bucket, and reservation requests additionally need one
+ * of a limited number of concurrency slots whose count follows measured
+ * latency. A request over any limit fails at once with
+ * {@link TooManyRequestsException} instead of queueing for a JDBC connection.
+ */
+@Component
+public class AdmissionControl implements MeterBinder {
+
+    /**
+     * Request attribute naming the client a request was charged to.
+     */
+    public static final String CLIENT_ATTRIBUTE = "com.delivery.service.AdmissionControl.client";
+
+    /**
+     * Which limit a request was shed by, reported as a metric tag.
+     */
+    public enum Rejection {
+        CLIENT_RATE,
+        METHOD_RATE,
+        CONCURRENCY
+    }
+
+    private static final Duration CONCURRENCY_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AdmissionProperties properties;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Map<DeliveryMethod, TokenBucket> methodBuckets = new EnumMap<>(DeliveryMethod.class);
+    private final GradientConcurrencyLimiter limiter;
+    private final Map<Rejection, LongAdder> rejected = new EnumMap<>(Rejection.class);
+
+    public AdmissionControl(AdmissionProperties properties) {
+        this.properties = properties;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofNanos((long) (properties.clientBurst() / properties.clientRate() * 1e9)))
+                .build();
+        long now = System.nanoTime();
+        for (DeliveryMethod method : DeliveryMethod.values()) {
+            methodBuckets.put(method, new TokenBucket(properties.methodRate(), properties.methodBurst(), now));
+        }
+        this.limiter = new GradientConcurrencyLimiter(
+                properties.initialLimit(), properties.minLimit(), properties.maxLimit());
+        for (Rejection rejection : Rejection.values()) {
+            rejected.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * Take one request from a client's budget. A bucket idle long enough to
+     * refill completely is forgotten, since a new one behaves the same.
+     *
+     * @throws TooManyRequestsException if the client is over its rate
+     */
+    public void admitClient(String clientId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = clientBuckets.getIfPresent(clientId);
+        if (bucket == null) {
+            bucket = clientBuckets.asMap().computeIfAbsent(clientId,
+                    k -> new TokenBucket(properties.clientRate(), properties.clientBurst(), now));
+        }
+        long waitNanos = bucket.tryAcquire(1, now);
+        if (waitNanos > 0) {
+            throw reject(Rejection.CLIENT_RATE, "Too many requests from this client", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Take requests from a delivery method's budget. A batch larger than the
+     * burst is charged the whole burst, so it can still be admitted once the
+     * bucket is full.
+     *
+     * @throws TooManyRequestsException if the method is over its rate
+     */
+    public void admitMethod(DeliveryMethod method, int requests) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long waitNanos = methodBuckets.get(method)
+                .tryAcquire(Math.min(requests, properties.methodBurst()), System.nanoTime());
+        if (waitNanos > 0) {
+            throw reject(Rejection.METHOD_RATE, "Too many requests for " + method, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Take a concurrency slot for a reservation request.
+     * The returned permit must be released exactly once when the request completes.
+     *
+     * @throws TooManyRequestsException if the concurrency limit is reached
+     */
+    public Permit acquireReservationPermit() {
+        if (!properties.enabled()) {
+            return Permit.NOOP;
+        }
+        if (!limiter.tryAcquire()) {
+            throw reject(Rejection.CONCURRENCY, "Reservation service is at capacity", CONCURRENCY_RETRY_AFTER);
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+
+    private TooManyRequestsException reject(Rejection rejection, String message, Duration retryAfter) {
+        rejected.get(rejection).increment();
+        return new TooManyRequestsException(message, retryAfter);
+    }
+
+    int concurrencyLimit() {
+        return limiter.limit();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Rejection rejection : Rejection.values()) {
+            FunctionCounter.builder("delivery.admission.rejected", rejected.get(rejection), LongAdder::sum)
+                    .description("Requests shed by admission control")
+                    .tag("reason", rejection.name())
+                    .register(registry);
+        }
+        Gauge.builder("delivery.admission.limit", limiter, GradientConcurrencyLimiter::limit)
+                .description("Concurrent reservation requests currently allowed")
+                .register(registry);
+        Gauge.builder("delivery.admission.in.flight", limiter, GradientConcurrencyLimiter::inFlight)
+                .description("Reservation requests holding a concurrency slot")
+                .register(registry);
+    }
+
+    /**
+     * A concurrency slot held by one reservation request.
+     */
+    public static final class Permit {
+
+        static final Permit NOOP = new Permit(null, 0);
+
+        private final GradientConcurrencyLimiter limiter;
+        private final long startNanos;
+
+        private Permit(GradientConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * @param failed whether the request failed on the server side
+         */
+        public void release(boolean failed) {
+            if (limiter != null) {
+                limiter.release(System.nanoTime() - startNanos, failed);
+            }
+        }
+    }
+}
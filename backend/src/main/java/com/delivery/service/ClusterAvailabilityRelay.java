@@ -0,0 +1,122 @@
+package com.delivery.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relays availability changes committed on this node to the other members,
+ * so live streams opened on a node that does not own a day still hear of its
+ * bookings. Only the owner books a day, so each change is relayed by exactly
+ * one node. Changes are queued and sent in batches by one virtual thread,
+ * which waits for every member to answer before sending the next batch, so
+ * each member receives them in the order they were published here. A member
+ * that cannot be reached misses the batch; its streams catch up with a new
+ * snapshot when their clients reconnect. When the queue is full, changes are
+ * dropped rather than holding up the booking that published them.
+ */
+@Component
+public class ClusterAvailabilityRelay implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterAvailabilityRelay.class);
+
+    static final String PATH = "/availability";
+
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<SlotAvailabilityChangedEvent> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread sender;
+
+    public ClusterAvailabilityRelay(ClusterMembership membership, ObjectMapper objectMapper,
+                                    @Value("${delivery.cluster.relay-buffer-size:4096}") int bufferSize) {
+        this.membership = membership;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = membership.isEnabled()
+                ? Thread.ofVirtual().name("cluster-availability-relay").start(this::run)
+                : null;
+    }
+
+    /**
+     * Queue a committed change for the other members, after the local
+     * snapshots and streams have seen it.
+     */
+    @Order(SlotAvailabilitySnapshots.PATCH_ORDER + 2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        if (sender != null && !queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (sender != null) {
+            sender.interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("delivery.cluster.relay.dropped", dropped, LongAdder::sum)
+                .description("Availability changes not relayed to other nodes because the relay fell behind")
+                .register(registry);
+    }
+
+    private void run() {
+        List<SlotAvailabilityChangedEvent> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                send(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    private void send(List<SlotAvailabilityChangedEvent> batch) {
+        List<String> peers = membership.peers();
+        if (peers.isEmpty()) {
+            return;
+        }
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(batch);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize availability changes", e);
+            return;
+        }
+        List<CompletableFuture<?>> sent = new ArrayList<>(peers.size());
+        for (String peer : peers) {
+            sent.add(membership.http()
+                    .sendAsync(membership.post(peer, PATH, body), HttpResponse.BodyHandlers.discarding())
+                    .exceptionally(e -> {
+                        log.debug("Could not relay availability changes to {}", peer, e);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+    }
+}
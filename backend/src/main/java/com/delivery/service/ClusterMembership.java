@@ -0,0 +1,320 @@
+package com.delivery.service;
+
+import com.delivery.config.ClusterProperties;
+import com.delivery.dto.ClusterView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks which nodes form the cluster and places them on a consistent-hash
+ * ring. Every heartbeat, each node sends its member list to every node it
+ * knows of and to its seeds, and merges the lists it gets back, so a joining
+ * node becomes known to all members within a couple of intervals. A node
+ * that has not answered for the failure timeout is dropped; a node shutting
+ * down says so. Departed nodes are only re-added by hearing from them
+ * directly, so gossip from slower members cannot bring them back.
+ * A node with seeds serves nothing until one of them has answered, so it
+ * never mistakes itself for the only member.
+ * Every call between nodes carries the shared cluster secret, and calls
+ * without it are refused, so only nodes holding it can join.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    static final String BASE_PATH = "/internal/cluster";
+
+    public static final String SECRET_HEADER = "X-Delivery-Cluster-Secret";
+
+    private final ClusterProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HttpClient http;
+    private final String self;
+    private final byte[] secret;
+    private final long failureTimeoutNanos;
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Map<String, Long> departed = new ConcurrentHashMap<>();
+    private final Map<String, List<InetAddress>> memberAddresses = new ConcurrentHashMap<>();
+    private final ReentrantLock topologyLock = new ReentrantLock();
+    private volatile ConsistentHashRing ring;
+    private volatile boolean joined;
+
+    public ClusterMembership(ClusterProperties properties,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher) {
+        if (properties.enabled() && (properties.secret() == null || properties.secret().isBlank())) {
+            throw new IllegalStateException("delivery.cluster.secret must be set in clustered mode");
+        }
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.http = properties.enabled()
+                ? HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(properties.forwardTimeout())
+                        .build()
+                : null;
+        this.self = normalize(properties.advertisedUrl());
+        this.secret = properties.secret() == null ? null : properties.secret().getBytes(StandardCharsets.UTF_8);
+        this.failureTimeoutNanos = properties.failureTimeout().toNanos();
+        this.ring = new ConsistentHashRing(Set.of(self), properties.virtualNodes());
+        this.joined = properties.seeds().isEmpty();
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Whether this node has heard from the cluster and may own partitions.
+     */
+    public boolean isJoined() {
+        return joined;
+    }
+
+    /**
+     * Advertised URL of this node.
+     */
+    public String self() {
+        return self;
+    }
+
+    /**
+     * The node owning a partition, as this node currently sees the ring.
+     *
+     * @param partition a {@linkplain SlotKey#partition packed partition key}
+     */
+    public String owner(long partition) {
+        return ring.owner(partition);
+    }
+
+    /**
+     * Every other node currently considered alive.
+     */
+    public List<String> peers() {
+        return List.copyOf(new TreeSet<>(lastSeen.keySet()));
+    }
+
+    /**
+     * Whether a call presented the cluster secret. Always false outside
+     * clustered mode.
+     */
+    public boolean isAuthentic(String presented) {
+        return isEnabled() && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a request that names {@code node} as its sender came from one
+     * of that node's addresses, and the node is a current member. Member
+     * hosts are resolved once and remembered while they stay members.
+     *
+     * @param remoteAddress the literal IP address the request arrived from
+     */
+    public boolean isMemberAt(String node, String remoteAddress) {
+        if (!isEnabled() || node == null || remoteAddress == null) {
+            return false;
+        }
+        String url = normalize(node);
+        if (!lastSeen.containsKey(url)) {
+            return false;
+        }
+        try {
+            InetAddress remote = InetAddress.getByName(remoteAddress);
+            List<InetAddress> addresses = memberAddresses.get(url);
+            if (addresses == null) {
+                addresses = List.of(InetAddress.getAllByName(URI.create(url).getHost()));
+                memberAddresses.put(url, addresses);
+            }
+            return addresses.contains(remote);
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public ClusterView view() {
+        return new ClusterView(self, ring.nodes());
+    }
+
+    /**
+     * Exchange member lists with every known node and the seeds, then drop
+     * nodes that have stayed silent too long.
+     */
+    @Scheduled(fixedDelayString = "${delivery.cluster.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        if (!isEnabled()) {
+            return;
+        }
+        Set<String> targets = new TreeSet<>(lastSeen.keySet());
+        properties.seeds().forEach(seed -> targets.add(normalize(seed)));
+        targets.remove(self);
+
+        String body = write(view());
+        List<CompletableFuture<ClusterView>> responses = new ArrayList<>();
+        for (String target : targets) {
+            responses.add(http.sendAsync(post(target, "/heartbeat", body), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> response.statusCode() == 200 ? read(response.body()) : null)
+                    .exceptionally(e -> null));
+        }
+        boolean answered = false;
+        for (CompletableFuture<ClusterView> response : responses) {
+            ClusterView view = response.join();
+            if (view != null) {
+                merge(view);
+                answered = true;
+            }
+        }
+        if (answered) {
+            joined = true;
+        }
+
+        long now = System.nanoTime();
+        lastSeen.forEach((node, seen) -> {
+            if (now - seen > failureTimeoutNanos && lastSeen.remove(node, seen)) {
+                departed.put(node, now);
+                log.warn("Cluster node {} stopped answering", node);
+            }
+        });
+        departed.values().removeIf(at -> now - at > 2 * failureTimeoutNanos);
+        updateRing();
+    }
+
+    /**
+     * Merge a heartbeat from another node and answer with this node's view.
+     */
+    public ClusterView onHeartbeat(ClusterView view) {
+        merge(view);
+        updateRing();
+        return view();
+    }
+
+    /**
+     * Drop a node that announced it is leaving.
+     */
+    public void onLeave(String node) {
+        String url = normalize(node);
+        lastSeen.remove(url);
+        departed.put(url, System.nanoTime());
+        log.info("Cluster node {} left", url);
+        updateRing();
+    }
+
+    /**
+     * Tell the other nodes this one is going away, so they take over its
+     * partitions without waiting for the failure timeout.
+     */
+    @PreDestroy
+    public void leave() {
+        if (!isEnabled()) {
+            return;
+        }
+        String body = write(view());
+        List<CompletableFuture<?>> sent = new ArrayList<>();
+        for (String peer : peers()) {
+            sent.add(http.sendAsync(post(peer, "/leave", body), HttpResponse.BodyHandlers.discarding())
+                    .exceptionally(e -> null));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+        http.close();
+    }
+
+    HttpRequest post(String node, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(node + BASE_PATH + path))
+                .timeout(properties.forwardTimeout())
+                .header("Content-Type", "application/json")
+                .header(SECRET_HEADER, properties.secret())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    HttpClient http() {
+        return http;
+    }
+
+    String secret() {
+        return properties.secret();
+    }
+
+    Duration forwardTimeout() {
+        return properties.forwardTimeout();
+    }
+
+    private void merge(ClusterView view) {
+        long now = System.nanoTime();
+        String from = normalize(view.from());
+        if (!from.equals(self)) {
+            lastSeen.put(from, now);
+            departed.remove(from);
+        }
+        for (String member : view.members()) {
+            String url = normalize(member);
+            if (!url.equals(self) && !departed.containsKey(url)) {
+                lastSeen.putIfAbsent(url, now);
+            }
+        }
+    }
+
+    private void updateRing() {
+        topologyLock.lock();
+        try {
+            Set<String> nodes = new TreeSet<>(lastSeen.keySet());
+            nodes.add(self);
+            memberAddresses.keySet().retainAll(nodes);
+            if (ring.hasSameNodes(nodes)) {
+                return;
+            }
+            ring = new ConsistentHashRing(nodes, properties.virtualNodes());
+            log.info("Cluster members are now {}", ring.nodes());
+            eventPublisher.publishEvent(new ClusterTopologyChangedEvent(ring.nodes()));
+        } finally {
+            topologyLock.unlock();
+        }
+    }
+
+    private String write(ClusterView view) {
+        try {
+            return objectMapper.writeValueAsString(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ClusterView read(String body) {
+        try {
+            return objectMapper.readValue(body, ClusterView.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
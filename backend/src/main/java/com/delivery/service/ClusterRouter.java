@@ -0,0 +1,337 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.ClusterUnavailableException;
+import com.delivery.exception.RemoteNodeException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs slot-changing requests on the node that owns their partition, a
+ * delivery method's whole day, and forwards them there otherwise.
+ * <p>
+ * A node serves a partition from its in-memory counters only once it has
+ * taken the partition over: it marks it as being acquired, asks every other
+ * member to hand it off, and serves it once all of them agreed. A node asked
+ * to hand off stops admitting bookings of the partition, waits for those in
+ * flight, writes its counters back and drops them; it refuses while it is
+ * acquiring the partition itself, so two nodes whose rings disagree cannot
+ * both serve it. The new owner seeds its counters from the database. When
+ * the ring changes, a node releases the partitions it no longer owns in the
+ * same way. Requests that arrive while ownership moves fail with
+ * {@link ClusterUnavailableException} and can be retried.
+ */
+@Component
+public class ClusterRouter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRouter.class);
+
+    /**
+     * Marks a forwarded request with the node that forwarded it.
+     */
+    public static final String FORWARDED_HEADER = "X-Delivery-Forwarded-By";
+
+    /**
+     * Names the client a forwarded request was charged to on the node that received it.
+     */
+    public static final String FORWARDED_CLIENT_HEADER = "X-Delivery-Forwarded-Client";
+
+    private static final TypeReference<Map<String, Object>> ERROR_BODY = new TypeReference<>() {};
+
+    private final ClusterMembership membership;
+    private final SlotCapacityGuard capacityGuard;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final SingleFlight<Long, Boolean> acquisitions = new SingleFlight<>();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder handoffs = new LongAdder();
+
+    public ClusterRouter(ClusterMembership membership, SlotCapacityGuard capacityGuard, ObjectMapper objectMapper) {
+        this.membership = membership;
+        this.capacityGuard = capacityGuard;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return membership.isEnabled();
+    }
+
+    /**
+     * Whether this node keeps the counters of a partition: clustering is off,
+     * or this node has joined and owns it. Other nodes must not seed counters
+     * for it, since nothing would keep them up to date, and read the stored
+     * remaining capacity instead.
+     */
+    public boolean isLocal(DeliveryMethod method, LocalDate date) {
+        return isLocal(SlotKey.partition(method, date));
+    }
+
+    /**
+     * @param partition a {@linkplain SlotKey#partition packed partition key}
+     */
+    public boolean isLocal(long partition) {
+        return !isEnabled() || membership.isJoined() && membership.owner(partition).equals(membership.self());
+    }
+
+    /**
+     * Whether a request carrying {@link #FORWARDED_HEADER} really was forwarded
+     * by a member: clustering is on, it carries the cluster secret and it
+     * arrived from the named node's address. Anyone else can set the header,
+     * so it is ignored otherwise.
+     */
+    public boolean isForwardedByMember(String forwardedBy, String secret, String remoteAddress) {
+        return isEnabled() && membership.isAuthentic(secret) && membership.isMemberAt(forwardedBy, remoteAddress);
+    }
+
+    /**
+     * Run work locally if this node owns the partition, otherwise hand it to
+     * the owner.
+     *
+     * @param wasForwarded whether the request was already forwarded once; it is then never forwarded again
+     * @param local        the work to run on the owning node
+     * @param remote       forwards the work to the owning node's URL
+     * @throws ClusterUnavailableException if ownership of the partition is moving
+     */
+    public <T> T route(DeliveryMethod method, LocalDate date, boolean wasForwarded,
+                       Supplier<T> local, Function<String, T> remote) {
+        if (!isEnabled()) {
+            return local.get();
+        }
+        if (!membership.isJoined()) {
+            throw new ClusterUnavailableException("This node has not joined the cluster yet");
+        }
+        long partition = SlotKey.partition(method, date);
+        String owner = membership.owner(partition);
+        if (!owner.equals(membership.self())) {
+            if (wasForwarded) {
+                throw new ClusterUnavailableException("Ownership of " + method + " on " + date + " is moving");
+            }
+            forwarded.increment();
+            return remote.apply(owner);
+        }
+
+        Partition state = partitions.computeIfAbsent(partition, k -> new Partition());
+        for (int attempt = 0; attempt < 2; attempt++) {
+            state.lock.readLock().lock();
+            try {
+                if (state.status == Status.READY) {
+                    return local.get();
+                }
+            } finally {
+                state.lock.readLock().unlock();
+            }
+            if (!acquisitions.execute(partition, () -> acquire(partition, state))) {
+                break;
+            }
+        }
+        throw new ClusterUnavailableException("Ownership of " + method + " on " + date + " is moving");
+    }
+
+    /**
+     * Forward a request to another node and return its response body.
+     *
+     * @throws RemoteNodeException         if the node answered with an error
+     * @throws ClusterUnavailableException if the node could not be reached
+     */
+    public <T> T forward(String node, String path, Object body, Class<T> responseType, Map<String, String> headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node + path))
+                .timeout(timeout())
+                .header("Content-Type", "application/json")
+                .header(FORWARDED_HEADER, membership.self())
+                .header(ClusterMembership.SECRET_HEADER, membership.secret())
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(toJson(body)));
+        headers.forEach(request::header);
+        try {
+            HttpResponse<byte[]> response = membership.http().send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 == 2) {
+                return objectMapper.readValue(response.body(), responseType);
+            }
+            throw new RemoteNodeException(response.statusCode(), errorBody(response));
+        } catch (IOException e) {
+            throw new ClusterUnavailableException("Owning node " + node + " is unreachable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterUnavailableException("Interrupted while forwarding to " + node);
+        }
+    }
+
+    /**
+     * Give up a partition another node is taking over.
+     *
+     * @return false if this node is acquiring the partition itself
+     */
+    public boolean handOff(long partition) {
+        Partition state = partitions.get(partition);
+        if (state == null) {
+            // Never served here, but counters may have been seeded before the ring settled
+            capacityGuard.forget(key -> SlotKey.partition(key) == partition);
+            return true;
+        }
+        state.lock.writeLock().lock();
+        try {
+            if (state.status == Status.ACQUIRING) {
+                return false;
+            }
+            if (state.status == Status.READY) {
+                release(partition, state);
+            } else {
+                capacityGuard.forget(key -> SlotKey.partition(key) == partition);
+            }
+            return true;
+        } finally {
+            state.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Release every partition the new ring gives to another node, and drop
+     * any other counters of partitions this node does not own.
+     */
+    @EventListener
+    public void onTopologyChanged(ClusterTopologyChangedEvent event) {
+        partitions.forEach((partition, state) -> {
+            if (membership.owner(partition).equals(membership.self())) {
+                return;
+            }
+            state.lock.writeLock().lock();
+            try {
+                if (state.status == Status.READY) {
+                    release(partition, state);
+                }
+            } finally {
+                state.lock.writeLock().unlock();
+            }
+        });
+        // Only partitions this node owns are ever made ready, so no booking uses these
+        capacityGuard.forget(key -> !isLocal(SlotKey.partition(key)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.cluster.members", membership, m -> m.peers().size() + 1)
+                .description("Cluster members as seen by this node")
+                .register(registry);
+        FunctionCounter.builder("delivery.cluster.forwarded", forwarded, LongAdder::sum)
+                .description("Requests forwarded to the node owning their slots")
+                .register(registry);
+        FunctionCounter.builder("delivery.cluster.handoffs", handoffs, LongAdder::sum)
+                .description("Partitions handed off to another node")
+                .register(registry);
+    }
+
+    private boolean acquire(long partition, Partition state) {
+        state.lock.writeLock().lock();
+        try {
+            if (state.status == Status.READY) {
+                return true;
+            }
+            state.status = Status.ACQUIRING;
+        } finally {
+            state.lock.writeLock().unlock();
+        }
+
+        boolean agreed = true;
+        for (String peer : membership.peers()) {
+            if (!requestHandOff(peer, partition)) {
+                agreed = false;
+                break;
+            }
+        }
+
+        state.lock.writeLock().lock();
+        try {
+            if (state.status != Status.ACQUIRING) {
+                return false;
+            }
+            if (!agreed || !membership.owner(partition).equals(membership.self())) {
+                state.status = Status.NONE;
+                return false;
+            }
+            // Counters left from before, e.g. by an expired hold, may be stale
+            capacityGuard.forget(key -> SlotKey.partition(key) == partition);
+            state.status = Status.READY;
+            return true;
+        } finally {
+            state.lock.writeLock().unlock();
+        }
+    }
+
+    private boolean requestHandOff(String peer, long partition) {
+        try {
+            HttpResponse<Void> response = membership.http().send(
+                    membership.post(peer, "/handoff?partition=" + partition, ""),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            log.debug("Handoff request to {} failed", peer, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Called with the write lock held, so no booking of the partition is in flight.
+     */
+    private void release(long partition, Partition state) {
+        state.status = Status.NONE;
+        capacityGuard.forget(key -> SlotKey.partition(key) == partition);
+        handoffs.increment();
+        log.debug("Handed off partition {}", SlotKey.unpack(partition));
+    }
+
+    private Duration timeout() {
+        return membership.forwardTimeout();
+    }
+
+    private Map<String, Object> errorBody(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readValue(response.body(), ERROR_BODY);
+        } catch (IOException e) {
+            return Map.of("status", response.statusCode(), "message", "Owning node answered " + response.statusCode());
+        }
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private enum Status {
+        NONE,
+        ACQUIRING,
+        READY
+    }
+
+    private static final class Partition {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        Status status = Status.NONE;
+    }
+}
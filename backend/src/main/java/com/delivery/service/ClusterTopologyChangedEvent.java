@@ -0,0 +1,10 @@
+package com.delivery.service;
+
+import java.util.List;
+
+/**
+ * Published when this node's view of the cluster members changes.
+ *
+ * @param members advertised URLs of the members, this node included
+ */
+public record ClusterTopologyChangedEvent(List<String> members) {}
@@ -0,0 +1,42 @@
+package com.delivery.service;
+
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.TimeSlotRepository;
+
+/**
+ * Takes capacity with a single conditional UPDATE.
+ * The database checks and decrements in one statement, so there is no
+ * read-modify-write window and no retry.
+ */
+public class ConditionalUpdateCapacityGuard implements SlotCapacityGuard {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    public ConditionalUpdateCapacityGuard(TimeSlotRepository timeSlotRepository) {
+        this.timeSlotRepository = timeSlotRepository;
+    }
+
+    @Override
+    public int tryAcquire(TimeSlot slot) {
+        if (timeSlotRepository.decrementRemaining(slot.getId()) == 0) {
+            return FULL;
+        }
+        return timeSlotRepository.findRemainingById(slot.getId());
+    }
+
+    @Override
+    public int release(TimeSlot slot) {
+        timeSlotRepository.incrementRemaining(slot.getId());
+        return timeSlotRepository.findRemainingById(slot.getId());
+    }
+
+    @Override
+    public int remaining(TimeSlot slot) {
+        return slot.getRemaining();
+    }
+
+    @Override
+    public int currentRemaining(Long slotId, long slotKey, int stored) {
+        return timeSlotRepository.findRemainingById(slotId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.delivery.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring mapping partitions to nodes. Each node sits
+ * at a number of pseudo-random positions; a partition belongs to the first
+ * node at or after its own hash. Adding or removing a node therefore only
+ * moves the partitions next to that node's positions. Positions are kept in
+ * a sorted primitive array, so a lookup is one binary search.
+ */
+final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] positions;
+    private final String[] owners;
+
+    ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one node");
+        }
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        int size = this.nodes.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        int i = 0;
+        for (int n = 0; n < this.nodes.size(); n++) {
+            long seed = hash(this.nodes.get(n));
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[i++] = new long[]{mix(seed + v * 0x9E3779B97F4A7C15L), n};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.positions = new long[size];
+        this.owners = new String[size];
+        for (int e = 0; e < size; e++) {
+            positions[e] = entries[e][0];
+            owners[e] = this.nodes.get((int) entries[e][1]);
+        }
+    }
+
+    /**
+     * The node owning a partition.
+     */
+    String owner(long partition) {
+        int i = Arrays.binarySearch(positions, mix(partition));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == positions.length ? 0 : i];
+    }
+
+    List<String> nodes() {
+        return nodes;
+    }
+
+    boolean hasSameNodes(Set<String> other) {
+        return nodes.size() == other.size() && other.containsAll(nodes);
+    }
+
+    private static long hash(String node) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : node.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreading similar keys across the whole ring.
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,92 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the slot query and reservation hot paths.
+ * Every tagged meter is registered up front and looked up by enum, so
+ * recording on a request path is a counter increment or histogram update
+ * with no tag or meter allocation.
+ */
+@Component
+public class DeliveryMetrics {
+
+    private final Map<DeliveryMethod, Timer> slotQueries = new EnumMap<>(DeliveryMethod.class);
+    private final Map<DeliveryMethod, Counter> booked = new EnumMap<>(DeliveryMethod.class);
+    private final Map<InvalidRequestException.Reason, Counter> rejected =
+            new EnumMap<>(InvalidRequestException.Reason.class);
+    private final Timer reservationsSucceeded;
+    private final Timer reservationsFailed;
+    private final Counter retries;
+    private final Counter retriesExhausted;
+
+    public DeliveryMetrics(MeterRegistry registry) {
+        for (DeliveryMethod method : DeliveryMethod.values()) {
+            String tag = method.name();
+            slotQueries.put(method, Timer.builder("delivery.slots.query")
+                    .description("Latency of slot listing queries")
+                    .tag("method", tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            booked.put(method, Counter.builder("delivery.reservations.booked")
+                    .description("Reservations created")
+                    .tag("method", tag)
+                    .register(registry));
+        }
+        for (InvalidRequestException.Reason reason : InvalidRequestException.Reason.values()) {
+            rejected.put(reason, Counter.builder("delivery.requests.rejected")
+                    .description("Requests rejected as invalid")
+                    .tag("reason", reason.name())
+                    .register(registry));
+        }
+        this.reservationsSucceeded = reservationTimer(registry, "success");
+        this.reservationsFailed = reservationTimer(registry, "failure");
+        this.retries = Counter.builder("delivery.reservations.retries")
+                .description("Reservation transactions retried after an optimistic locking conflict")
+                .register(registry);
+        this.retriesExhausted = Counter.builder("delivery.reservations.retries.exhausted")
+                .description("Reservations rejected because every retry hit a conflict")
+                .register(registry);
+    }
+
+    private static Timer reservationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("delivery.reservations.create")
+                .description("Latency of reservation requests")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordSlotQuery(DeliveryMethod method, long nanos) {
+        slotQueries.get(method).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordReservation(long nanos, boolean success) {
+        (success ? reservationsSucceeded : reservationsFailed).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void reservationBooked(DeliveryMethod method) {
+        booked.get(method).increment();
+    }
+
+    public void reservationRetried() {
+        retries.increment();
+    }
+
+    public void reservationRetriesExhausted() {
+        retriesExhausted.increment();
+    }
+
+    public void requestRejected(InvalidRequestException.Reason reason) {
+        rejected.get(reason).increment();
+    }
+}
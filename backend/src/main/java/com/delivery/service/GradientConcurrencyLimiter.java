@@ -0,0 +1,112 @@
+package com.delivery.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows measured latency, after the gradient
+ * limiters derived from TCP Vegas. A fast average of recent response times
+ * is compared with a slow one that stands in for the no-load latency: while
+ * they agree the limit grows by about its square root per sample, and once
+ * queueing pushes recent latency past {@link #TOLERANCE} times the baseline
+ * the limit shrinks in proportion. Samples taken while the limiter is mostly
+ * idle say nothing about capacity and only update the averages.
+ */
+final class GradientConcurrencyLimiter {
+
+    static final double TOLERANCE = 1.5;
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double FAILURE_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile int limit;
+
+    // Guarded by updateLock
+    private double shortRtt;
+    private double longRtt;
+    private double estimate;
+
+    GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.estimate = limit;
+    }
+
+    /**
+     * Take a slot if fewer than {@link #limit()} requests are in flight.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give a slot back and feed its latency into the limit. Under contention
+     * the sample is dropped rather than making the caller wait for the lock.
+     *
+     * @param rttNanos how long the request held the slot
+     * @param failed   whether the request failed on the server side
+     */
+    void release(long rttNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            update(rttNanos, inFlightBefore, failed);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long rttNanos, int inFlightBefore, boolean failed) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rttNanos - longRtt) * LONG_WEIGHT;
+        if (longRtt > shortRtt * 2) {
+            // Load dropped well below where the baseline was learnt; let it catch up
+            longRtt *= 0.95;
+        }
+
+        double target;
+        if (failed) {
+            target = estimate * FAILURE_BACKOFF;
+        } else if (inFlightBefore * 2 < estimate) {
+            return;
+        } else {
+            double gradient = Math.clamp(TOLERANCE * longRtt / shortRtt, 0.5, 1.0);
+            target = estimate * gradient + Math.sqrt(estimate);
+        }
+        estimate = Math.clamp(estimate * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,201 @@
+package com.delivery.service;
+
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests carrying an Idempotency-Key so a client
+ * retry gets the original response instead of running the request again.
+ * Keys belong to the client that sent them, so two clients choosing the same
+ * key neither collide nor see each other's results.
+ * Keys are spread over independently locked shards, each a small map in
+ * insertion order; since entries expire a fixed time after they were written,
+ * the oldest entry is always at the head and eviction is O(1).
+ * A retry that arrives while the first attempt is still running waits for it.
+ * Attempts still running are never evicted, so a full shard may go over its
+ * share while requests are in flight. Failed attempts are forgotten so the
+ * client can retry them.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Shard[] shards;
+    private final int mask;
+    private final int maxEntriesPerShard;
+    private final long ttlNanos;
+    private final LongAdder replays = new LongAdder();
+
+    public IdempotencyStore(@Value("${delivery.reservations.idempotency.shards:16}") int shards,
+                            @Value("${delivery.reservations.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${delivery.reservations.idempotency.ttl:24h}") Duration ttl) {
+        int size = 1;
+        while (size < shards) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.mask = size - 1;
+        this.maxEntriesPerShard = Math.max(1, maxEntries / size);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Run a request once per client and key and return its result to every retry.
+     *
+     * @param client  the client the request is charged to
+     * @param key     client-supplied idempotency key
+     * @param request the request body; a retry must send an equal one
+     * @throws InvalidRequestException if the key is malformed or was used for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String client, String key, Object request, Supplier<T> work) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(Reason.INVALID_IDEMPOTENCY_KEY,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Key scoped = new Key(Objects.requireNonNull(client), key);
+        Shard shard = shards[shardIndex(scoped)];
+        Entry entry = new Entry(request, System.nanoTime() + ttlNanos);
+        Entry existing = shard.putIfAbsent(scoped, entry, maxEntriesPerShard);
+
+        if (existing != null) {
+            if (!existing.request.equals(request)) {
+                throw new InvalidRequestException(Reason.INVALID_IDEMPOTENCY_KEY,
+                        "Idempotency-Key was already used for a different request");
+            }
+            replays.increment();
+            try {
+                return (T) existing.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T result = work.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            shard.remove(scoped, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int shardIndex(Key key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.reservations.idempotency.entries", this, IdempotencyStore::size)
+                .description("Idempotency keys remembered")
+                .register(registry);
+        FunctionCounter.builder("delivery.reservations.idempotency.replays", replays, LongAdder::sum)
+                .description("Requests answered from a previous attempt with the same Idempotency-Key")
+                .register(registry);
+    }
+
+    record Key(String client, String key) {}
+
+    private static final class Entry {
+        final Object request;
+        final long expiresAtNanos;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(Object request, long expiresAtNanos) {
+            this.request = Objects.requireNonNull(request);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Key, Entry> entries = new LinkedHashMap<>();
+
+        Entry putIfAbsent(Key key, Entry entry, int maxEntries) {
+            long now = entry.expiresAtNanos - ttlNanos;
+            lock.lock();
+            try {
+                // Looked up before evicting, so a full shard cannot push out the attempt a retry is after
+                Entry existing = entries.get(key);
+                if (existing != null && (existing.expiresAtNanos - now > 0 || !existing.result.isDone())) {
+                    return existing;
+                }
+                evict(now, maxEntries);
+                // Removed first so the new entry goes to the tail, keeping the oldest at the head
+                entries.remove(key);
+                entries.put(key, entry);
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Key key, Entry entry) {
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Drop expired entries, then the oldest ones until there is room for
+         * one more. Attempts still running are skipped: their callers and any
+         * retries waiting on them still need the entry.
+         */
+        private void evict(long now, int maxEntries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry oldest = it.next();
+                if (oldest.expiresAtNanos - now > 0 && entries.size() < maxEntries) {
+                    return;
+                }
+                if (oldest.result.isDone()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.delivery.service;
+
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.TimeSlotRepository;
+
+/**
+ * Takes capacity with a versioned update of the slot row.
+ * A concurrent booking of the same slot makes the flush fail with an
+ * optimistic locking conflict; {@link ReservationService} then retries the
+ * whole reservation with backoff.
+ */
+public class OptimisticCapacityGuard implements SlotCapacityGuard {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    public OptimisticCapacityGuard(TimeSlotRepository timeSlotRepository) {
+        this.timeSlotRepository = timeSlotRepository;
+    }
+
+    @Override
+    public int tryAcquire(TimeSlot slot) {
+        int remaining = slot.getRemaining();
+        if (remaining <= 0) {
+            return FULL;
+        }
+        slot.setRemaining(remaining - 1);
+        timeSlotRepository.saveAndFlush(slot);
+        return remaining - 1;
+    }
+
+    @Override
+    public int release(TimeSlot slot) {
+        timeSlotRepository.incrementRemaining(slot.getId());
+        return timeSlotRepository.findRemainingById(slot.getId());
+    }
+
+    @Override
+    public int remaining(TimeSlot slot) {
+        return slot.getRemaining();
+    }
+
+    @Override
+    public int currentRemaining(Long slotId, long slotKey, int stored) {
+        return timeSlotRepository.findRemainingById(slotId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.delivery.service;
+
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.TimeSlotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Takes capacity under a row lock on the slot.
+ * The slot is re-read with SELECT ... FOR UPDATE, so concurrent bookings of
+ * the same slot queue on the database until the holder commits.
+ */
+public class PessimisticCapacityGuard implements SlotCapacityGuard {
+
+    private final EntityManager entityManager;
+    private final TimeSlotRepository timeSlotRepository;
+
+    public PessimisticCapacityGuard(EntityManager entityManager, TimeSlotRepository timeSlotRepository) {
+        this.entityManager = entityManager;
+        this.timeSlotRepository = timeSlotRepository;
+    }
+
+    @Override
+    public int tryAcquire(TimeSlot slot) {
+        entityManager.refresh(slot, LockModeType.PESSIMISTIC_WRITE);
+        int remaining = slot.getRemaining();
+        if (remaining <= 0) {
+            return FULL;
+        }
+        slot.setRemaining(remaining - 1);
+        return remaining - 1;
+    }
+
+    @Override
+    public int release(TimeSlot slot) {
+        timeSlotRepository.incrementRemaining(slot.getId());
+        return timeSlotRepository.findRemainingById(slot.getId());
+    }
+
+    @Override
+    public int remaining(TimeSlot slot) {
+        return slot.getRemaining();
+    }
+
+    @Override
+    public int currentRemaining(Long slotId, long slotKey, int stored) {
+        return timeSlotRepository.findRemainingById(slotId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.delivery.service;
+
+import java.time.Instant;
+
+/**
+ * Published when a reservation is created as a hold that lapses at {@code expiresAt}.
+ *
+ * @param partition the {@linkplain SlotKey#partition packed partition} of the held slot
+ */
+public record ReservationHeldEvent(long reservationId, long partition, Instant expiresAt) {}
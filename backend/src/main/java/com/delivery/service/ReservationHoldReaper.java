@@ -0,0 +1,140 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.ClusterUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expires unconfirmed holds when their deadline passes.
+ * Deadlines live in a {@link TimerWheel} fed by {@link ReservationHeldEvent}s
+ * and, at startup, by the holds already in the table; nothing polls the
+ * database for due holds.
+ * <p>
+ * In clustered mode a hold is expired only by the node owning its slot's
+ * partition, through {@link ClusterRouter}, so the capacity it gives back
+ * lands in the owner's counter. Holds of other partitions are not scheduled,
+ * and are dropped if the partition moved away before they fell due; the
+ * table is scanned again whenever the ring changes, so a new owner picks up
+ * the holds of the partitions it gained.
+ */
+@Component
+public class ReservationHoldReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationHoldReaper.class);
+
+    private static final String SELECT_HOLDS_SQL =
+            "SELECT r.id, r.expires_at, s.method, s.slot_date FROM reservations r "
+                    + "JOIN time_slots s ON s.id = r.time_slot_id WHERE r.status = 'HELD'";
+
+    private final ReservationService reservationService;
+    private final ClusterRouter clusterRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TimerWheel<Hold> wheel;
+    // Ids in the wheel, so scanning the table again does not schedule a hold twice
+    private final Set<Long> scheduledIds = ConcurrentHashMap.newKeySet();
+
+    public ReservationHoldReaper(ReservationService reservationService,
+                                 ClusterRouter clusterRouter,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${delivery.reservations.hold-tick-ms:100}") long tickMillis) {
+        this.reservationService = reservationService;
+        this.clusterRouter = clusterRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.wheel = new TimerWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onReservationHeld(ReservationHeldEvent event) {
+        schedule(new Hold(event.reservationId(), event.partition()), event.expiresAt().toEpochMilli());
+    }
+
+    /**
+     * Schedule the holds that were outstanding when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOutstandingHolds() {
+        int[] loaded = {0};
+        jdbcTemplate.query(SELECT_HOLDS_SQL, rs -> {
+            long partition = SlotKey.partition(DeliveryMethod.valueOf(rs.getString("method")),
+                    rs.getObject("slot_date", LocalDate.class));
+            if (clusterRouter.isLocal(partition) && schedule(new Hold(rs.getLong("id"), partition),
+                    rs.getObject("expires_at", OffsetDateTime.class).toInstant().toEpochMilli())) {
+                loaded[0]++;
+            }
+        });
+        if (loaded[0] > 0) {
+            log.info("Scheduled expiry for {} outstanding holds", loaded[0]);
+        }
+    }
+
+    /**
+     * Pick up the holds of partitions this node may have gained.
+     */
+    @EventListener
+    public void onTopologyChanged(ClusterTopologyChangedEvent event) {
+        loadOutstandingHolds();
+    }
+
+    /**
+     * Advance the wheel and expire every hold that fell due.
+     *
+     * @return number of holds expired
+     */
+    @Scheduled(fixedDelayString = "${delivery.reservations.hold-tick-ms:100}")
+    public int reap() {
+        List<Hold> due = wheel.advanceTo(System.currentTimeMillis());
+        int expired = 0;
+        for (Hold hold : due) {
+            scheduledIds.remove(hold.id());
+            if (!clusterRouter.isLocal(hold.partition())) {
+                // The partition moved; its new owner scheduled the hold when the ring changed
+                continue;
+            }
+            SlotKey day = SlotKey.unpack(hold.partition());
+            try {
+                if (clusterRouter.route(day.method(), day.date(), false,
+                        () -> reservationService.expireHold(hold.id()), owner -> false)) {
+                    expired++;
+                }
+            } catch (ClusterUnavailableException e) {
+                // Ownership is moving; try again on the next tick
+                schedule(hold, System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                // Try again on the next tick
+                schedule(hold, System.currentTimeMillis());
+                log.warn("Failed to expire hold {}", hold.id(), e);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of holds waiting for their deadline.
+     */
+    public int scheduled() {
+        return wheel.size();
+    }
+
+    private boolean schedule(Hold hold, long deadlineMillis) {
+        if (!scheduledIds.add(hold.id())) {
+            return false;
+        }
+        wheel.schedule(hold, deadlineMillis);
+        return true;
+    }
+
+    private record Hold(long id, long partition) {}
+}
@@ -0,0 +1,334 @@
+package com.delivery.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only reservation journal in a memory-mapped ring file.
+ * Appends are acknowledged once forced to disk; a single sync thread forces
+ * everything appended since its last pass, so concurrent bookings share one
+ * fsync. Entries stay in the ring until {@link #checkpoint(long)} marks them
+ * as persisted elsewhere, and entries past the checkpoint are recovered when
+ * the file is reopened.
+ */
+final class ReservationJournal implements Closeable {
+
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 104;
+    // Largest ring a single mapping, indexed by int, can hold
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+    // Record layout: position, reservation id, slot id, expiry second, customer id length, customer id, CRC
+    private static final int CUSTOMER_LENGTH_OFFSET = 28;
+    private static final int CUSTOMER_OFFSET = 32;
+    private static final int CUSTOMER_BYTES = 64;
+    private static final int CRC_OFFSET = CUSTOMER_OFFSET + CUSTOMER_BYTES;
+    private static final int NO_CUSTOMER = -1;
+
+    private static final long MAGIC = 0x5245534A524E4C32L;
+    // Format before customer ids, with 32-byte records
+    private static final long MAGIC_V1 = 0x5245534A524E4C31L;
+    private static final long FULL_WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition spaceAvailable = appendLock.newCondition();
+    private long tail;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncRequested = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long requested;
+    private volatile long durable;
+
+    private volatile long checkpoint;
+    private volatile boolean closed;
+    private final Thread syncThread;
+
+    private ReservationJournal(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        recover();
+        this.syncThread = Thread.ofPlatform().daemon().name("reservation-journal-sync").start(this::syncLoop);
+    }
+
+    /**
+     * Open or create a journal holding up to {@code capacity} unpersisted entries.
+     */
+    static ReservationJournal open(Path path, int capacity) throws IOException {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Journal capacity must be between 1 and " + MAX_CAPACITY
+                    + ", not " + capacity);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes(capacity));
+            return new ReservationJournal(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append an entry and wait until it is on disk.
+     *
+     * @param customerId printable ASCII of at most {@value #CUSTOMER_BYTES} characters, or null
+     * @return the entry's position in the journal
+     */
+    long append(long reservationId, long slotId, long expiresAtEpochSecond, String customerId) {
+        if (customerId != null && (customerId.length() > CUSTOMER_BYTES
+                || !StandardCharsets.US_ASCII.newEncoder().canEncode(customerId))) {
+            throw new IllegalArgumentException("Customer id does not fit the journal: " + customerId);
+        }
+        long position;
+        appendLock.lock();
+        try {
+            long deadline = System.nanoTime() + FULL_WAIT_NANOS;
+            while (tail - checkpoint >= capacity) {
+                long left = deadline - System.nanoTime();
+                if (closed || left <= 0) {
+                    throw new IllegalStateException("Reservation journal is full");
+                }
+                spaceAvailable.awaitNanos(left);
+            }
+            position = tail;
+            write(position, reservationId, slotId, expiresAtEpochSecond, customerId);
+            tail = position + 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the reservation journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(position + 1);
+        return position;
+    }
+
+    /**
+     * Read up to {@code max} durable entries starting at a position.
+     */
+    List<Entry> read(long from, int max) {
+        long to = Math.min(durable, from + max);
+        List<Entry> entries = new ArrayList<>((int) Math.max(0, to - from));
+        for (long position = from; position < to; position++) {
+            int offset = offset(position);
+            entries.add(new Entry(position, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                    Integer.toUnsignedLong(buffer.getInt(offset + 24)), readCustomerId(offset)));
+        }
+        return entries;
+    }
+
+    /**
+     * Mark every entry before {@code position} as persisted, freeing its space.
+     */
+    void checkpoint(long position) {
+        appendLock.lock();
+        try {
+            if (position <= checkpoint) {
+                return;
+            }
+            buffer.putLong(8, position);
+            buffer.force(0, HEADER_BYTES);
+            checkpoint = position;
+            spaceAvailable.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    long durablePosition() {
+        return durable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        syncLock.lock();
+        try {
+            syncRequested.signalAll();
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.force();
+        channel.close();
+    }
+
+    private void write(long position, long reservationId, long slotId, long expiresAtEpochSecond, String customerId) {
+        int offset = offset(position);
+        buffer.putLong(offset, position);
+        buffer.putLong(offset + 8, reservationId);
+        buffer.putLong(offset + 16, slotId);
+        buffer.putInt(offset + 24, (int) expiresAtEpochSecond);
+        buffer.putInt(offset + CUSTOMER_LENGTH_OFFSET, customerId == null ? NO_CUSTOMER : customerId.length());
+        for (int i = 0; i < CUSTOMER_BYTES; i++) {
+            buffer.put(offset + CUSTOMER_OFFSET + i,
+                    customerId != null && i < customerId.length() ? (byte) customerId.charAt(i) : 0);
+        }
+        buffer.putInt(offset + CRC_OFFSET, crc(offset));
+    }
+
+    private String readCustomerId(int offset) {
+        int length = buffer.getInt(offset + CUSTOMER_LENGTH_OFFSET);
+        if (length == NO_CUSTOMER) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + CUSTOMER_OFFSET, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private void awaitDurable(long position) {
+        syncLock.lock();
+        try {
+            if (position > requested) {
+                requested = position;
+                syncRequested.signal();
+            }
+            while (durable < position) {
+                if (closed) {
+                    throw new IllegalStateException("Reservation journal is closed");
+                }
+                synced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while syncing the reservation journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            syncLock.lock();
+            try {
+                while (requested <= durable && !closed) {
+                    syncRequested.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                syncLock.unlock();
+            }
+
+            appendLock.lock();
+            try {
+                target = tail;
+            } finally {
+                appendLock.unlock();
+            }
+            force(durable, target);
+
+            syncLock.lock();
+            try {
+                durable = target;
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    private void force(long from, long to) {
+        if (from == to) {
+            return;
+        }
+        if (to - from >= capacity) {
+            buffer.force();
+            return;
+        }
+        int start = offset(from);
+        int end = offset(to);
+        if (start < end) {
+            buffer.force(start, end - start);
+        } else {
+            buffer.force(start, (int) (fileBytes(capacity) - start));
+            buffer.force(HEADER_BYTES, end - HEADER_BYTES);
+        }
+    }
+
+    /**
+     * Restore the checkpoint from the header and scan forward to the last intact entry.
+     */
+    private void recover() {
+        if (buffer.getLong(0) == MAGIC_V1) {
+            throw new IllegalStateException("Reservation journal was written in the format without customer ids; "
+                    + "drain it with the previous release before upgrading");
+        }
+        if (buffer.getLong(0) != MAGIC) {
+            buffer.putLong(0, MAGIC);
+            buffer.putLong(8, 0);
+            buffer.putInt(16, capacity);
+            buffer.force(0, HEADER_BYTES);
+        } else if (buffer.getInt(16) != capacity) {
+            throw new IllegalStateException("Reservation journal was created with capacity "
+                    + buffer.getInt(16) + ", not " + capacity);
+        }
+        checkpoint = buffer.getLong(8);
+        long position = checkpoint;
+        while (position - checkpoint < capacity && isIntact(position)) {
+            position++;
+        }
+        tail = position;
+        requested = position;
+        durable = position;
+    }
+
+    private boolean isIntact(long position) {
+        int offset = offset(position);
+        return buffer.getLong(offset) == position && buffer.getInt(offset + CRC_OFFSET) == crc(offset)
+                && buffer.getInt(offset + CUSTOMER_LENGTH_OFFSET) <= CUSTOMER_BYTES;
+    }
+
+    private int crc(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private int offset(long position) {
+        return (int) (HEADER_BYTES + position % capacity * RECORD_BYTES);
+    }
+
+    private static long fileBytes(int capacity) {
+        return HEADER_BYTES + (long) capacity * RECORD_BYTES;
+    }
+
+    /**
+     * One journaled booking.
+     */
+    record Entry(long position, long reservationId, long slotId, long expiresAtEpochSecond, String customerId) {}
+}
@@ -0,0 +1,199 @@
+package com.delivery.service;
+
+import com.delivery.config.ClusterProperties;
+import com.delivery.config.ReservationJournalProperties;
+import com.delivery.config.ReservationProperties;
+import com.delivery.entity.Reservation;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Write-behind persistence for reservations.
+ * A booking is acknowledged once its entry is durable in the
+ * {@link ReservationJournal}; a background drainer inserts journaled entries
+ * into the reservations table in JDBC batches and advances the checkpoint.
+ * Entries left over from a previous run are drained at startup if the
+ * database takes them; otherwise they stay pending and the drainer keeps
+ * retrying. Either way a capacity counter seeded from the table also counts
+ * the holds still pending here, through {@link #reservedWithPending}.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.reservations.journal.enabled", havingValue = "true")
+public class ReservationJournalWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationJournalWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reservations (id, time_slot_id, status, expires_at, customer_id) SELECT ?, ?, 'HELD', ?, ? "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM reservations WHERE id = ?)";
+
+    private final ReservationJournal journal;
+    private final SequenceIdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final int drainBatchSize;
+
+    // Journaled reservations not yet in the table
+    private final Map<Long, PendingReservation> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private volatile boolean failing;
+
+    public ReservationJournalWriter(ReservationJournalProperties properties,
+                                    ReservationProperties reservationProperties,
+                                    ClusterProperties clusterProperties,
+                                    JdbcTemplate jdbcTemplate,
+                                    EntityManagerFactory entityManagerFactory) throws IOException {
+        if (reservationProperties.strategy() != ReservationStrategy.IN_MEMORY) {
+            throw new IllegalStateException("The reservation journal requires the IN_MEMORY strategy");
+        }
+        if (clusterProperties.enabled()) {
+            // A node handing a partition off would keep its journaled holds from the new owner's count
+            throw new IllegalStateException("The reservation journal cannot be used in clustered mode");
+        }
+        String nextValueSql = SequenceIdAllocator.nextValueSql(entityManagerFactory, Reservation.SEQUENCE_NAME);
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.drainBatchSize = properties.drainBatchSize();
+        this.idAllocator = new SequenceIdAllocator(
+                jdbcTemplate, nextValueSql, Reservation.ID_BLOCK_SIZE, properties.idReserveBlocks());
+        this.journal = ReservationJournal.open(properties.path(), properties.capacity());
+
+        replay();
+    }
+
+    /**
+     * Journal a hold and wait for it to be durable.
+     *
+     * @param expiresAt  hold deadline, whole seconds
+     * @param customerId customer who booked, or null
+     * @return the new reservation id
+     */
+    public long append(long slotId, Instant expiresAt, String customerId) {
+        long reservationId = idAllocator.allocate();
+        pending.put(reservationId, new PendingReservation(slotId, expiresAt, customerId));
+        try {
+            journal.append(reservationId, slotId, expiresAt.getEpochSecond(), customerId);
+        } catch (RuntimeException e) {
+            pending.remove(reservationId);
+            throw e;
+        }
+        return reservationId;
+    }
+
+    /**
+     * A journaled reservation that is not in the table yet, or null.
+     */
+    public PendingReservation pendingReservation(long reservationId) {
+        return pending.get(reservationId);
+    }
+
+    /**
+     * Insert journaled entries into the table until the journal is drained
+     * or the database refuses; a failed batch is retried on the next run.
+     *
+     * @return number of entries persisted
+     */
+    @Scheduled(fixedDelayString = "${delivery.reservations.journal.drain-interval-ms:50}")
+    public int drain() {
+        int drained = 0;
+        drainLock.lock();
+        try {
+            List<ReservationJournal.Entry> entries;
+            while (!(entries = journal.read(journal.checkpoint(), drainBatchSize)).isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, entries.stream()
+                        .map(e -> new Object[]{e.reservationId(), e.slotId(),
+                                Instant.ofEpochSecond(e.expiresAtEpochSecond()).atOffset(ZoneOffset.UTC),
+                                e.customerId(), e.reservationId()})
+                        .toList());
+                journal.checkpoint(entries.get(entries.size() - 1).position() + 1);
+                entries.forEach(e -> pending.remove(e.reservationId()));
+                drained += entries.size();
+            }
+            idAllocator.refill();
+            if (failing) {
+                failing = false;
+                log.info("Reservation journal drain recovered");
+            }
+        } catch (DataAccessException e) {
+            if (!failing) {
+                failing = true;
+                log.warn("Reservation journal drain failed, will retry; {} entries pending",
+                        journal.durablePosition() - journal.checkpoint(), e);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+        return drained;
+    }
+
+    /**
+     * Reservations of a slot counting those journaled but not yet in the
+     * table. Runs under the drain lock, so an entry moving into the table
+     * meanwhile is counted exactly once.
+     *
+     * @param persisted counts the slot's reservations in the table
+     */
+    public long reservedWithPending(long slotId, LongSupplier persisted) {
+        drainLock.lock();
+        try {
+            long journaled = pending.values().stream().filter(p -> p.slotId() == slotId).count();
+            return persisted.getAsLong() + journaled;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Number of durable entries not yet in the table.
+     */
+    public long backlog() {
+        return journal.durablePosition() - journal.checkpoint();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        drain();
+        journal.close();
+    }
+
+    private void replay() {
+        long from = journal.checkpoint();
+        long backlog = backlog();
+        if (backlog == 0) {
+            return;
+        }
+        for (ReservationJournal.Entry entry : journal.read(from, (int) backlog)) {
+            pending.put(entry.reservationId(), new PendingReservation(
+                    entry.slotId(), Instant.ofEpochSecond(entry.expiresAtEpochSecond()), entry.customerId()));
+        }
+        int drained = drain();
+        if (backlog() > 0) {
+            // Bookings can go ahead: the entries are durable here and counted when slots are seeded
+            log.warn("Starting with {} journaled reservations not yet persisted; the drainer will retry",
+                    backlog());
+            return;
+        }
+        log.info("Replayed {} journaled reservations", drained);
+    }
+
+    /**
+     * A journaled hold awaiting insertion.
+     */
+    public record PendingReservation(long slotId, Instant expiresAt, String customerId) {}
+}
@@ -1,14 +1,44 @@
 package com.delivery.service;
 
+import com.delivery.config.ReservationProperties;
+import com.delivery.dto.BatchReservationResponse;
+import com.delivery.dto.BatchReservationResult;
 import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationPage;
 import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
 import com.delivery.entity.Reservation;
+import com.delivery.entity.ReservationStatus;
 import com.delivery.entity.TimeSlot;
 import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import com.delivery.exception.InvalidReservationStateException;
+import com.delivery.exception.SlotUnavailableException;
 import com.delivery.repository.ReservationRepository;
 import com.delivery.repository.TimeSlotRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing reservations.
@@ -19,59 +49,385 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final TimeSlotRepository timeSlotRepository;
     private final TimeSlotService timeSlotService;
+    private final SlotCapacityGuard capacityGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final ReservationProperties properties;
+    private final SlotLockManager slotLockManager;
+    private final ReservationJournalWriter journalWriter;
+    private final DeliveryMetrics metrics;
 
     public ReservationService(ReservationRepository reservationRepository,
                               TimeSlotRepository timeSlotRepository,
-                              TimeSlotService timeSlotService) {
+                              TimeSlotService timeSlotService,
+                              SlotCapacityGuard capacityGuard,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionOperations transactionOperations,
+                              ReservationProperties properties,
+                              SlotLockManager slotLockManager,
+                              Optional<ReservationJournalWriter> journalWriter,
+                              DeliveryMetrics metrics) {
         this.reservationRepository = reservationRepository;
         this.timeSlotRepository = timeSlotRepository;
         this.timeSlotService = timeSlotService;
+        this.capacityGuard = capacityGuard;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.properties = properties;
+        this.slotLockManager = slotLockManager;
+        this.journalWriter = journalWriter.orElse(null);
+        this.metrics = metrics;
     }
 
     /**
      * Create a reservation for a time slot.
-     * Uses optimistic locking to prevent double-booking.
+     * Same-slot bookings are serialized on the slot's lock stripe, held until
+     * commit. Capacity is taken through the configured {@link SlotCapacityGuard};
+     * an optimistic locking conflict retries the whole transaction with backoff.
+     * With the journal enabled the booking is acknowledged once journaled and
+     * the row is inserted in the background.
      */
-    @Transactional
     public ReservationDTO createReservation(ReservationRequest request) {
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            ReservationDTO reservation = journalWriter != null
+                    ? slotLockManager.withLock(request.slotId(), () -> doCreateJournaledReservation(request))
+                    : slotLockManager.withLock(request.slotId(),
+                            () -> inTransactionWithRetry(() -> doCreateReservation(request)));
+            metrics.reservationBooked(reservation.method());
+            success = true;
+            return reservation;
+        } finally {
+            metrics.recordReservation(System.nanoTime() - started, success);
+        }
+    }
+
+    private ReservationDTO doCreateReservation(ReservationRequest request) {
+        TimeSlot slot = findMatchingSlot(request);
+
+        int remaining = capacityGuard.tryAcquire(slot);
+        if (remaining == SlotCapacityGuard.FULL) {
+            throw new SlotUnavailableException("Time slot is fully booked: " + slot.getId());
+        }
+        publishAvailabilityChanged(slot, remaining);
+
+        // Create reservation as a hold
+        Reservation reservation = new Reservation(slot, holdDeadline(), request.customerId());
+        reservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationHeldEvent(reservation.getId(), partition(slot),
+                reservation.getExpiresAt()));
+
+        return toDTO(reservation);
+    }
+
+    private ReservationDTO doCreateJournaledReservation(ReservationRequest request) {
+        TimeSlot slot = findMatchingSlot(request);
+
+        int remaining = capacityGuard.tryAcquire(slot);
+        if (remaining == SlotCapacityGuard.FULL) {
+            throw new SlotUnavailableException("Time slot is fully booked: " + slot.getId());
+        }
+        Instant expiresAt = holdDeadline();
+        long reservationId;
+        try {
+            reservationId = journalWriter.append(slot.getId(), expiresAt, request.customerId());
+        } catch (RuntimeException e) {
+            capacityGuard.release(slot);
+            throw e;
+        }
+        publishAvailabilityChanged(slot, remaining);
+        eventPublisher.publishEvent(new ReservationHeldEvent(reservationId, partition(slot), expiresAt));
+
+        return toDTO(reservationId, slot, ReservationStatus.HELD, expiresAt, request.customerId());
+    }
+
+    private TimeSlot findMatchingSlot(ReservationRequest request) {
         timeSlotService.validateMethodAndDate(request.method(), request.date());
 
         // Find the time slot
         TimeSlot slot = timeSlotRepository.findById(request.slotId())
-                .orElseThrow(() -> new InvalidRequestException("Time slot not found: " + request.slotId()));
+                .orElseThrow(() -> new InvalidRequestException(Reason.NOT_FOUND, "Time slot not found: " + request.slotId()));
 
         if (slot.getMethod() != request.method() || !slot.getDate().equals(request.date())) {
-            throw new InvalidRequestException("Slot does not match specified method and date");
+            throw new InvalidRequestException(Reason.SLOT_MISMATCH, "Slot does not match specified method and date");
         }
+        return slot;
+    }
 
-        // Create reservation
-        Reservation reservation = new Reservation(slot);
-        reservation = reservationRepository.save(reservation);
+    /**
+     * Create many reservations in one transaction with partial-success semantics.
+     * Each distinct method/date pair is validated once, all slots are loaded with
+     * a single IN query, and the accepted reservations are written in one flush.
+     * Items that fail validation or find their slot full are reported individually.
+     */
+    public BatchReservationResponse createReservations(List<ReservationRequest> requests) {
+        BatchReservationResponse response = inTransactionWithRetry(() -> doCreateReservations(requests));
+        for (BatchReservationResult result : response.results()) {
+            if (result.reservation() != null) {
+                metrics.reservationBooked(result.reservation().method());
+            }
+        }
+        return response;
+    }
 
-        return toDTO(reservation);
+    private BatchReservationResponse doCreateReservations(List<ReservationRequest> requests) {
+        Map<MethodDate, String> dateErrors = validateMethodsAndDates(requests);
+
+        Set<Long> slotIds = new HashSet<>();
+        for (ReservationRequest request : requests) {
+            if (!dateErrors.containsKey(new MethodDate(request.method(), request.date()))) {
+                slotIds.add(request.slotId());
+            }
+        }
+        Map<Long, TimeSlot> slots = timeSlotRepository.findAllById(slotIds).stream()
+                .collect(Collectors.toMap(TimeSlot::getId, Function.identity()));
+
+        BatchReservationResult[] results = new BatchReservationResult[requests.size()];
+        Map<Integer, Reservation> accepted = new LinkedHashMap<>();
+        Map<TimeSlot, Integer> changedSlots = new HashMap<>();
+        Instant expiresAt = holdDeadline();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequest request = requests.get(i);
+            String error = dateErrors.get(new MethodDate(request.method(), request.date()));
+            TimeSlot slot = slots.get(request.slotId());
+
+            if (error != null) {
+                results[i] = BatchReservationResult.failure(i, error);
+            } else if (slot == null) {
+                results[i] = BatchReservationResult.failure(i, "Time slot not found: " + request.slotId());
+            } else if (slot.getMethod() != request.method() || !slot.getDate().equals(request.date())) {
+                results[i] = BatchReservationResult.failure(i, "Slot does not match specified method and date");
+            } else {
+                int remaining = capacityGuard.tryAcquire(slot);
+                if (remaining == SlotCapacityGuard.FULL) {
+                    results[i] = BatchReservationResult.failure(i, "Time slot is fully booked: " + slot.getId());
+                } else {
+                    accepted.put(i, new Reservation(slot, expiresAt, request.customerId()));
+                    changedSlots.put(slot, remaining);
+                }
+            }
+        }
+
+        reservationRepository.saveAll(accepted.values());
+        reservationRepository.flush();
+
+        accepted.forEach((i, reservation) -> results[i] = BatchReservationResult.success(i, toDTO(reservation)));
+        changedSlots.forEach(this::publishAvailabilityChanged);
+        accepted.values().forEach(reservation ->
+                eventPublisher.publishEvent(new ReservationHeldEvent(reservation.getId(),
+                        partition(reservation.getTimeSlot()), expiresAt)));
+
+        return new BatchReservationResponse(accepted.size(), requests.size() - accepted.size(), List.of(results));
     }
 
     /**
      * Get reservation by ID.
      */
+    @Transactional(readOnly = true)
     public ReservationDTO getReservation(Long id) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new InvalidRequestException("Reservation not found: " + id));
+        Optional<ReservationDTO> stored = reservationRepository.findDTOById(id);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        ReservationJournalWriter.PendingReservation journaled =
+                journalWriter != null ? journalWriter.pendingReservation(id) : null;
+        return Optional.ofNullable(journaled)
+                .flatMap(p -> timeSlotRepository.findById(p.slotId()))
+                .map(slot -> toDTO(id, slot, ReservationStatus.HELD, journaled.expiresAt(), journaled.customerId()))
+                .orElseThrow(() -> new InvalidRequestException(Reason.NOT_FOUND, "Reservation not found: " + id));
+    }
+
+    /**
+     * A page of a customer's reservations, newest first.
+     * Pages are addressed by the last id seen rather than an offset, so the
+     * index on (customer_id, id) seeks straight to each page and a deep page
+     * costs as much as the first. Rows are read as a projection in a single
+     * statement, without loading entities.
+     * Journaled holds show up once they have been drained into the table.
+     *
+     * @param before only reservations with a smaller id, or null for the newest
+     * @param limit  page size
+     */
+    @Transactional(readOnly = true)
+    public ReservationPage getCustomerReservations(String customerId, Long before, int limit) {
+        List<ReservationDTO> rows = reservationRepository.findCustomerPage(
+                customerId, before == null ? Long.MAX_VALUE : before, PageRequest.ofSize(limit + 1));
+        if (rows.size() <= limit) {
+            return new ReservationPage(rows, null);
+        }
+        List<ReservationDTO> page = rows.subList(0, limit);
+        return new ReservationPage(List.copyOf(page), page.get(limit - 1).id());
+    }
+
+    /**
+     * Turn a hold into a booking before it lapses.
+     */
+    public ReservationDTO confirmReservation(Long id) {
+        ensurePersisted(id);
+        return transactionOperations.execute(status -> {
+            if (reservationRepository.confirmHold(id, Instant.now()) == 0) {
+                throw stateConflict(id, "cannot be confirmed");
+            }
+            return reservationRepository.findDTOById(id).orElseThrow();
+        });
+    }
+
+    /**
+     * Cancel a hold or booking and give its capacity back.
+     */
+    public ReservationDTO cancelReservation(Long id) {
+        ensurePersisted(id);
+        Reservation reservation = freeAndRelease(id, () -> {
+            if (reservationRepository.cancel(id) == 0) {
+                throw stateConflict(id, "cannot be cancelled");
+            }
+            return true;
+        });
         return toDTO(reservation);
     }
 
+    /**
+     * Expire a hold whose deadline has passed and give its capacity back.
+     * Holds confirmed or cancelled in the meantime are left alone.
+     *
+     * @return true if the hold was expired
+     */
+    public boolean expireHold(Long id) {
+        ensurePersisted(id);
+        return freeAndRelease(id, () -> reservationRepository.expireHold(id, Instant.now()) > 0) != null;
+    }
+
+    /**
+     * Make sure a journaled reservation has reached the table before changing its status.
+     */
+    private void ensurePersisted(Long id) {
+        if (journalWriter != null && journalWriter.pendingReservation(id) != null) {
+            journalWriter.drain();
+        }
+    }
+
+    private RuntimeException stateConflict(Long id, String action) {
+        return reservationRepository.findById(id)
+                .<RuntimeException>map(r -> new InvalidReservationStateException(
+                        "Reservation " + id + " is " + r.getStatus() + " and " + action))
+                .orElseGet(() -> new InvalidRequestException(Reason.NOT_FOUND, "Reservation not found: " + id));
+    }
+
+    /**
+     * Run a status change that frees a reservation and give its capacity
+     * back. A guard keeping capacity in the database releases in the same
+     * transaction, so a crash cannot commit one without the other; an
+     * in-memory counter is released once the change has committed. Either
+     * way the count published is the one the release left behind.
+     *
+     * @param statusChange returns false if the reservation was left alone
+     * @return the freed reservation, or null if it was left alone
+     */
+    private Reservation freeAndRelease(Long id, BooleanSupplier statusChange) {
+        boolean inTransaction = capacityGuard.releasesInTransaction();
+        int[] remaining = new int[1];
+        Reservation reservation = transactionOperations.execute(status -> {
+            if (!statusChange.getAsBoolean()) {
+                return null;
+            }
+            Reservation freed = reservationRepository.findWithTimeSlotById(id).orElseThrow();
+            if (inTransaction) {
+                remaining[0] = capacityGuard.release(freed.getTimeSlot());
+            }
+            return freed;
+        });
+        if (reservation == null) {
+            return null;
+        }
+        if (!inTransaction) {
+            remaining[0] = capacityGuard.release(reservation.getTimeSlot());
+        }
+        publishAvailabilityChanged(reservation.getTimeSlot(), remaining[0]);
+        return reservation;
+    }
+
+    private Instant holdDeadline() {
+        return Instant.now().plus(properties.holdTtl()).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private Map<MethodDate, String> validateMethodsAndDates(List<ReservationRequest> requests) {
+        Map<MethodDate, String> errors = new HashMap<>();
+        Set<MethodDate> seen = new HashSet<>();
+        for (ReservationRequest request : requests) {
+            MethodDate key = new MethodDate(request.method(), request.date());
+            if (!seen.add(key)) {
+                continue;
+            }
+            try {
+                timeSlotService.validateMethodAndDate(key.method(), key.date());
+            } catch (InvalidRequestException e) {
+                errors.put(key, e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Run a unit of work in a transaction, retrying it on optimistic locking conflicts.
+     */
+    private <T> T inTransactionWithRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= properties.maxAttempts()) {
+                    metrics.reservationRetriesExhausted();
+                    throw new SlotUnavailableException("Time slot is busy, please retry");
+                }
+                metrics.reservationRetried();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long base = properties.retryBackoff().toNanos() << (attempt - 1);
+        LockSupport.parkNanos(base + ThreadLocalRandom.current().nextLong(base + 1));
+    }
+
+    private static long partition(TimeSlot slot) {
+        return SlotKey.partition(slot.getMethod(), slot.getDate());
+    }
+
+    private void publishAvailabilityChanged(TimeSlot slot, int remaining) {
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(
+                slot.getId(),
+                slot.getMethod(),
+                slot.getDate(),
+                slot.getStartTime(),
+                remaining
+        ));
+    }
+
     /**
      * Convert entity to DTO.
      */
     private ReservationDTO toDTO(Reservation reservation) {
-        TimeSlot slot = reservation.getTimeSlot();
+        return toDTO(reservation.getId(), reservation.getTimeSlot(), reservation.getStatus(), reservation.getExpiresAt(),
+                reservation.getCustomerId());
+    }
+
+    private ReservationDTO toDTO(Long reservationId, TimeSlot slot, ReservationStatus status, Instant expiresAt,
+                                 String customerId) {
         return new ReservationDTO(
-                reservation.getId(),
+                reservationId,
                 slot.getId(),
                 slot.getMethod(),
                 slot.getDate(),
                 slot.getStartTime(),
-                slot.getEndTime()
+                slot.getEndTime(),
+                status,
+                expiresAt,
+                customerId
         );
     }
+
+    private record MethodDate(DeliveryMethod method, LocalDate date) {}
 }
@@ -0,0 +1,11 @@
+package com.delivery.service;
+
+/**
+ * How reservations on the same slot are kept from exceeding its capacity.
+ */
+public enum ReservationStrategy {
+    IN_MEMORY,           // Lock-free counters in SlotInventory, written back asynchronously
+    OPTIMISTIC,          // Versioned update of time_slots.remaining, retried with backoff
+    PESSIMISTIC,         // SELECT ... FOR UPDATE on the slot row
+    CONDITIONAL_UPDATE   // UPDATE ... SET remaining = remaining - 1 WHERE remaining > 0
+}
@@ -0,0 +1,87 @@
+package com.delivery.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from blocks of a database sequence for rows inserted over JDBC.
+ * Each sequence value v owns ids v to v + blockSize - 1, the same pooled-lo
+ * layout Hibernate uses, so these rows never collide with JPA-inserted ones
+ * as long as blockSize matches the entity's allocation size. A reserve of
+ * blocks can be fetched ahead of time.
+ */
+final class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final int blockSize;
+    private final int reserveBlocks;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Long> blocks = new ArrayDeque<>();
+    private long next;
+    private long end;
+
+    SequenceIdAllocator(JdbcTemplate jdbcTemplate, String nextValueSql, int blockSize, int reserveBlocks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = nextValueSql;
+        this.blockSize = blockSize;
+        this.reserveBlocks = reserveBlocks;
+    }
+
+    /**
+     * The dialect's statement for the next value of a sequence.
+     */
+    static String nextValueSql(EntityManagerFactory entityManagerFactory, String sequenceName) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(sequenceName);
+    }
+
+    long allocate() {
+        lock.lock();
+        try {
+            if (next == end) {
+                Long start = blocks.poll();
+                next = start != null ? start : fetchBlock();
+                end = next + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Top the reserve back up; called off the request path.
+     */
+    void refill() {
+        while (reserved() < reserveBlocks) {
+            long start = fetchBlock();
+            lock.lock();
+            try {
+                blocks.add(start);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int reserved() {
+        lock.lock();
+        try {
+            return blocks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long fetchBlock() {
+        return jdbcTemplate.queryForObject(nextValueSql, Long.class);
+    }
+}
@@ -0,0 +1,273 @@
+package com.delivery.service;
+
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pushes slot availability changes to Server-Sent Events subscribers.
+ * Subscribers are grouped by method and date. Each one owns a bounded queue
+ * drained by its own virtual thread, so an idle connection costs a parked
+ * virtual thread and publishing never blocks on a socket. A subscriber whose
+ * queue is full is too slow to keep up and is disconnected; it can reconnect
+ * and start again from a fresh snapshot. The publisher only marks it
+ * cancelled and wakes its thread, which completes the connection itself:
+ * SseEmitter's send and complete share a monitor, so completing it from the
+ * publisher would wait out a write stuck on the slow client.
+ * A subscriber is registered before its snapshot is taken, so no change made
+ * meanwhile is missed; changes it buffered that were published before the
+ * snapshot was taken are already part of it and are not sent again. The
+ * snapshots are patched before this broadcaster hears of a change, so a
+ * snapshot taken after a change was published always includes it.
+ */
+@Component
+public class SlotAvailabilityBroadcaster implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotAvailabilityBroadcaster.class);
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String AVAILABILITY_EVENT = "availability";
+
+    // Queued in place of an event to make the sender write a keep-alive comment
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final Duration timeout;
+
+    private final Map<Key, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public SlotAvailabilityBroadcaster(@Value("${delivery.slots.stream.buffer-size:64}") int bufferSize,
+                                       @Value("${delivery.slots.stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Open a stream for one method and date, starting with the current slots.
+     *
+     * @param snapshot reads the current slots; called once the stream is registered
+     */
+    public SseEmitter subscribe(DeliveryMethod method, LocalDate date, Supplier<List<TimeSlotDTO>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = register(method, date, snapshot, new Sender() {
+            @Override
+            public void send(String name, Object data) throws IOException {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Fan a committed availability change out to the subscribers of its day,
+     * after the snapshots have been patched with it.
+     */
+    @Order(SlotAvailabilitySnapshots.PATCH_ORDER + 1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        deliver(event, published.incrementAndGet());
+    }
+
+    /**
+     * Fan out a change relayed by the node owning its day. Snapshots taken
+     * here come from the stored counts, which trail the owner's, so they are
+     * never known to include it and it is always sent.
+     */
+    public void onRelayedAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        deliver(event, Long.MAX_VALUE);
+    }
+
+    private void deliver(SlotAvailabilityChangedEvent event, long sequence) {
+        Set<Subscription> targets = subscriptions.get(new Key(event.method(), event.date()));
+        if (targets == null) {
+            return;
+        }
+        Message message = new Message(AVAILABILITY_EVENT, event, sequence);
+        for (Subscription subscription : targets) {
+            subscription.offer(message);
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and notice clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${delivery.slots.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscription> targets : subscriptions.values()) {
+            for (Subscription subscription : targets) {
+                subscription.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.get();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.slots.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open slot availability streams")
+                .register(registry);
+        FunctionCounter.builder("delivery.slots.stream.dropped", dropped, LongAdder::sum)
+                .description("Slot availability streams closed because the client fell behind")
+                .register(registry);
+    }
+
+    Subscription register(DeliveryMethod method, LocalDate date, Supplier<List<TimeSlotDTO>> snapshot,
+                          Sender sender) {
+        Key key = new Key(method, date);
+        Subscription subscription = new Subscription(key, sender, new ArrayBlockingQueue<>(bufferSize));
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscribers.incrementAndGet();
+        // Every change numbered up to here was patched into the snapshots before the read below
+        long takenAt = published.get();
+        List<TimeSlotDTO> slots;
+        try {
+            slots = snapshot.get();
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            throw e;
+        }
+        subscription.start(new Message(SNAPSHOT_EVENT, slots, takenAt));
+        return subscription;
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.key, (k, targets) -> {
+            targets.remove(subscription);
+            return targets.isEmpty() ? null : targets;
+        });
+        subscribers.decrementAndGet();
+    }
+
+    /**
+     * Writes events to one client.
+     */
+    interface Sender {
+        void send(String name, Object data) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    final class Subscription {
+
+        private final Key key;
+        private final Sender sender;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final Thread thread;
+        private volatile boolean overflowed;
+        private Message snapshot;
+
+        private Subscription(Key key, Sender sender, BlockingQueue<Object> queue) {
+            this.key = key;
+            this.sender = sender;
+            this.queue = queue;
+            this.thread = Thread.ofVirtual()
+                    .name("slot-stream-" + key.method() + "-" + key.date())
+                    .unstarted(this::run);
+        }
+
+        private void start(Message snapshot) {
+            this.snapshot = snapshot;
+            thread.start();
+        }
+
+        private void offer(Object message) {
+            if (!cancelled.get() && !queue.offer(message)) {
+                dropped.increment();
+                log.debug("Dropping slow slot stream subscriber for {} {}", key.method(), key.date());
+                overflowed = true;
+                cancel();
+            }
+        }
+
+        void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                unregister(this);
+                thread.interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                sender.send(snapshot.name(), snapshot.data());
+                while (!cancelled.get()) {
+                    Object next = queue.take();
+                    if (next == HEARTBEAT) {
+                        sender.heartbeat();
+                    } else if (((Message) next).sequence() > snapshot.sequence()) {
+                        Message message = (Message) next;
+                        sender.send(message.name(), message.data());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Cancelled
+            } catch (IOException | RuntimeException e) {
+                // Client went away
+                cancel();
+            } finally {
+                if (overflowed) {
+                    sender.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param sequence number of the last change it reflects
+     */
+    private record Message(String name, Object data, long sequence) {}
+
+    private record Key(DeliveryMethod method, LocalDate date) {}
+}
@@ -0,0 +1,16 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published when a booking or release changes the remaining capacity of a slot.
+ */
+public record SlotAvailabilityChangedEvent(
+        Long slotId,
+        DeliveryMethod method,
+        LocalDate date,
+        LocalTime startTime,
+        int remaining
+) {}
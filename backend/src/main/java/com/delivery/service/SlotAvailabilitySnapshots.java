@@ -0,0 +1,305 @@
+package com.delivery.service;
+
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Immutable per-day slot listings, keyed by method and date.
+ * A reader gets the day's current snapshot with one volatile read: no lock,
+ * no database. The first read of a day loads it; afterwards every booking or
+ * release on that day patches the one slot it touched, on a copy of the day
+ * that is published by swapping the reference, once its transaction has
+ * completed. The new count is not the one the event carried but the slot's
+ * current count, read from the capacity guard under the day's lock: from its
+ * counters, or from the database for a guard keeping capacity there. These
+ * reads happen one at a time and after the change committed, so a patch
+ * applied late or out of order never rolls a newer count back. A snapshot
+ * older than the refresh interval is still served while it is reloaded in
+ * the background, which picks up changes that did not come through a booking
+ * or release, such as capacity edited in the database.
+ */
+@Component
+public class SlotAvailabilitySnapshots implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotAvailabilitySnapshots.class);
+
+    /**
+     * Order of the listener patching snapshots; listeners that must see the
+     * patch come later.
+     */
+    static final int PATCH_ORDER = 0;
+
+    private final SlotCapacityGuard capacityGuard;
+    private final long refreshAfterNanos;
+    private final Map<Key, Day> days = new ConcurrentHashMap<>();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+
+    public SlotAvailabilitySnapshots(SlotCapacityGuard capacityGuard,
+                                     @Value("${delivery.slots.snapshot.refresh-after:30s}") Duration refreshAfter) {
+        this.capacityGuard = capacityGuard;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+    }
+
+    /**
+     * Get the slots for a method and date. Only the first read of a day runs
+     * the loader, which later refreshes of the day reuse; concurrent first
+     * reads share one load.
+     */
+    public List<TimeSlotDTO> get(DeliveryMethod method, LocalDate date, Supplier<List<TimeSlotDTO>> loader) {
+        Day day = days.get(new Key(method, date));
+        if (day != null) {
+            Snapshot snapshot = day.snapshot;
+            if (snapshot != null) {
+                if (System.nanoTime() - snapshot.builtAt() > refreshAfterNanos) {
+                    refreshInBackground(day);
+                }
+                return snapshot.slots();
+            }
+        } else {
+            day = days.computeIfAbsent(new Key(method, date), k -> new Day(loader));
+        }
+        return load(day, false).slots();
+    }
+
+    /**
+     * Drop the snapshot of a method and date; the next read loads it again.
+     */
+    public void invalidate(DeliveryMethod method, LocalDate date) {
+        days.remove(new Key(method, date));
+    }
+
+    /**
+     * Patch the affected slot once the booking transaction has committed,
+     * before the booking is answered.
+     */
+    @Order(PATCH_ORDER)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        patch(event, true);
+    }
+
+    /**
+     * Patch the affected slot once the booking transaction has rolled back,
+     * falling back to the published count rather than the event's, which
+     * never took effect.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onAvailabilityRolledBack(SlotAvailabilityChangedEvent event) {
+        patch(event, false);
+    }
+
+    /**
+     * Drop all snapshots once a new template revision changes the layouts.
+     */
+    @EventListener
+    public void onTemplatesReloaded(SlotTemplatesReloadedEvent event) {
+        days.clear();
+    }
+
+    /**
+     * Drop the snapshots of days that have passed.
+     */
+    @Scheduled(cron = "${delivery.slots.calendar.cron:0 0 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.slots.snapshot.days", days, Map::size)
+                .description("Days with a published availability snapshot")
+                .register(registry);
+        FunctionCounter.builder("delivery.slots.snapshot.rebuilds", rebuilds, LongAdder::sum)
+                .description("Availability snapshots loaded from the database, including first loads")
+                .register(registry);
+        FunctionCounter.builder("delivery.slots.snapshot.patches", patches, LongAdder::sum)
+                .description("Availability snapshots patched after a booking or release")
+                .register(registry);
+    }
+
+    /**
+     * Replace the event's slot in a copy of the day's snapshot.
+     *
+     * @param committed whether the event's count took effect; if not, the
+     *                  published count is what the guard falls back to
+     */
+    private void patch(SlotAvailabilityChangedEvent event, boolean committed) {
+        Key key = new Key(event.method(), event.date());
+        Day day = days.get(key);
+        if (day == null) {
+            return;
+        }
+        day.lock.lock();
+        try {
+            if (day.loading) {
+                day.changedDuringLoad.add(event.slotId());
+            }
+            Snapshot current = day.snapshot;
+            if (current == null) {
+                // A first load is under way and publishes the counts as of its end
+                return;
+            }
+            List<TimeSlotDTO> slots = current.slots();
+            for (int i = 0; i < slots.size(); i++) {
+                TimeSlotDTO slot = slots.get(i);
+                if (!Objects.equals(slot.id(), event.slotId())) {
+                    continue;
+                }
+                TimeSlotDTO patched = withLatestCount(slot, committed ? event.remaining() : slot.remaining());
+                if (patched != slot) {
+                    TimeSlotDTO[] copy = slots.toArray(new TimeSlotDTO[0]);
+                    copy[i] = patched;
+                    day.snapshot = new Snapshot(List.of(copy), current.builtAt());
+                    patches.increment();
+                }
+                return;
+            }
+            // The slot is not in the layout that was loaded; the next read loads the day again
+            days.remove(key, day);
+        } finally {
+            day.lock.unlock();
+        }
+    }
+
+    /**
+     * Load the day and publish it, unless {@code force} is off and a snapshot
+     * is already published. The database is read outside the lock patches
+     * take, so the counts are read from the capacity guard again when the
+     * result is published, and slots changed during the load are read as a
+     * patch would read them; a patch skipped or overwritten meanwhile is not
+     * lost.
+     */
+    private Snapshot load(Day day, boolean force) {
+        day.loadLock.lock();
+        try {
+            Snapshot current = day.snapshot;
+            if (current != null && !force) {
+                return current;
+            }
+            day.lock.lock();
+            try {
+                day.loading = true;
+            } finally {
+                day.lock.unlock();
+            }
+            List<TimeSlotDTO> loaded;
+            try {
+                loaded = day.loader.get();
+            } catch (RuntimeException e) {
+                day.lock.lock();
+                try {
+                    day.loading = false;
+                    day.changedDuringLoad.clear();
+                } finally {
+                    day.lock.unlock();
+                }
+                throw e;
+            }
+            day.lock.lock();
+            try {
+                List<TimeSlotDTO> slots = new ArrayList<>(loaded.size());
+                for (TimeSlotDTO slot : loaded) {
+                    slots.add(day.changedDuringLoad.contains(slot.id())
+                            ? withLatestCount(slot, slot.remaining())
+                            : withCurrentCount(slot, slot.remaining()));
+                }
+                day.loading = false;
+                day.changedDuringLoad.clear();
+                Snapshot built = new Snapshot(List.copyOf(slots), System.nanoTime());
+                day.snapshot = built;
+                rebuilds.increment();
+                return built;
+            } finally {
+                day.lock.unlock();
+            }
+        } finally {
+            day.loadLock.unlock();
+        }
+    }
+
+    private TimeSlotDTO withCurrentCount(TimeSlotDTO slot, int stored) {
+        return withCount(slot, capacityGuard.remaining(key(slot), stored));
+    }
+
+    // May read the database, so only for the slot a change touched
+    private TimeSlotDTO withLatestCount(TimeSlotDTO slot, int stored) {
+        return withCount(slot, capacityGuard.currentRemaining(slot.id(), key(slot), stored));
+    }
+
+    private static TimeSlotDTO withCount(TimeSlotDTO slot, int remaining) {
+        if (remaining == slot.remaining()) {
+            return slot;
+        }
+        return new TimeSlotDTO(slot.id(), slot.method(), slot.date(), slot.startTime(), slot.endTime(),
+                slot.capacity(), remaining);
+    }
+
+    private static long key(TimeSlotDTO slot) {
+        return SlotKey.pack(slot.method(), slot.date(), slot.startTime());
+    }
+
+    private void refreshInBackground(Day day) {
+        if (!day.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("slot-snapshot-refresh").start(() -> {
+            try {
+                load(day, true);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh an availability snapshot", e);
+            } finally {
+                day.refreshing.set(false);
+            }
+        });
+    }
+
+    private record Key(DeliveryMethod method, LocalDate date) {}
+
+    private record Snapshot(List<TimeSlotDTO> slots, long builtAt) {}
+
+    private static final class Day {
+        final Supplier<List<TimeSlotDTO>> loader;
+        // Serializes loads, which read the database
+        final ReentrantLock loadLock = new ReentrantLock();
+        // Serializes publication, which reads at most the slot a change touched
+        final ReentrantLock lock = new ReentrantLock();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        // Guarded by lock: slots changed while a load was reading the database
+        final Set<Long> changedDuringLoad = new HashSet<>();
+        boolean loading;
+        volatile Snapshot snapshot;
+
+        Day(Supplier<List<TimeSlotDTO>> loader) {
+            this.loader = loader;
+        }
+    }
+}
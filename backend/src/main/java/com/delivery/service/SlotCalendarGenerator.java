@@ -0,0 +1,139 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.TimeSlot;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background generator that materializes a rolling horizon of slots for every
+ * delivery method, so the read path never has to insert.
+ * Runs at startup, daily and after a template change; existing slots are left untouched.
+ */
+@Component
+public class SlotCalendarGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotCalendarGenerator.class);
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT method, slot_date, start_time FROM time_slots WHERE slot_date BETWEEN ? AND ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_slots (id, method, slot_date, start_time, end_time, capacity, remaining, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeSlotService timeSlotService;
+    private final SlotTemplateService slotTemplateService;
+    private final SequenceIdAllocator idAllocator;
+
+    public SlotCalendarGenerator(JdbcTemplate jdbcTemplate,
+                                 TimeSlotService timeSlotService,
+                                 SlotTemplateService slotTemplateService,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeSlotService = timeSlotService;
+        this.slotTemplateService = slotTemplateService;
+        this.idAllocator = new SequenceIdAllocator(jdbcTemplate,
+                SequenceIdAllocator.nextValueSql(entityManagerFactory, TimeSlot.SEQUENCE_NAME),
+                TimeSlot.ID_BLOCK_SIZE, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        generate(LocalDate.now());
+    }
+
+    @Scheduled(cron = "${delivery.slots.calendar.cron:0 0 0 * * *}")
+    public void generateDaily() {
+        generate(LocalDate.now());
+    }
+
+    /**
+     * Materialize windows added by a new template revision.
+     */
+    @EventListener
+    public void onTemplatesReloaded(SlotTemplatesReloadedEvent event) {
+        generate(LocalDate.now());
+    }
+
+    /**
+     * Insert every missing slot from {@code from} through the booking horizon.
+     *
+     * @return number of slots inserted
+     */
+    public int generate(LocalDate from) {
+        LocalDate to = from.plusDays(timeSlotService.getHorizonDays() - 1L);
+        Set<SlotKey> existing = findExisting(from, to);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (DeliveryMethod method : DeliveryMethod.values()) {
+                for (SlotWindow window : slotTemplateService.getWindows(method, date)) {
+                    if (!existing.contains(new SlotKey(method, date, window.startTime()))) {
+                        rows.add(toRow(method, date, window));
+                    }
+                }
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int inserted = insert(rows);
+        log.info("Materialized {} time slots from {} to {}", inserted, from, to);
+        return inserted;
+    }
+
+    private Set<SlotKey> findExisting(LocalDate from, LocalDate to) {
+        Set<SlotKey> keys = new HashSet<>();
+        jdbcTemplate.query(SELECT_EXISTING_SQL, rs -> {
+            keys.add(new SlotKey(
+                    DeliveryMethod.valueOf(rs.getString(1)),
+                    rs.getDate(2).toLocalDate(),
+                    rs.getTime(3).toLocalTime()));
+        }, Date.valueOf(from), Date.valueOf(to));
+        return keys;
+    }
+
+    private int insert(List<Object[]> rows) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            return rows.size();
+        } catch (DuplicateKeyException e) {
+            // Another instance materialized part of the range; fall back to row-by-row
+            int inserted = 0;
+            for (Object[] row : rows) {
+                try {
+                    inserted += jdbcTemplate.update(INSERT_SQL, row);
+                } catch (DuplicateKeyException ignored) {
+                    // Already present
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private Object[] toRow(DeliveryMethod method, LocalDate date, SlotWindow window) {
+        return new Object[]{
+                idAllocator.allocate(), method.name(), Date.valueOf(date), Time.valueOf(window.startTime()), Time.valueOf(window.endTime()),
+                window.capacity(), window.capacity()
+        };
+    }
+}
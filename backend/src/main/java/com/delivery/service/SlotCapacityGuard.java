@@ -0,0 +1,79 @@
+package com.delivery.service;
+
+import com.delivery.entity.TimeSlot;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Decides whether a slot still has capacity for one more reservation.
+ * Implementations are called inside the reservation transaction; capacity
+ * taken by a transaction that rolls back is given back.
+ */
+public interface SlotCapacityGuard {
+
+    /**
+     * Returned by {@link #tryAcquire(TimeSlot)} when the slot has no capacity left.
+     */
+    int FULL = -1;
+
+    /**
+     * Try to take one unit of capacity from a slot.
+     *
+     * @return remaining capacity after taking the unit, or {@link #FULL}
+     */
+    int tryAcquire(TimeSlot slot);
+
+    /**
+     * Give one unit of capacity back to a slot.
+     *
+     * @return remaining capacity after giving the unit back
+     */
+    int release(TimeSlot slot);
+
+    /**
+     * Whether {@link #release} must run in the transaction that frees the
+     * reservation, so the two commit together. A guard keeping capacity in
+     * the database does; one whose counter a rollback cannot restore is
+     * released once that transaction has committed instead.
+     */
+    default boolean releasesInTransaction() {
+        return true;
+    }
+
+    /**
+     * Remaining capacity of a slot as shown to clients.
+     */
+    int remaining(TimeSlot slot);
+
+    /**
+     * Remaining capacity of a slot read in bulk, given the value stored in
+     * time_slots. Must not hit the database.
+     *
+     * @param slotKey the slot's {@linkplain SlotKey#pack packed key}
+     */
+    default int remaining(long slotKey, int stored) {
+        return stored;
+    }
+
+    /**
+     * Remaining capacity of one slot as of now, read once a change to it has
+     * completed. A guard keeping capacity in the database reads it from
+     * there, since the count a change saw may already have been overtaken by
+     * a later commit; others answer as {@link #remaining(long, int)} does.
+     *
+     * @param slotKey the slot's {@linkplain SlotKey#pack packed key}
+     * @param stored  the last count known for the slot
+     */
+    default int currentRemaining(Long slotId, long slotKey, int stored) {
+        return remaining(slotKey, stored);
+    }
+
+    /**
+     * Persist and then drop any state held locally for the matching slots,
+     * so another node can take them over. The next use seeds them again.
+     *
+     * @param slotKeys matches {@linkplain SlotKey#pack packed keys}
+     */
+    default void forget(LongPredicate slotKeys) {
+    }
+}
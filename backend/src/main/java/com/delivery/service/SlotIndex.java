@@ -0,0 +1,291 @@
+package com.delivery.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Primitive index from packed {@link SlotKey}s to per-slot state.
+ * Keys live in an open-addressing table that maps each key to a cell; the
+ * cells (remaining count, dirty flag, slot id) live in fixed-size chunks that
+ * never move. Lookups and counter updates are lock-free and allocation-free.
+ * Only adding a key takes the lock, and growing the table rehashes keys
+ * without touching the cells, so a CAS on a cell is never lost to a resize.
+ * Cells of evicted keys are handed out again, so the cells in use follow the
+ * rolling horizon instead of growing with every day ever seen. Readers take
+ * no part in reclamation, so a dropped cell is only handed out again once a
+ * whole interval between calendar evictions has passed since it was dropped;
+ * a caller that found it just before is long done with it by then.
+ * At roughly 40 bytes per slot, a year of slots for every method takes a few MB.
+ */
+final class SlotIndex {
+
+    static final int ABSENT = -1;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Table table;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int cellCount;
+    // Cells ready to be handed out again
+    private final CellList freeCells = new CellList();
+    // Cells dropped since the last calendar eviction
+    private CellList retiredCells = new CellList();
+    // Cells dropped in the interval before that, free after the next calendar eviction
+    private CellList heldCells = new CellList();
+
+    SlotIndex(int expectedSlots) {
+        this.table = new Table(tableSizeFor(expectedSlots));
+    }
+
+    /**
+     * The cell of a key, or {@link #ABSENT}.
+     */
+    int find(long key) {
+        return table.find(key);
+    }
+
+    /**
+     * Add a key with its initial state, or return the existing cell if another
+     * caller added it first; the initial state is then discarded.
+     */
+    int insert(long key, long slotId, int remaining) {
+        lock.lock();
+        try {
+            Table current = table;
+            int cell = current.find(key);
+            if (cell != ABSENT) {
+                return cell;
+            }
+            if ((current.size + 1) * 2 > current.capacity()) {
+                current = current.copy(current.capacity() << 1, k -> true, c -> { });
+                table = current;
+            }
+            Chunk chunk;
+            if (freeCells.size > 0) {
+                cell = freeCells.pop();
+                chunk = chunks[cell >>> CHUNK_BITS];
+                chunk.dirty.set(cell & CHUNK_MASK, 0);
+            } else {
+                cell = cellCount;
+                chunk = chunkFor(cell);
+                cellCount = cell + 1;
+            }
+            chunk.slotIds[cell & CHUNK_MASK] = slotId;
+            chunk.remaining.set(cell & CHUNK_MASK, remaining);
+            current.put(key, cell);
+            return cell;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the keys of slots before a day so the table does not grow with the
+     * rolling horizon. This is the calendar eviction, run once a day: cells
+     * dropped before the previous one are handed out again, and those dropped
+     * since are held back until the next one.
+     *
+     * @return number of keys dropped
+     */
+    int evictBefore(long epochDay) {
+        lock.lock();
+        try {
+            int dropped = drop(key -> SlotKey.epochDay(key) < epochDay);
+            freeCells.pushAll(heldCells);
+            heldCells = retiredCells;
+            retiredCells = new CellList();
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the keys matching a predicate. However often this runs, their
+     * cells wait for the calendar evictions like any other.
+     *
+     * @return number of keys dropped
+     */
+    int evict(LongPredicate keys) {
+        lock.lock();
+        try {
+            return drop(keys);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drop(LongPredicate keys) {
+        Table current = table;
+        int before = retiredCells.size;
+        table = current.copy(current.capacity(), keys.negate(), retiredCells::push);
+        return retiredCells.size - before;
+    }
+
+    int remaining(int cell) {
+        return chunks[cell >>> CHUNK_BITS].remaining.get(cell & CHUNK_MASK);
+    }
+
+    boolean compareAndSetRemaining(int cell, int expected, int updated) {
+        return chunks[cell >>> CHUNK_BITS].remaining.compareAndSet(cell & CHUNK_MASK, expected, updated);
+    }
+
+    void markDirty(int cell) {
+        chunks[cell >>> CHUNK_BITS].dirty.set(cell & CHUNK_MASK, 1);
+    }
+
+    /**
+     * Clear a cell's dirty flag.
+     *
+     * @return true if it was set
+     */
+    boolean clearDirty(int cell) {
+        return chunks[cell >>> CHUNK_BITS].dirty.getAndSet(cell & CHUNK_MASK, 0) == 1;
+    }
+
+    long slotId(int cell) {
+        return chunks[cell >>> CHUNK_BITS].slotIds[cell & CHUNK_MASK];
+    }
+
+    /**
+     * Number of cells ever allocated, in use or not; cells are numbered from zero.
+     */
+    int cellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Number of keys currently in the table.
+     */
+    int size() {
+        return table.size;
+    }
+
+    private Chunk chunkFor(int cell) {
+        int chunkIndex = cell >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            Chunk[] grown = new Chunk[chunkIndex + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[chunkIndex] = new Chunk();
+            chunks = grown;
+            current = grown;
+        }
+        return current[chunkIndex];
+    }
+
+    private static int tableSizeFor(int expectedSlots) {
+        int size = 16;
+        while (size < expectedSlots * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Open-addressing key table with linear probing. Key zero marks an empty
+     * slot; packed keys are never zero. A key is published with a release
+     * store after its cell, so a reader that sees the key sees the cell.
+     */
+    private static final class Table {
+        final AtomicLongArray keys;
+        final int[] cells;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.cells = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int find(long key) {
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long k = keys.getAcquire(i);
+                if (k == key) {
+                    return cells[i];
+                }
+                if (k == 0) {
+                    return ABSENT;
+                }
+            }
+        }
+
+        void put(long key, int cell) {
+            int i = hash(key) & mask;
+            while (keys.getPlain(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            cells[i] = cell;
+            keys.setRelease(i, key);
+            size++;
+        }
+
+        /**
+         * A new table holding the keys that match {@code retain}; the cells
+         * of the others are passed to {@code dropped}.
+         */
+        Table copy(int capacity, LongPredicate retain, IntConsumer dropped) {
+            Table copy = new Table(capacity);
+            for (int i = 0; i < keys.length(); i++) {
+                long key = keys.getPlain(i);
+                if (key == 0) {
+                    continue;
+                }
+                if (retain.test(key)) {
+                    copy.put(key, cells[i]);
+                } else {
+                    dropped.accept(cells[i]);
+                }
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Growable stack of cell numbers, guarded by the index lock.
+     */
+    private static final class CellList {
+        int[] cells = new int[16];
+        int size;
+
+        void push(int cell) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size << 1);
+            }
+            cells[size++] = cell;
+        }
+
+        void pushAll(CellList other) {
+            for (int i = 0; i < other.size; i++) {
+                push(other.cells[i]);
+            }
+        }
+
+        int pop() {
+            return cells[--size];
+        }
+    }
+
+    private static final class Chunk {
+        final AtomicIntegerArray remaining = new AtomicIntegerArray(CHUNK_SIZE);
+        final AtomicIntegerArray dirty = new AtomicIntegerArray(CHUNK_SIZE);
+        final long[] slotIds = new long[CHUNK_SIZE];
+    }
+}
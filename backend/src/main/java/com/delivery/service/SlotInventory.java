@@ -0,0 +1,186 @@
+package com.delivery.service;
+
+import com.delivery.entity.ReservationStatus;
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.ReservationRepository;
+import com.delivery.repository.TimeSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory slot inventory holding lock-free remaining-capacity counters.
+ * Counters are seeded once per slot from the database (capacity minus active
+ * reservations); afterwards admission is a CAS on the counter with no DB round trip.
+ * Counters are kept in a {@link SlotIndex} under packed slot keys, so lookups
+ * neither box nor allocate. Remaining capacity is written back to time_slots asynchronously.
+ */
+public class SlotInventory implements SlotCapacityGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotInventory.class);
+
+    // Initial index size; roughly a month of slots for every method
+    private static final int EXPECTED_SLOTS = 4096;
+
+    private final ReservationRepository reservationRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final ReservationJournalWriter journalWriter;
+
+    private final SlotIndex index = new SlotIndex(EXPECTED_SLOTS);
+
+    public SlotInventory(ReservationRepository reservationRepository,
+                         TimeSlotRepository timeSlotRepository) {
+        this(reservationRepository, timeSlotRepository, null);
+    }
+
+    /**
+     * @param journalWriter write-behind journal whose pending holds count
+     *                      against a slot when it is seeded, or null
+     */
+    public SlotInventory(ReservationRepository reservationRepository,
+                         TimeSlotRepository timeSlotRepository,
+                         ReservationJournalWriter journalWriter) {
+        this.reservationRepository = reservationRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.journalWriter = journalWriter;
+    }
+
+    /**
+     * Try to take one unit of capacity from a slot.
+     * When called inside a transaction, the unit is given back if it rolls back.
+     */
+    @Override
+    public int tryAcquire(TimeSlot slot) {
+        int cell = cell(slot);
+        int current;
+        do {
+            current = index.remaining(cell);
+            if (current <= 0) {
+                return FULL;
+            }
+        } while (!index.compareAndSetRemaining(cell, current, current - 1));
+
+        index.markDirty(cell);
+        releaseOnRollback(slot);
+        return current - 1;
+    }
+
+    /**
+     * Give one unit back. Call after the releasing change has committed: a
+     * counter seeded now already excludes the released reservation.
+     */
+    @Override
+    public int release(TimeSlot slot) {
+        int cell = index.find(SlotKey.pack(slot));
+        if (cell == SlotIndex.ABSENT) {
+            cell = cell(slot);
+            index.markDirty(cell);
+            return index.remaining(cell);
+        }
+        int current;
+        do {
+            current = index.remaining(cell);
+            if (current >= slot.getCapacity()) {
+                return current;
+            }
+        } while (!index.compareAndSetRemaining(cell, current, current + 1));
+
+        index.markDirty(cell);
+        return current + 1;
+    }
+
+    @Override
+    public boolean releasesInTransaction() {
+        return false;
+    }
+
+    @Override
+    public int remaining(TimeSlot slot) {
+        return index.remaining(cell(slot));
+    }
+
+    /**
+     * A live counter wins over the stored column, which lags it by at most one write-back.
+     */
+    @Override
+    public int remaining(long slotKey, int stored) {
+        int cell = index.find(slotKey);
+        return cell != SlotIndex.ABSENT ? index.remaining(cell) : stored;
+    }
+
+    /**
+     * Flush changed counters to the remaining column.
+     */
+    @Scheduled(fixedDelayString = "${delivery.inventory.write-back-interval-ms:500}")
+    public void writeBack() {
+        int cells = index.cellCount();
+        for (int cell = 0; cell < cells; cell++) {
+            if (!index.clearDirty(cell)) {
+                continue;
+            }
+            long slotId = index.slotId(cell);
+            try {
+                timeSlotRepository.updateRemaining(slotId, index.remaining(cell));
+            } catch (RuntimeException e) {
+                // Keep it dirty so the next run retries
+                index.markDirty(cell);
+                log.warn("Failed to write back remaining capacity for slot {}", slotId, e);
+            }
+        }
+    }
+
+    /**
+     * Write every changed counter back, then drop the matching ones. The caller
+     * must make sure no booking of those slots runs here meanwhile.
+     */
+    @Override
+    public void forget(LongPredicate slotKeys) {
+        writeBack();
+        int evicted = index.evict(slotKeys);
+        log.debug("Handed off {} slot counters", evicted);
+    }
+
+    /**
+     * Forget the counters of past days; they are seeded again if ever needed.
+     */
+    @Scheduled(cron = "${delivery.slots.calendar.cron:0 0 0 * * *}")
+    public void evictPastDays() {
+        int evicted = index.evictBefore(LocalDate.now().toEpochDay());
+        log.debug("Evicted {} past slot counters", evicted);
+    }
+
+    private int cell(TimeSlot slot) {
+        long key = SlotKey.pack(slot);
+        int cell = index.find(key);
+        if (cell != SlotIndex.ABSENT) {
+            return cell;
+        }
+        // Seeded outside the index lock; a concurrent seed of the same slot wins and this one is dropped
+        LongSupplier persisted = () -> reservationRepository.countByTimeSlotIdAndStatusIn(
+                slot.getId(), ReservationStatus.ACTIVE);
+        long reserved = journalWriter != null
+                ? journalWriter.reservedWithPending(slot.getId(), persisted)
+                : persisted.getAsLong();
+        return index.insert(key, slot.getId(), (int) Math.max(0, slot.getCapacity() - reserved));
+    }
+
+    private void releaseOnRollback(TimeSlot slot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    release(slot);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.TimeSlot;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Natural key of a time slot, mirroring the uk_slot_method_date_time constraint.
+ * The key also packs into a single long for primitive-keyed lookups:
+ * bits 0-10 hold the minute of day, bits 11-42 the epoch day and bits 43-50
+ * the method ordinal plus one, so a packed key is never zero.
+ */
+public record SlotKey(
+        DeliveryMethod method,
+        LocalDate date,
+        LocalTime startTime
+) {
+
+    private static final int MINUTE_BITS = 11;
+    private static final int DAY_BITS = 32;
+    private static final long MINUTE_MASK = (1L << MINUTE_BITS) - 1;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+    private static final int DAY_SHIFT = MINUTE_BITS;
+    private static final int METHOD_SHIFT = MINUTE_BITS + DAY_BITS;
+
+    private static final DeliveryMethod[] METHODS = DeliveryMethod.values();
+
+    public static SlotKey of(TimeSlot slot) {
+        return new SlotKey(slot.getMethod(), slot.getDate(), slot.getStartTime());
+    }
+
+    public static SlotKey unpack(long packed) {
+        return new SlotKey(
+                METHODS[method(packed)],
+                LocalDate.ofEpochDay(epochDay(packed)),
+                LocalTime.ofSecondOfDay(minuteOfDay(packed) * 60L));
+    }
+
+    /**
+     * Pack a slot's key without allocating.
+     */
+    public static long pack(TimeSlot slot) {
+        return pack(slot.getMethod(), slot.getDate(), slot.getStartTime());
+    }
+
+    public static long pack(DeliveryMethod method, LocalDate date, LocalTime startTime) {
+        int secondOfDay = startTime.toSecondOfDay();
+        if (secondOfDay % 60 != 0 || startTime.getNano() != 0) {
+            throw new IllegalArgumentException("Slot start time must be a whole minute: " + startTime);
+        }
+        return pack(method.ordinal(), date.toEpochDay(), secondOfDay / 60);
+    }
+
+    public static long pack(int methodOrdinal, long epochDay, int minuteOfDay) {
+        return ((long) (methodOrdinal + 1) << METHOD_SHIFT)
+                | ((epochDay & DAY_MASK) << DAY_SHIFT)
+                | minuteOfDay;
+    }
+
+    public static int method(long packed) {
+        return (int) (packed >>> METHOD_SHIFT) - 1;
+    }
+
+    public static long epochDay(long packed) {
+        return (int) ((packed >>> DAY_SHIFT) & DAY_MASK);
+    }
+
+    public static int minuteOfDay(long packed) {
+        return (int) (packed & MINUTE_MASK);
+    }
+
+    /**
+     * The packed key of a method's whole day: the key with its minute cleared.
+     */
+    public static long partition(long packed) {
+        return packed & ~MINUTE_MASK;
+    }
+
+    public static long partition(DeliveryMethod method, LocalDate date) {
+        return pack(method.ordinal(), date.toEpochDay(), 0);
+    }
+
+    public long packed() {
+        return pack(method, date, startTime);
+    }
+}
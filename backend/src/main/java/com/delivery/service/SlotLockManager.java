@@ -0,0 +1,108 @@
+package com.delivery.service;
+
+import com.delivery.config.ReservationProperties;
+import com.delivery.exception.SlotUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by time slot id.
+ * Bookings of the same slot queue on one stripe while other slots proceed
+ * in parallel; a caller that cannot get its stripe within the configured
+ * timeout is rejected instead of piling up behind a hot slot.
+ */
+@Component
+public class SlotLockManager implements MeterBinder {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    public SlotLockManager(ReservationProperties properties) {
+        int size = 1;
+        while (size < properties.lockStripes()) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = properties.lockTimeout().toNanos();
+    }
+
+    /**
+     * Run work while holding the stripe for a slot.
+     *
+     * @throws SlotUnavailableException if the stripe is not acquired in time
+     */
+    public <T> T withLock(long slotId, Supplier<T> work) {
+        Stripe stripe = stripes[stripeIndex(slotId)];
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = stripe.lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlotUnavailableException("Interrupted while waiting for time slot: " + slotId);
+        }
+        stripe.waitNanos.add(System.nanoTime() - started);
+        if (!acquired) {
+            stripe.timeouts.increment();
+            throw new SlotUnavailableException("Time slot is busy, please retry");
+        }
+        stripe.acquisitions.increment();
+        try {
+            return work.get();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int stripeIndex(long slotId) {
+        long h = slotId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    long timeouts(int stripe) {
+        return stripes[stripe].timeouts.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            String tag = Integer.toString(i);
+            FunctionTimer.builder("delivery.slot.lock.wait", stripe,
+                            s -> s.acquisitions.sum() + s.timeouts.sum(),
+                            s -> s.waitNanos.sum(),
+                            TimeUnit.NANOSECONDS)
+                    .description("Time spent waiting for a slot lock stripe")
+                    .tag("stripe", tag)
+                    .register(registry);
+            FunctionCounter.builder("delivery.slot.lock.timeouts", stripe, s -> s.timeouts.sum())
+                    .description("Bookings rejected because a slot lock stripe stayed busy")
+                    .tag("stripe", tag)
+                    .register(registry);
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+    }
+}
@@ -0,0 +1,109 @@
+package com.delivery.service;
+
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.function.Consumer;
+
+/**
+ * Multi-day availability read in one range scan.
+ * Rows are handed to the caller one at a time as they come off the cursor,
+ * so memory stays flat however many days and methods are requested. The scan
+ * runs in a read-only transaction: PostgreSQL ignores the fetch size under
+ * auto-commit and reads the whole result up front.
+ * ASAP is excluded: its window depends on the current time, not the date.
+ */
+@Service
+public class SlotRangeService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_RANGE_SQL =
+            "SELECT id, method, slot_date, start_time, end_time, capacity, remaining FROM time_slots "
+                    + "WHERE slot_date BETWEEN ? AND ? AND method <> 'DELIVERY_ASAP' "
+                    + "AND (slot_date = ? OR method <> 'DELIVERY_TODAY') "
+                    + "ORDER BY slot_date, method, start_time";
+
+    private static final String SELECT_METHOD_RANGE_SQL =
+            "SELECT id, method, slot_date, start_time, end_time, capacity, remaining FROM time_slots "
+                    + "WHERE method = ? AND slot_date BETWEEN ? AND ? "
+                    + "ORDER BY slot_date, start_time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeSlotService timeSlotService;
+    private final SlotCapacityGuard capacityGuard;
+
+    public SlotRangeService(DataSource dataSource,
+                            TimeSlotService timeSlotService,
+                            SlotCapacityGuard capacityGuard) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.timeSlotService = timeSlotService;
+        this.capacityGuard = capacityGuard;
+    }
+
+    /**
+     * Validate a range request before any output is written.
+     *
+     * @param method a single method, or null for all methods
+     */
+    public void validateRange(DeliveryMethod method, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException(Reason.INVALID_RANGE, "Range end cannot be before its start");
+        }
+        if (method == DeliveryMethod.DELIVERY_ASAP) {
+            throw new InvalidRequestException(Reason.METHOD_NOT_AVAILABLE, "DELIVERY_ASAP is not available in range queries");
+        }
+        timeSlotService.validateDate(from);
+        timeSlotService.validateDate(to);
+        if (method == DeliveryMethod.DELIVERY_TODAY && !to.equals(from)) {
+            throw new InvalidRequestException(Reason.METHOD_NOT_AVAILABLE, "DELIVERY_TODAY is only available for today's date");
+        }
+        if (method != null) {
+            timeSlotService.validateMethodAndDate(method, from);
+        }
+    }
+
+    /**
+     * Pass every slot in the range to the action, ordered by date, method and start time.
+     *
+     * @param method a single method, or null for all methods
+     */
+    @Transactional(readOnly = true)
+    public void forEachSlot(DeliveryMethod method, LocalDate from, LocalDate to, Consumer<TimeSlotDTO> action) {
+        validateRange(method, from, to);
+
+        RowCallbackHandler handler = rs -> action.accept(toDTO(rs));
+        if (method == null) {
+            jdbcTemplate.query(SELECT_RANGE_SQL, handler, from, to, LocalDate.now());
+        } else {
+            jdbcTemplate.query(SELECT_METHOD_RANGE_SQL, handler, method.name(), from, to);
+        }
+    }
+
+    private TimeSlotDTO toDTO(ResultSet rs) throws SQLException {
+        DeliveryMethod method = DeliveryMethod.valueOf(rs.getString("method"));
+        LocalDate date = rs.getObject("slot_date", LocalDate.class);
+        LocalTime startTime = rs.getObject("start_time", LocalTime.class);
+        return new TimeSlotDTO(
+                rs.getLong("id"),
+                method,
+                date,
+                startTime,
+                rs.getObject("end_time", LocalTime.class),
+                rs.getInt("capacity"),
+                capacityGuard.remaining(SlotKey.pack(method, date, startTime), rs.getInt("remaining"))
+        );
+    }
+}
@@ -0,0 +1,241 @@
+package com.delivery.service;
+
+import com.delivery.dto.SlotTemplateDTO;
+import com.delivery.dto.SlotTemplateRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+import com.delivery.entity.TimeSlot;
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
+import com.delivery.repository.SlotTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for managing slot templates, the per-method and per-weekday slot layouts.
+ * Templates are stored in the database and compiled into an immutable
+ * {@link SlotTemplateTable}; a new revision is picked up without a restart.
+ */
+@Service
+public class SlotTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotTemplateService.class);
+
+    // Layouts seeded when no templates are stored yet
+    private static final List<LocalTime[]> STANDARD_SLOTS = List.of(
+            new LocalTime[]{LocalTime.of(9, 0), LocalTime.of(11, 0)},
+            new LocalTime[]{LocalTime.of(11, 0), LocalTime.of(13, 0)},
+            new LocalTime[]{LocalTime.of(14, 0), LocalTime.of(16, 0)},
+            new LocalTime[]{LocalTime.of(16, 0), LocalTime.of(18, 0)}
+    );
+
+    private static final List<LocalTime[]> TODAY_SLOTS = List.of(
+            new LocalTime[]{LocalTime.of(14, 0), LocalTime.of(16, 0)},
+            new LocalTime[]{LocalTime.of(16, 0), LocalTime.of(18, 0)}
+    );
+
+    private final SlotTemplateRepository slotTemplateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile SlotTemplateTable table = SlotTemplateTable.compile(List.of(), 0);
+
+    public SlotTemplateService(SlotTemplateRepository slotTemplateRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.slotTemplateRepository = slotTemplateRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Seed the default layouts on first start and compile the stored templates.
+     */
+    @PostConstruct
+    public void init() {
+        if (slotTemplateRepository.count() == 0) {
+            slotTemplateRepository.saveAll(defaultTemplates());
+        }
+        reload(false);
+    }
+
+    /**
+     * Get the windows of a method on a date, ordered by start time.
+     */
+    public List<SlotWindow> getWindows(DeliveryMethod method, LocalDate date) {
+        return table.windows(method, date.getDayOfWeek());
+    }
+
+    /**
+     * Get the latest window of a method on a date starting at or before a time, or null if none.
+     */
+    public SlotWindow findWindowAt(DeliveryMethod method, LocalDate date, LocalTime time) {
+        return table.floor(method, date.getDayOfWeek(), time);
+    }
+
+    /**
+     * Revision of the compiled templates currently in use.
+     */
+    public long getRevision() {
+        return table.revision();
+    }
+
+    /**
+     * Get all stored templates.
+     */
+    public List<SlotTemplateDTO> getTemplates() {
+        return slotTemplateRepository.findAll().stream()
+                .sorted(Comparator.comparing(SlotTemplate::getMethod)
+                        .thenComparing(t -> t.getDayOfWeek() == null ? 0 : t.getDayOfWeek().getValue())
+                        .thenComparing(SlotTemplate::getStartTime))
+                .map(this::toDTO)
+                .toList();
+    }
+
+    /**
+     * Replace the whole layout of a delivery method with a new revision.
+     * Taking the revision locks the revision counter until commit, so
+     * concurrent replacements never share a revision. The new layout is
+     * compiled once the transaction commits.
+     */
+    @Transactional
+    public List<SlotTemplateDTO> replaceTemplates(DeliveryMethod method, SlotTemplateRequest request) {
+        validateWindows(method, request.windows());
+
+        slotTemplateRepository.advanceRevision();
+        long revision = slotTemplateRepository.findCurrentRevision();
+        slotTemplateRepository.deleteByMethod(method);
+
+        List<SlotTemplate> templates = request.windows().stream()
+                .map(w -> new SlotTemplate(method, w.dayOfWeek(), w.startTime(), w.endTime(), w.capacity(), revision))
+                .toList();
+        List<SlotTemplateDTO> saved = slotTemplateRepository.saveAll(templates).stream()
+                .map(this::toDTO)
+                .toList();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload(true);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Recompile if another instance stored a newer revision.
+     */
+    @Scheduled(fixedDelayString = "${delivery.slots.templates.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (slotTemplateRepository.findLatestRevision() != table.revision()) {
+            reload(true);
+        }
+    }
+
+    /**
+     * Compile the stored templates and swap in the new table.
+     */
+    public void reload(boolean publish) {
+        reloadLock.lock();
+        try {
+            long revision = slotTemplateRepository.findLatestRevision();
+            table = SlotTemplateTable.compile(slotTemplateRepository.findAll(), revision);
+            log.info("Compiled slot templates at revision {}", revision);
+            if (publish) {
+                eventPublisher.publishEvent(new SlotTemplatesReloadedEvent(revision));
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void validateWindows(DeliveryMethod method, List<SlotTemplateRequest.Window> windows) {
+        for (SlotTemplateRequest.Window window : windows) {
+            // Slots are keyed by the minute they start at
+            for (LocalTime time : List.of(window.startTime(), window.endTime())) {
+                if (!isWholeMinute(time)) {
+                    throw new InvalidRequestException(Reason.INVALID_TEMPLATE, "Window times must be whole minutes: " + time);
+                }
+            }
+            if (!window.startTime().isBefore(window.endTime())) {
+                throw new InvalidRequestException(Reason.INVALID_TEMPLATE, "Window start time must be before end time: " + window.startTime());
+            }
+        }
+
+        // ASAP windows roll forward hour by hour and overlap by design
+        if (method == DeliveryMethod.DELIVERY_ASAP) {
+            return;
+        }
+
+        List<SlotTemplateRequest.Window> sorted = new ArrayList<>(windows);
+        sorted.sort(Comparator.comparing(SlotTemplateRequest.Window::startTime));
+        for (int i = 0; i < sorted.size(); i++) {
+            for (int j = i + 1; j < sorted.size(); j++) {
+                SlotTemplateRequest.Window a = sorted.get(i);
+                SlotTemplateRequest.Window b = sorted.get(j);
+                if (Objects.equals(a.dayOfWeek(), b.dayOfWeek()) && b.startTime().isBefore(a.endTime())) {
+                    throw new InvalidRequestException(Reason.INVALID_TEMPLATE, "Windows overlap at " + b.startTime());
+                }
+            }
+        }
+    }
+
+    private static boolean isWholeMinute(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    static List<SlotTemplate> defaultTemplates() {
+        List<SlotTemplate> templates = new ArrayList<>();
+        for (LocalTime[] times : STANDARD_SLOTS) {
+            templates.add(defaultTemplate(DeliveryMethod.DRIVE, times[0], times[1]));
+            templates.add(defaultTemplate(DeliveryMethod.DELIVERY, times[0], times[1]));
+        }
+        for (LocalTime[] times : TODAY_SLOTS) {
+            templates.add(defaultTemplate(DeliveryMethod.DELIVERY_TODAY, times[0], times[1]));
+        }
+
+        // Rolling 2-hour ASAP windows, one per starting hour up to 18:00, capped at 20:00
+        for (int hour = 0; hour <= 18; hour++) {
+            LocalTime startTime = LocalTime.of(hour, 0);
+            LocalTime endTime = startTime.plusHours(2);
+            if (endTime.isAfter(LocalTime.of(20, 0))) {
+                endTime = LocalTime.of(20, 0);
+            }
+            templates.add(defaultTemplate(DeliveryMethod.DELIVERY_ASAP, startTime, endTime));
+        }
+        return templates;
+    }
+
+    private static SlotTemplate defaultTemplate(DeliveryMethod method, LocalTime startTime, LocalTime endTime) {
+        return new SlotTemplate(method, null, startTime, endTime, TimeSlot.DEFAULT_CAPACITY, 1);
+    }
+
+    /**
+     * Convert entity to DTO.
+     */
+    private SlotTemplateDTO toDTO(SlotTemplate template) {
+        return new SlotTemplateDTO(
+                template.getId(),
+                template.getMethod(),
+                template.getDayOfWeek(),
+                template.getStartTime(),
+                template.getEndTime(),
+                template.getCapacity(),
+                template.getRevision()
+        );
+    }
+}
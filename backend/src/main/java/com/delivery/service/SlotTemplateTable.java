@@ -0,0 +1,93 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable lookup table of slot layouts compiled from {@link SlotTemplate} rows.
+ * Layouts are stored in one flat list indexed by (method, day of week), so
+ * resolving a day's windows is an index lookup that allocates nothing.
+ */
+final class SlotTemplateTable {
+
+    private static final int DAYS = DayOfWeek.values().length;
+
+    private final long revision;
+    private final List<List<SlotWindow>> layouts;
+
+    private SlotTemplateTable(long revision, List<List<SlotWindow>> layouts) {
+        this.revision = revision;
+        this.layouts = layouts;
+    }
+
+    /**
+     * Compile templates into a lookup table.
+     * Weekday-specific templates replace the method's every-day templates for that weekday.
+     */
+    static SlotTemplateTable compile(List<SlotTemplate> templates, long revision) {
+        List<List<SlotWindow>> layouts = new ArrayList<>(DeliveryMethod.values().length * DAYS);
+        for (DeliveryMethod method : DeliveryMethod.values()) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                layouts.add(compileDay(templates, method, day));
+            }
+        }
+        return new SlotTemplateTable(revision, List.copyOf(layouts));
+    }
+
+    long revision() {
+        return revision;
+    }
+
+    /**
+     * Get the windows of a method on a weekday, ordered by start time.
+     */
+    List<SlotWindow> windows(DeliveryMethod method, DayOfWeek day) {
+        return layouts.get(method.ordinal() * DAYS + day.ordinal());
+    }
+
+    /**
+     * Get the latest window starting at or before the given time, or null if none.
+     */
+    SlotWindow floor(DeliveryMethod method, DayOfWeek day, LocalTime time) {
+        List<SlotWindow> windows = windows(method, day);
+        int low = 0;
+        int high = windows.size() - 1;
+        SlotWindow match = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            SlotWindow window = windows.get(mid);
+            if (window.startTime().isAfter(time)) {
+                high = mid - 1;
+            } else {
+                match = window;
+                low = mid + 1;
+            }
+        }
+        return match;
+    }
+
+    private static List<SlotWindow> compileDay(List<SlotTemplate> templates, DeliveryMethod method, DayOfWeek day) {
+        List<SlotWindow> specific = new ArrayList<>();
+        List<SlotWindow> everyDay = new ArrayList<>();
+        for (SlotTemplate template : templates) {
+            if (template.getMethod() != method) {
+                continue;
+            }
+            SlotWindow window = new SlotWindow(template.getStartTime(), template.getEndTime(), template.getCapacity());
+            if (template.getDayOfWeek() == day) {
+                specific.add(window);
+            } else if (template.getDayOfWeek() == null) {
+                everyDay.add(window);
+            }
+        }
+        List<SlotWindow> windows = specific.isEmpty() ? everyDay : specific;
+        windows.sort(Comparator.comparing(SlotWindow::startTime));
+        return List.copyOf(windows);
+    }
+}
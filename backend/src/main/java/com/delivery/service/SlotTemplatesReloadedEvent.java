@@ -0,0 +1,6 @@
+package com.delivery.service;
+
+/**
+ * Published after a new revision of the slot templates has been compiled.
+ */
+public record SlotTemplatesReloadedEvent(long revision) {}
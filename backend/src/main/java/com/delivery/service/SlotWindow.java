@@ -0,0 +1,12 @@
+package com.delivery.service;
+
+import java.time.LocalTime;
+
+/**
+ * A compiled slot window: bounds and capacity of one slot in a day's layout.
+ */
+public record SlotWindow(
+        LocalTime startTime,
+        LocalTime endTime,
+        int capacity
+) {}
@@ -5,157 +5,164 @@ import com.delivery.entity.DeliveryMethod;
 
 import com.delivery.entity.TimeSlot;
 import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidRequestException.Reason;
 import com.delivery.repository.TimeSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing delivery time slots.
- * Generates slots on-the-fly and persists them for reservation tracking.
+ * Slots are pre-materialized by {@link SlotCalendarGenerator}; reads never write.
  */
 @Service
 public class TimeSlotService {
 
     private final TimeSlotRepository timeSlotRepository;
-
-    // Standard slots for DRIVE and DELIVERY methods
-    private static final List<LocalTime[]> STANDARD_SLOTS = List.of(
-            new LocalTime[]{LocalTime.of(9, 0), LocalTime.of(11, 0)},
-            new LocalTime[]{LocalTime.of(11, 0), LocalTime.of(13, 0)},
-            new LocalTime[]{LocalTime.of(14, 0), LocalTime.of(16, 0)},
-            new LocalTime[]{LocalTime.of(16, 0), LocalTime.of(18, 0)}
-    );
-
-    // Limited slots for DELIVERY_TODAY
-    private static final List<LocalTime[]> TODAY_SLOTS = List.of(
-            new LocalTime[]{LocalTime.of(14, 0), LocalTime.of(16, 0)},
-            new LocalTime[]{LocalTime.of(16, 0), LocalTime.of(18, 0)}
-    );
-
-    public TimeSlotService(TimeSlotRepository timeSlotRepository) {
+    private final SlotCapacityGuard capacityGuard;
+    private final SlotAvailabilitySnapshots availabilitySnapshots;
+    private final SlotTemplateService slotTemplateService;
+    private final ClusterRouter clusterRouter;
+    private final DeliveryMetrics metrics;
+    private final int horizonDays;
+    private final SingleFlight<LocalDate, List<TimeSlotDTO>> asapLookups = new SingleFlight<>();
+    private final SingleFlight<Long, List<TimeSlotDTO>> storedLookups = new SingleFlight<>();
+
+    public TimeSlotService(TimeSlotRepository timeSlotRepository,
+                           SlotCapacityGuard capacityGuard,
+                           SlotAvailabilitySnapshots availabilitySnapshots,
+                           SlotTemplateService slotTemplateService,
+                           ClusterRouter clusterRouter,
+                           DeliveryMetrics metrics,
+                           @Value("${delivery.slots.horizon-days:30}") int horizonDays) {
         this.timeSlotRepository = timeSlotRepository;
+        this.capacityGuard = capacityGuard;
+        this.availabilitySnapshots = availabilitySnapshots;
+        this.slotTemplateService = slotTemplateService;
+        this.clusterRouter = clusterRouter;
+        this.metrics = metrics;
+        this.horizonDays = horizonDays;
     }
 
     /**
      * Get available time slots for a delivery method and date.
-     * Slots are generated on-the-fly if they don't exist.
+     * Standard listings are served from the day's availability snapshot; ASAP
+     * depends on the current time and is always computed. In clustered mode a
+     * node that does not own the day reads the remaining column, which the
+     * owner keeps within one write-back of its counters. In every case
+     * concurrent identical requests share a single database query.
      */
-    @Transactional
     public List<TimeSlotDTO> getSlots(DeliveryMethod method, LocalDate date) {
-        validateMethodAndDate(method, date);
+        long started = System.nanoTime();
+        try {
+            validateMethodAndDate(method, date);
 
-        List<TimeSlot> slots;
+            boolean local = clusterRouter.isLocal(method, date);
+            if (method == DeliveryMethod.DELIVERY_ASAP) {
+                return asapLookups.execute(date, () -> toDTOs(generateAsapSlot(date), local));
+            }
+            if (!local) {
+                return storedLookups.execute(SlotKey.partition(method, date),
+                        () -> toDTOs(findSlots(method, date), false));
+            }
 
-        if (method == DeliveryMethod.DELIVERY_ASAP) {
-            slots = generateAsapSlot(date);
-        } else {
-            slots = getOrCreateSlots(method, date);
+            return availabilitySnapshots.get(method, date, () -> toDTOs(findSlots(method, date), true));
+        } finally {
+            metrics.recordSlotQuery(method, System.nanoTime() - started);
         }
-
-        return slots.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
     }
 
     /**
      * Validate that the method/date combination is allowed.
      */
     public void validateMethodAndDate(DeliveryMethod method, LocalDate date) {
+        validateDate(date);
         LocalDate today = LocalDate.now();
 
-        if (date.isBefore(today)) {
-            throw new InvalidRequestException("Date cannot be in the past");
-        }
-
         if (method == DeliveryMethod.DELIVERY_TODAY && !date.equals(today)) {
-            throw new InvalidRequestException("DELIVERY_TODAY is only available for today's date");
+            throw new InvalidRequestException(Reason.METHOD_NOT_AVAILABLE, "DELIVERY_TODAY is only available for today's date");
         }
 
         if (method == DeliveryMethod.DELIVERY_ASAP && !date.equals(today)) {
-            throw new InvalidRequestException("DELIVERY_ASAP is only available for today's date");
+            throw new InvalidRequestException(Reason.METHOD_NOT_AVAILABLE, "DELIVERY_ASAP is only available for today's date");
         }
     }
 
     /**
-     * Get or create slots for standard delivery methods.
+     * Validate that a date lies within the booking horizon.
      */
-    private List<TimeSlot> getOrCreateSlots(DeliveryMethod method, LocalDate date) {
-        List<TimeSlot> existingSlots = timeSlotRepository.findByMethodAndDate(method, date);
+    public void validateDate(LocalDate date) {
+        LocalDate today = LocalDate.now();
 
-        List<LocalTime[]> slotDefinitions = getSlotDefinitions(method);
+        if (date.isBefore(today)) {
+            throw new InvalidRequestException(Reason.DATE_IN_PAST, "Date cannot be in the past");
+        }
 
-        // If slots don't exist, create them
-        if (existingSlots.isEmpty()) {
-            List<TimeSlot> newSlots = new ArrayList<>();
-            for (LocalTime[] times : slotDefinitions) {
-                TimeSlot slot = new TimeSlot(method, date, times[0], times[1]);
-                newSlots.add(slot);
-            }
-            return timeSlotRepository.saveAll(newSlots);
+        if (!date.isBefore(today.plusDays(horizonDays))) {
+            throw new InvalidRequestException(Reason.BEYOND_HORIZON, "Date is beyond the " + horizonDays + "-day booking horizon");
         }
+    }
 
-        return existingSlots;
+    /**
+     * Find the pre-materialized slots for standard delivery methods.
+     */
+    private List<TimeSlot> findSlots(DeliveryMethod method, LocalDate date) {
+        return timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(method, date);
     }
 
     /**
-     * Generate ASAP slot - rolling 2-hour window from now.
+     * Find the ASAP slot - the rolling window that most recently started.
      */
     private List<TimeSlot> generateAsapSlot(LocalDate date) {
         LocalTime now = LocalTime.now();
-        LocalTime startTime = now.withMinute(0).withSecond(0).withNano(0);
-        LocalTime endTime = startTime.plusHours(2);
 
         // Check if we're past business hours (after 18:00)
         if (now.isAfter(LocalTime.of(18, 0))) {
-            throw new InvalidRequestException("ASAP delivery is not available after 18:00");
+            throw new InvalidRequestException(Reason.METHOD_NOT_AVAILABLE, "ASAP delivery is not available after 18:00");
         }
 
-        // Cap end time at 20:00
-        if (endTime.isAfter(LocalTime.of(20, 0))) {
-            endTime = LocalTime.of(20, 0);
+        SlotWindow window = slotTemplateService.findWindowAt(DeliveryMethod.DELIVERY_ASAP, date, now);
+        if (window == null) {
+            return List.of();
         }
 
-        // Check if slot already exists
-        TimeSlot existingSlot = timeSlotRepository
-                .findByMethodAndDateAndStartTime(DeliveryMethod.DELIVERY_ASAP, date, startTime)
-                .orElse(null);
-
-        if (existingSlot != null) {
-            return List.of(existingSlot);
-        }
-
-        // Create new ASAP slot
-        TimeSlot asapSlot = new TimeSlot(DeliveryMethod.DELIVERY_ASAP, date, startTime, endTime);
-        return List.of(timeSlotRepository.save(asapSlot));
+        return timeSlotRepository
+                .findByMethodAndDateAndStartTime(DeliveryMethod.DELIVERY_ASAP, date, window.startTime())
+                .map(List::of)
+                .orElse(List.of());
     }
 
     /**
-     * Get slot time definitions based on delivery method.
+     * Number of days, starting today, for which slots are bookable.
      */
-    public List<LocalTime[]> getSlotDefinitions(DeliveryMethod method) {
-        return switch (method) {
-            case DRIVE, DELIVERY -> STANDARD_SLOTS;
-            case DELIVERY_TODAY -> TODAY_SLOTS;
-            case DELIVERY_ASAP -> List.of(); // ASAP uses dynamic generation
-        };
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    private List<TimeSlotDTO> toDTOs(List<TimeSlot> slots, boolean local) {
+        return slots.stream()
+                .map(slot -> toDTO(slot, local))
+                .collect(Collectors.toList());
     }
 
     /**
      * Convert entity to DTO.
+     *
+     * @param local whether this node keeps the slot's counter; otherwise the stored value is used
      */
-    private TimeSlotDTO toDTO(TimeSlot slot) {
+    private TimeSlotDTO toDTO(TimeSlot slot, boolean local) {
         return new TimeSlotDTO(
                 slot.getId(),
                 slot.getMethod(),
                 slot.getDate(),
                 slot.getStartTime(),
-                slot.getEndTime()
+                slot.getEndTime(),
+                slot.getCapacity(),
+                local ? capacityGuard.remaining(slot) : capacityGuard.remaining(SlotKey.pack(slot), slot.getRemaining())
         );
     }
 }
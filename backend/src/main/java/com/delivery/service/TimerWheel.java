@@ -0,0 +1,128 @@
+package com.delivery.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timer wheel for a large number of deadlines.
+ * Each level has {@value #SLOTS} buckets; a bucket on level k spans
+ * {@value #SLOTS}^k ticks. Scheduling is O(1), and an entry is moved down a
+ * level at most {@value #LEVELS} - 1 times before it fires, so expiring n
+ * entries costs O(n) no matter how far apart their deadlines are.
+ * Entries cannot be cancelled; callers check on expiry whether it still applies.
+ */
+final class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Node<T>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new Node[LEVELS][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a value to fire once the wheel has advanced past {@code deadlineMillis}.
+     */
+    void schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        lock.lock();
+        try {
+            insert(new Node<>(value, Math.max(deadlineTick, currentTick + 1)));
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advance the wheel to a point in time and collect everything that fell due.
+     */
+    List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                Node<T> node = buckets[0][(int) (currentTick & MASK)];
+                buckets[0][(int) (currentTick & MASK)] = null;
+                for (; node != null; node = node.next) {
+                    expired.add(node.value);
+                    size--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    /**
+     * Number of scheduled entries that have not fired yet.
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the entries of every higher-level bucket that has come due one level down.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & MASK);
+            Node<T> node = buckets[level][index];
+            buckets[level][index] = null;
+            while (node != null) {
+                Node<T> next = node.next;
+                insert(node);
+                node = next;
+            }
+        }
+    }
+
+    private void insert(Node<T> node) {
+        long delta = node.deadlineTick - currentTick;
+        long placement = delta > MAX_DELTA ? currentTick + MAX_DELTA : Math.max(node.deadlineTick, currentTick);
+        long placementDelta = placement - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && placementDelta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((placement >>> (SLOT_BITS * level)) & MASK);
+        node.next = buckets[level][index];
+        buckets[level][index] = node;
+    }
+
+    private static final class Node<T> {
+        final T value;
+        final long deadlineTick;
+        Node<T> next;
+
+        Node(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
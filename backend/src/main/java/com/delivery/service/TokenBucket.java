@@ -0,0 +1,47 @@
+package com.delivery.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single timestamp, in the form of the
+ * generic cell rate algorithm: instead of counting tokens, the bucket stores
+ * the time at which it would be full again. Taking a token pushes that time
+ * forward by one emission interval; a request is admitted while the time
+ * stays within {@code burst} intervals of now.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take tokens if the bucket holds them.
+     *
+     * @return zero if they were taken, otherwise nanoseconds until they will be available
+     */
+    long tryAcquire(int tokens, long nowNanos) {
+        long cost = intervalNanos * tokens;
+        while (true) {
+            long current = fullAt.get();
+            long from = current - nowNanos > 0 ? current : nowNanos;
+            long next = from + cost;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+-- Baseline schema. Written in the subset of SQL shared by PostgreSQL and H2,
+-- so the same migrations run in production, in development and in tests.
+
+-- Sequences step by the entities' allocation size: each value owns a block
+-- of ids, which lets Hibernate and the JDBC writers batch their inserts.
+CREATE SEQUENCE slot_templates_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE time_slots_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE reservations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE slot_templates (
+    id          BIGINT      NOT NULL PRIMARY KEY,
+    method      VARCHAR(32) NOT NULL,
+    day_of_week VARCHAR(16),
+    start_time  TIME        NOT NULL,
+    end_time    TIME        NOT NULL,
+    capacity    INTEGER     NOT NULL,
+    revision    BIGINT      NOT NULL
+);
+
+CREATE TABLE time_slots (
+    id         BIGINT      NOT NULL PRIMARY KEY,
+    method     VARCHAR(32) NOT NULL,
+    slot_date  DATE        NOT NULL,
+    start_time TIME        NOT NULL,
+    end_time   TIME        NOT NULL,
+    capacity   INTEGER     NOT NULL,
+    remaining  INTEGER     NOT NULL,
+    version    BIGINT,
+    CONSTRAINT uk_slot_method_date_time UNIQUE (method, slot_date, start_time)
+);
+
+CREATE INDEX idx_slot_date_method_time ON time_slots (slot_date, method, start_time);
+
+CREATE TABLE reservations (
+    id           BIGINT                   NOT NULL PRIMARY KEY,
+    time_slot_id BIGINT                   NOT NULL,
+    status       VARCHAR(16)              NOT NULL,
+    expires_at   TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT fk_reservation_time_slot FOREIGN KEY (time_slot_id) REFERENCES time_slots (id)
+);
+
+-- Covers the active-reservation count per slot without touching the table
+CREATE INDEX idx_reservation_slot_status ON reservations (time_slot_id, status);
+-- Outstanding holds scanned by the expiry reaper at startup
+CREATE INDEX idx_reservation_status_expiry ON reservations (status, expires_at);
@@ -0,0 +1,6 @@
+-- Customer owning a reservation, for support lookups; optional for older clients.
+ALTER TABLE reservations ADD COLUMN customer_id VARCHAR(64);
+
+-- Serves a customer's reservations newest first: WHERE customer_id = ? AND id < ?
+-- ORDER BY id DESC seeks straight to the page instead of skipping rows
+CREATE INDEX idx_reservation_customer ON reservations (customer_id, id);
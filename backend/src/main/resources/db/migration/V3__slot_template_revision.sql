@@ -0,0 +1,7 @@
+-- Single-row counter handing out template revisions. Replacing a layout bumps it with an UPDATE,
+-- whose row lock keeps concurrent replacements, on any node, from taking the same revision.
+CREATE TABLE slot_template_revision (
+    revision BIGINT NOT NULL
+);
+
+INSERT INTO slot_template_revision (revision) SELECT COALESCE(MAX(revision), 0) FROM slot_templates;
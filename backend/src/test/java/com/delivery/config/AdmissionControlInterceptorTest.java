@@ -0,0 +1,123 @@
+package com.delivery.config;
+
+import com.delivery.service.AdmissionControl;
+import com.delivery.service.ClusterMembership;
+import com.delivery.service.ClusterRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for how AdmissionControlInterceptor tells clients apart.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlInterceptorTest {
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    @Mock
+    private ClusterRouter clusterRouter;
+
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new AdmissionControlInterceptor(admissionControl, clusterRouter, "X-Client-Id",
+                new TrustedProxies(List.of("10.0.0.0/24", "192.168.1.7")));
+    }
+
+    @Test
+    @DisplayName("Should ignore a client id sent directly by the caller")
+    void preHandle_UntrustedCaller_ChargedToRemoteAddress() {
+        // Arrange
+        MockHttpServletRequest request = request("203.0.113.9");
+        request.addHeader("X-Client-Id", "somebody-else");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Assert
+        verify(admissionControl).admitClient("203.0.113.9");
+    }
+
+    @Test
+    @DisplayName("Should charge the client a trusted proxy names")
+    void preHandle_TrustedProxy_ChargedToNamedClient() {
+        // Arrange
+        MockHttpServletRequest request = request("10.0.0.42");
+        request.addHeader("X-Client-Id", "tenant-7");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Assert
+        verify(admissionControl).admitClient("tenant-7");
+    }
+
+    @Test
+    @DisplayName("Should charge the first hop before the trusted proxies in X-Forwarded-For")
+    void preHandle_TrustedProxyChain_ChargedToForwardedClient() {
+        // Arrange
+        MockHttpServletRequest request = request("192.168.1.7");
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 198.51.100.1, 10.0.0.5");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Assert
+        verify(admissionControl).admitClient("198.51.100.1");
+    }
+
+    @Test
+    @DisplayName("Should charge an authenticated request to its principal")
+    void preHandle_Authenticated_ChargedToPrincipal() {
+        // Arrange
+        MockHttpServletRequest request = request("203.0.113.9");
+        request.setUserPrincipal(() -> "alice");
+        request.addHeader("X-Client-Id", "somebody-else");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Assert
+        verify(admissionControl).admitClient("alice");
+        assertEquals("alice", request.getAttribute(AdmissionControl.CLIENT_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("Should keep the client a cluster member forwarded a request for without charging it again")
+    void preHandle_ForwardedByMember_KeepsForwardedClient() {
+        // Arrange
+        MockHttpServletRequest request = request("10.1.0.2");
+        request.addHeader(ClusterRouter.FORWARDED_HEADER, "http://10.1.0.2:8080");
+        request.addHeader(ClusterMembership.SECRET_HEADER, "secret");
+        request.addHeader(ClusterRouter.FORWARDED_CLIENT_HEADER, "tenant-7");
+        when(clusterRouter.isForwardedByMember("http://10.1.0.2:8080", "secret", "10.1.0.2")).thenReturn(true);
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Assert
+        verify(admissionControl, never()).admitClient(any());
+        assertEquals("tenant-7", request.getAttribute(AdmissionControl.CLIENT_ATTRIBUTE));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/time-slots");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
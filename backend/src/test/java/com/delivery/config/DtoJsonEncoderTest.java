@@ -0,0 +1,109 @@
+package com.delivery.config;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DtoJsonEncoder and DtoJsonHttpMessageConverter, checked
+ * byte for byte against Jackson configured as Spring Boot configures it.
+ */
+class DtoJsonEncoderTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final DtoJsonEncoder encoder = new DtoJsonEncoder();
+
+    @Test
+    @DisplayName("Should write time slots exactly as Jackson does")
+    void writeSlot_MatchesJackson() throws IOException {
+        // Arrange
+        List<TimeSlotDTO> slots = List.of(
+                new TimeSlotDTO(1L, DeliveryMethod.DELIVERY, DATE, LocalTime.of(9, 0), LocalTime.of(11, 0), 5, 3),
+                new TimeSlotDTO(-42L, DeliveryMethod.DRIVE, DATE.minusYears(3000),
+                        LocalTime.of(23, 59, 59), LocalTime.of(0, 0, 0, 500_000_000), 0, -1),
+                new TimeSlotDTO(Long.MIN_VALUE, DeliveryMethod.DELIVERY_ASAP, DATE, LocalTime.MIDNIGHT,
+                        LocalTime.of(12, 30, 0, 1), Integer.MAX_VALUE, Integer.MIN_VALUE),
+                new TimeSlotDTO(null, null, null, null, null, 0, 0));
+
+        // Act & Assert
+        for (TimeSlotDTO slot : slots) {
+            try (DtoJsonEncoder.Buffer buffer = encoder.acquire()) {
+                encoder.write(buffer, slot);
+                assertEquals(objectMapper.writeValueAsString(slot), drain(buffer));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should write reservations exactly as Jackson does")
+    void writeReservation_MatchesJackson() throws IOException {
+        // Arrange
+        List<ReservationDTO> reservations = List.of(
+                new ReservationDTO(7L, 1L, DeliveryMethod.DELIVERY_TODAY, DATE, LocalTime.of(14, 0),
+                        LocalTime.of(16, 0), ReservationStatus.HELD, Instant.parse("2026-01-08T10:15:30.123Z"),
+                        "CUST-001"),
+                new ReservationDTO(8L, 2L, DeliveryMethod.DRIVE, DATE, LocalTime.of(8, 15),
+                        LocalTime.of(8, 45), ReservationStatus.CONFIRMED, Instant.parse("2026-01-08T10:15:30.000000007Z"),
+                        "q\"b\\s/\n\t\u0001\u007f\u00e9\u20ac\uD83D\uDE00"),
+                new ReservationDTO(9L, null, null, null, null, null, null, null, null));
+
+        // Act & Assert
+        for (ReservationDTO reservation : reservations) {
+            try (DtoJsonEncoder.Buffer buffer = encoder.acquire()) {
+                encoder.write(buffer, reservation);
+                assertEquals(objectMapper.writeValueAsString(reservation), drain(buffer));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert slot lists and single reservations but leave other types to Jackson")
+    void converter_WritesOnlyDtos() throws Exception {
+        // Arrange
+        DtoJsonHttpMessageConverter converter = new DtoJsonHttpMessageConverter(encoder);
+        List<TimeSlotDTO> slots = List.of(
+                new TimeSlotDTO(1L, DeliveryMethod.DELIVERY, DATE, LocalTime.of(9, 0), LocalTime.of(11, 0), 5, 3),
+                new TimeSlotDTO(2L, DeliveryMethod.DELIVERY, DATE, LocalTime.of(11, 0), LocalTime.of(13, 0), 5, 0));
+        var slotListType = new TypeReference<List<TimeSlotDTO>>() {}.getType();
+        var mapListType = new TypeReference<List<Map<String, Object>>>() {}.getType();
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(slots, slotListType, MediaType.APPLICATION_JSON, message);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(slots), message.getBodyAsString());
+        assertEquals(message.getBodyAsBytes().length, message.getHeaders().getContentLength());
+        assertTrue(converter.canWrite(ReservationDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(mapListType, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(slotListType, List.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(slotListType, null, MediaType.APPLICATION_JSON));
+    }
+
+    private static String drain(DtoJsonEncoder.Buffer buffer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffer.drainTo(out);
+        return out.toString();
+    }
+}
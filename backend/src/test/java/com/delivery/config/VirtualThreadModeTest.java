@@ -0,0 +1,65 @@
+package com.delivery.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the virtual-thread execution mode.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(VirtualThreadModeTest.ThreadProbeController.class)
+class VirtualThreadModeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    @DisplayName("Should serve HTTP requests on virtual threads")
+    void request_RunsOnVirtualThread() {
+        assertEquals("true", restTemplate.getForObject("/test/thread-probe", String.class));
+    }
+
+    @Test
+    @DisplayName("Should report a virtual thread blocking inside a synchronized block")
+    void pinnedThread_IsReported() throws Exception {
+        Object monitor = new Object();
+        long before = pinningMonitor.getPinnedCount();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                // Parking while holding a monitor pins the carrier
+                LockSupport.parkNanos(100_000_000L);
+            }
+        }).join();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinningMonitor.getPinnedCount() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(pinningMonitor.getPinnedCount() > before);
+    }
+
+    @TestConfiguration
+    @RestController
+    static class ThreadProbeController {
+
+        @GetMapping("/test/thread-probe")
+        String probe() {
+            return String.valueOf(Thread.currentThread().isVirtual());
+        }
+    }
+}
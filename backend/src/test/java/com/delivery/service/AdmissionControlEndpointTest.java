@@ -0,0 +1,81 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for admission control in front of the REST API.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission",
+        "delivery.admission.enabled=true",
+        // The test client stands in for a proxy naming its clients
+        "delivery.admission.trusted-proxies=127.0.0.1,::1",
+        "delivery.admission.client-rate=0.5",
+        "delivery.admission.client-burst=2"
+})
+class AdmissionControlEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once a client exceeds its rate")
+    void getTimeSlots_OverClientRate_ReturnsTooManyRequests() {
+        // Arrange
+        String url = "/api/time-slots?method=DRIVE&date=" + LocalDate.now().plusDays(1);
+
+        // Act
+        ResponseEntity<String> first = get(url, "client-a");
+        ResponseEntity<String> second = get(url, "client-a");
+        ResponseEntity<String> third = get(url, "client-a");
+        ResponseEntity<String> other = get(url, "client-b");
+
+        // Assert
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getStatusCode());
+        assertEquals("2", third.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK, other.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should charge a request claiming to be forwarded when it does not come from a cluster member")
+    void getTimeSlots_ForgedForwardedHeader_StillCharged() {
+        // Arrange
+        String url = "/api/time-slots?method=DRIVE&date=" + LocalDate.now().plusDays(1);
+        HttpHeaders forged = new HttpHeaders();
+        forged.set(ClusterRouter.FORWARDED_HEADER, "http://127.0.0.1:1");
+
+        // Act
+        get(url, "client-forged", forged);
+        get(url, "client-forged", forged);
+        ResponseEntity<String> third = get(url, "client-forged", forged);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getStatusCode());
+    }
+
+    private ResponseEntity<String> get(String url, String clientId) {
+        return get(url, clientId, new HttpHeaders());
+    }
+
+    private ResponseEntity<String> get(String url, String clientId, HttpHeaders headers) {
+        headers.set("X-Client-Id", clientId);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.delivery.service;
+
+import com.delivery.config.AdmissionProperties;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdmissionControl, TokenBucket and GradientConcurrencyLimiter.
+ */
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should admit a burst, then reject until a token has been refilled")
+    void tokenBucket_BurstThenRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(1, 0));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(1, 0));
+        assertEquals(SECOND / 20, bucket.tryAcquire(1, SECOND / 20));
+        assertEquals(0, bucket.tryAcquire(1, SECOND / 10));
+        assertEquals(0, bucket.tryAcquire(3, 10 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should rate-limit each client separately and report when to retry")
+    void admitClient_OverRate_ThrowsWithRetryAfter() {
+        // Arrange
+        AdmissionControl admission = new AdmissionControl(properties(true, 1, 2, 64));
+
+        // Act
+        admission.admitClient("a");
+        admission.admitClient("a");
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> admission.admitClient("a"));
+
+        // Assert
+        assertTrue(ex.getRetryAfter().toMillis() > 0);
+        assertTrue(ex.getRetryAfter().toMillis() <= 1000);
+        assertDoesNotThrow(() -> admission.admitClient("b"));
+    }
+
+    @Test
+    @DisplayName("Should rate-limit each delivery method separately and cap batches at the burst")
+    void admitMethod_OverRate_Throws() {
+        // Arrange
+        AdmissionControl admission = new AdmissionControl(properties(true, 1, 1000, 64));
+
+        // Act & Assert
+        admission.admitMethod(DeliveryMethod.DRIVE, 10_000);
+        assertThrows(TooManyRequestsException.class, () -> admission.admitMethod(DeliveryMethod.DRIVE, 1));
+        assertDoesNotThrow(() -> admission.admitMethod(DeliveryMethod.DELIVERY, 1));
+    }
+
+    @Test
+    @DisplayName("Should reject reservations beyond the concurrency limit until a permit is released")
+    void acquireReservationPermit_AtLimit_Throws() {
+        // Arrange
+        AdmissionControl admission = new AdmissionControl(properties(true, 1000, 1000, 2));
+        AdmissionControl.Permit first = admission.acquireReservationPermit();
+        admission.acquireReservationPermit();
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, admission::acquireReservationPermit);
+        first.release(false);
+        assertDoesNotThrow(admission::acquireReservationPermit);
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void disabled_AdmitsEverything() {
+        AdmissionControl admission = new AdmissionControl(properties(false, 1, 1, 2));
+
+        for (int i = 0; i < 100; i++) {
+            admission.admitClient("a");
+            admission.admitMethod(DeliveryMethod.DRIVE, 1);
+            admission.acquireReservationPermit();
+        }
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while latency is flat and cut it once latency climbs")
+    void limiter_FollowsLatencyGradient() {
+        // Arrange
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 4, 200);
+
+        // Act: saturated at a steady 10ms
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, 10_000_000);
+        }
+        int grown = limiter.limit();
+
+        // Act: saturated while latency jumps to 100ms
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, 100_000_000);
+        }
+        int shrunk = limiter.limit();
+
+        // Assert
+        assertTrue(grown > 20, "limit should grow, was " + grown);
+        assertTrue(shrunk < grown / 2, "limit should shrink from " + grown + ", was " + shrunk);
+        assertTrue(shrunk >= 4);
+    }
+
+    @Test
+    @DisplayName("Should keep the limit when the limiter is mostly idle")
+    void limiter_AppLimited_KeepsLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 4, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10_000_000, false);
+        }
+
+        assertEquals(20, limiter.limit());
+    }
+
+    private static void saturate(GradientConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+
+    private static AdmissionProperties properties(boolean enabled, double rate, int burst, int limit) {
+        return new AdmissionProperties(enabled, "X-Client-Id", List.of(), rate, burst, 1000, rate, burst, limit, 1, limit);
+    }
+}
@@ -0,0 +1,354 @@
+package com.delivery.service;
+
+import com.delivery.DeliveryApplication;
+import com.delivery.dto.ClusterView;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several clustered nodes in one JVM over loopback, sharing one
+ * in-memory database, and books a slot through all of them while nodes
+ * leave and join.
+ */
+class ClusterLoopbackTest {
+
+    private static final String DATABASE = "jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1";
+    private static final int CAPACITY = 20;
+    private static final String SECRET = "loopback-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.context().close());
+        http.close();
+    }
+
+    @Test
+    @DisplayName("Should never oversell a slot booked through every node while nodes leave and join")
+    void booking_AcrossNodes_NeverOversells() throws Exception {
+        // Arrange: three nodes joining through the first
+        Node first = start(null);
+        start(first.url());
+        start(first.url());
+        awaitMembers(3);
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        first.context().getBean(JdbcTemplate.class).update("UPDATE time_slots SET capacity = ?, remaining = ? WHERE method = ? AND slot_date = ?",
+                CAPACITY, CAPACITY, DeliveryMethod.DELIVERY.name(), Date.valueOf(tomorrow));
+        TimeSlotDTO slot = first.context().getBean(TimeSlotService.class)
+                .getSlots(DeliveryMethod.DELIVERY, tomorrow).get(0);
+        String body = "{\"method\":\"DELIVERY\",\"date\":\"" + tomorrow + "\",\"slotId\":" + slot.id() + "}";
+        long partition = SlotKey.partition(DeliveryMethod.DELIVERY, tomorrow);
+
+        // Act: three times the capacity, spread over all nodes
+        List<Long> booked = book(body, 3 * CAPACITY);
+
+        // Assert: exactly the capacity, wherever the requests arrived
+        assertEquals(CAPACITY, booked.size());
+        assertEquals(CAPACITY, activeReservations(slot.id()));
+
+        // Act: free five places, then stop the owner
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<String> cancelled = send(nodes.get(i % nodes.size()).url(),
+                    "/api/reservations/" + booked.get(i) + "/cancel", "");
+            assertEquals(200, cancelled.statusCode(), cancelled.body());
+        }
+        Node owner = ownerOf(partition);
+        owner.context().close();
+        nodes.remove(owner);
+        awaitMembers(2);
+
+        // Assert: the new owner picks up where the old one left off
+        assertEquals(5, book(body, 3 * CAPACITY).size());
+        assertEquals(CAPACITY, activeReservations(slot.id()));
+
+        // Act: free three more places, then add a node
+        for (int i = 5; i < 8; i++) {
+            send(nodes.get(0).url(), "/api/reservations/" + booked.get(i) + "/cancel", "");
+        }
+        start(nodes.get(0).url());
+        awaitMembers(3);
+
+        // Assert
+        assertEquals(3, book(body, 3 * CAPACITY).size());
+        assertEquals(CAPACITY, activeReservations(slot.id()));
+    }
+
+    @Test
+    @DisplayName("Should show a booking made on the owning node to reads on another node")
+    void slotsRead_OnOtherNode_SeeOwnersBookings() throws Exception {
+        // Arrange: two nodes, one of which owns the day
+        Node first = start(null);
+        start(first.url());
+        awaitMembers(2);
+
+        LocalDate date = LocalDate.now().plusDays(2);
+        Node owner = ownerOf(SlotKey.partition(DeliveryMethod.DRIVE, date));
+        Node other = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+        TimeSlotService otherSlots = other.context().getBean(TimeSlotService.class);
+        TimeSlotDTO before = otherSlots.getSlots(DeliveryMethod.DRIVE, date).get(0);
+
+        // Act
+        HttpResponse<String> booked = send(owner.url(), "/api/reservations",
+                "{\"method\":\"DRIVE\",\"date\":\"" + date + "\",\"slotId\":" + before.id() + "}");
+
+        // Assert: the other node catches up once the owner has written its counter back
+        assertEquals(201, booked.statusCode(), booked.body());
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        int remaining = before.remaining();
+        while (remaining != before.remaining() - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            remaining = otherSlots.getSlots(DeliveryMethod.DRIVE, date).get(0).remaining();
+        }
+        assertEquals(before.remaining() - 1, remaining);
+    }
+
+    @Test
+    @DisplayName("Should expire holds on the owning node only, so their capacity comes back there")
+    void holds_ExpireOnOwningNode_CapacityComesBack() throws Exception {
+        // Arrange: two nodes with short holds, and the address of a third picked up front
+        String shortHolds = "--delivery.reservations.hold-ttl=10s";
+        Node first = start(null, freePort(), shortHolds);
+        Node second = start(first.url(), freePort(), shortHolds);
+        awaitMembers(2);
+        int thirdPort = freePort();
+        ConsistentHashRing before = new ConsistentHashRing(List.of(first.url(), second.url()), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(first.url(), second.url(), url(thirdPort)), 64);
+        LocalDate date = LocalDate.now().plusDays(3);
+        while (!before.owner(SlotKey.partition(DeliveryMethod.DRIVE, date)).equals(first.url())
+                || !after.owner(SlotKey.partition(DeliveryMethod.DRIVE, date)).equals(first.url())) {
+            date = date.plusDays(1);
+        }
+        first.context().getBean(JdbcTemplate.class).update("UPDATE time_slots SET capacity = ?, remaining = ? WHERE method = ? AND slot_date = ?",
+                CAPACITY, CAPACITY, DeliveryMethod.DRIVE.name(), Date.valueOf(date));
+        TimeSlotDTO slot = first.context().getBean(TimeSlotService.class).getSlots(DeliveryMethod.DRIVE, date).get(0);
+        String body = "{\"method\":\"DRIVE\",\"date\":\"" + date + "\",\"slotId\":" + slot.id() + "}";
+        assertEquals(CAPACITY, book(body, 3 * CAPACITY).size());
+
+        // Act: start a node that finds the holds in the table, then let them lapse
+        start(first.url(), thirdPort, shortHolds);
+        awaitMembers(3);
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (activeReservations(slot.id()) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        // Assert: the owner got every unit back
+        assertEquals(0, activeReservations(slot.id()));
+        assertEquals(CAPACITY, book(body, 3 * CAPACITY).size());
+    }
+
+    /**
+     * Send bookings round-robin over the nodes at once, retrying while ownership moves.
+     *
+     * @return ids of the reservations created
+     */
+    @Test
+    @DisplayName("Should stream a booking made on the owning node to subscribers on another node")
+    void stream_OnOtherNode_HearsOwnersBookings() throws Exception {
+        // Arrange: a subscriber on the node that does not own the day
+        Node first = start(null);
+        start(first.url());
+        awaitMembers(2);
+
+        LocalDate date = LocalDate.now().plusDays(2);
+        Node owner = ownerOf(SlotKey.partition(DeliveryMethod.DELIVERY, date));
+        Node other = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+        TimeSlotDTO slot = other.context().getBean(TimeSlotService.class).getSlots(DeliveryMethod.DELIVERY, date).get(0);
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        other.context().getBean(SlotAvailabilityBroadcaster.class).register(DeliveryMethod.DELIVERY, date, List::of,
+                new SlotAvailabilityBroadcaster.Sender() {
+                    @Override
+                    public void send(String name, Object data) {
+                        received.add(data);
+                    }
+
+                    @Override
+                    public void heartbeat() {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+        assertEquals(List.of(), received.poll(5, TimeUnit.SECONDS));
+
+        // Act
+        HttpResponse<String> booked = send(owner.url(), "/api/reservations",
+                "{\"method\":\"DELIVERY\",\"date\":\"" + date + "\",\"slotId\":" + slot.id() + "}");
+
+        // Assert
+        assertEquals(201, booked.statusCode(), booked.body());
+        SlotAvailabilityChangedEvent change = (SlotAvailabilityChangedEvent) received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(change, "no change relayed");
+        assertEquals(slot.id(), change.slotId());
+        assertEquals(slot.remaining() - 1, change.remaining());
+    }
+
+    @Test
+    @DisplayName("Should refuse calls between nodes that do not carry the cluster secret")
+    void clusterCalls_WithoutSecret_Refused() throws Exception {
+        // Arrange
+        Node first = start(null);
+        Node second = start(first.url());
+        awaitMembers(2);
+        String leave = objectMapper.writeValueAsString(new ClusterView(second.url(), List.of(second.url())));
+
+        // Act
+        HttpResponse<String> unsigned = send(first.url(), "/internal/cluster/leave", leave);
+        HttpResponse<String> wrong = http.send(HttpRequest.newBuilder(URI.create(first.url() + "/internal/cluster/leave"))
+                        .header("Content-Type", "application/json")
+                        .header(ClusterMembership.SECRET_HEADER, "not-" + SECRET)
+                        .POST(HttpRequest.BodyPublishers.ofString(leave))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(403, unsigned.statusCode());
+        assertEquals(403, wrong.statusCode());
+        assertEquals(List.of(second.url()), first.context().getBean(ClusterMembership.class).peers());
+    }
+
+    private List<Long> book(String body, int requests) throws Exception {
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                String url = nodes.get(i % nodes.size()).url();
+                results.add(executor.submit(() -> {
+                    for (int attempt = 0; attempt < 50; attempt++) {
+                        HttpResponse<String> response = send(url, "/api/reservations", body);
+                        switch (response.statusCode()) {
+                            case 201:
+                                return objectMapper.readTree(response.body()).path("id").asLong();
+                            case 409:
+                                return null;
+                            case 503:
+                                Thread.sleep(100);
+                                break;
+                            default:
+                                fail("Unexpected " + response.statusCode() + ": " + response.body());
+                        }
+                    }
+                    return fail("Ownership never settled");
+                }));
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> result : results) {
+            if (result.get() != null) {
+                ids.add(result.get());
+            }
+        }
+        return ids;
+    }
+
+    private Node start(String seed) throws IOException {
+        return start(seed, freePort());
+    }
+
+    private Node start(String seed, int port, String... extraArgs) {
+        String url = url(port);
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=" + DATABASE,
+                "--spring.h2.console.enabled=false",
+                "--delivery.admission.enabled=false",
+                "--delivery.cluster.enabled=true",
+                "--delivery.cluster.advertised-url=" + url,
+                "--delivery.cluster.secret=" + SECRET,
+                "--delivery.cluster.heartbeat-interval-ms=100",
+                "--delivery.cluster.failure-timeout=2s",
+                "--logging.level.root=WARN"));
+        if (seed != null) {
+            args.add("--delivery.cluster.seeds=" + seed);
+        }
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DeliveryApplication.class)
+                .run(args.toArray(String[]::new));
+        Node node = new Node(url, context);
+        nodes.add(node);
+        return node;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String url(int port) {
+        return "http://127.0.0.1:" + port;
+    }
+
+    private void awaitMembers(int members) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (System.nanoTime() < deadline) {
+            boolean settled = true;
+            for (Node node : nodes) {
+                HttpResponse<String> response = http.send(
+                        HttpRequest.newBuilder(URI.create(node.url() + "/internal/cluster"))
+                                .header(ClusterMembership.SECRET_HEADER, SECRET)
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                ClusterView view = objectMapper.readValue(response.body(), ClusterView.class);
+                settled &= view.members().size() == members;
+            }
+            if (settled) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Cluster did not settle on " + members + " members");
+    }
+
+    private Node ownerOf(long partition) {
+        String owner = nodes.get(0).context().getBean(ClusterMembership.class).owner(partition);
+        return nodes.stream().filter(node -> node.url().equals(owner)).findFirst().orElseThrow();
+    }
+
+    private HttpResponse<String> send(String url, String path, String body) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(url + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long activeReservations(long slotId) {
+        return nodes.get(0).context().getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM reservations WHERE time_slot_id = ? AND status IN ('HELD', 'CONFIRMED')",
+                Long.class, slotId);
+    }
+
+    private record Node(String url, ConfigurableApplicationContext context) {}
+}
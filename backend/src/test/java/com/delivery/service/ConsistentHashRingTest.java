@@ -0,0 +1,83 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConsistentHashRing.
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://127.0.0.1:8081", "http://127.0.0.1:8082", "http://127.0.0.1:8083");
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+    private static final int DAYS = 1000;
+
+    @Test
+    @DisplayName("Should assign partitions the same way whatever order the nodes are listed in")
+    void owner_IndependentOfNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(NODES.reversed(), 64);
+
+        for (long partition : partitions()) {
+            assertEquals(ring.owner(partition), reversed.owner(partition));
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread partitions roughly evenly over the nodes")
+    void owner_SpreadsPartitions() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 64);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (long partition : partitions()) {
+            counts.merge(ring.owner(partition), 1, Integer::sum);
+        }
+
+        int fairShare = partitions().length / NODES.size();
+        for (String node : NODES) {
+            int count = counts.getOrDefault(node, 0);
+            assertTrue(count > fairShare * 0.6 && count < fairShare * 1.4, node + " owns " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move only partitions that the joining node takes over")
+    void owner_NodeJoins_MovesOnlyToNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 64);
+        String joining = "http://127.0.0.1:8084";
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of(NODES.get(0), NODES.get(1), NODES.get(2), joining), 64);
+        int moved = 0;
+
+        for (long partition : partitions()) {
+            String owner = after.owner(partition);
+            if (!owner.equals(before.owner(partition))) {
+                assertEquals(joining, owner);
+                moved++;
+            }
+        }
+
+        int fairShare = partitions().length / 4;
+        assertTrue(moved > fairShare * 0.6 && moved < fairShare * 1.4, "moved " + moved);
+    }
+
+    private static long[] partitions() {
+        long[] partitions = new long[DAYS * DeliveryMethod.values().length];
+        int i = 0;
+        for (int day = 0; day < DAYS; day++) {
+            for (DeliveryMethod method : DeliveryMethod.values()) {
+                partitions[i++] = SlotKey.partition(method, DAY.plusDays(day));
+            }
+        }
+        return partitions;
+    }
+}
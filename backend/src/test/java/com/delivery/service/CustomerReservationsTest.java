@@ -0,0 +1,131 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationPage;
+import com.delivery.dto.ReservationRequest;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for listing a customer's reservations with keyset pagination against embedded H2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:customer-reservations")
+class CustomerReservationsTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should page through one customer's reservations newest first without gaps or overlaps")
+    void getCustomerReservations_Paged_ReturnsEachOnce() {
+        // Arrange: seven bookings for one customer, two for another, one anonymous
+        List<TimeSlotDTO> slots = driveSlots(LocalDate.now().plusDays(1), 3);
+        List<ReservationDTO> booked = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            booked.add(book(slots.get(i), "CUST-A"));
+        }
+        book(slots.get(7), "CUST-B");
+        book(slots.get(8), "CUST-B");
+        book(slots.get(9), null);
+
+        // Act
+        List<ReservationDTO> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long before = null;
+        do {
+            ReservationPage page = reservationService.getCustomerReservations("CUST-A", before, 3);
+            seen.addAll(page.reservations());
+            pageSizes.add(page.reservations().size());
+            before = page.nextBefore();
+        } while (before != null);
+
+        // Assert
+        assertEquals(List.of(3, 3, 1), pageSizes);
+        assertEquals(booked.stream().sorted(Comparator.comparing(ReservationDTO::id).reversed()).toList(), seen);
+        assertTrue(seen.stream().allMatch(r -> "CUST-A".equals(r.customerId())));
+        assertEquals(2, reservationService.getCustomerReservations("CUST-B", null, 10).reservations().size());
+        assertTrue(reservationService.getCustomerReservations("CUST-C", null, 10).reservations().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should seek a customer's page through the customer index")
+    void customerPageQuery_UsesCustomerIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM reservations WHERE customer_id = 'CUST-A' AND id < 1000 ORDER BY id DESC",
+                String.class);
+
+        assertTrue(plan.toUpperCase().contains("IDX_RESERVATION_CUSTOMER"), plan);
+    }
+
+    @Test
+    @DisplayName("Should serve pages over HTTP and reject page sizes out of range")
+    void listEndpoint_ReturnsPageAndValidatesLimit() {
+        // Arrange
+        TimeSlotDTO slot = driveSlots(LocalDate.now().plusDays(5), 1).get(0);
+        ReservationDTO reservation = book(slot, "CUST-HTTP");
+
+        // Act
+        ResponseEntity<ReservationPage> page = restTemplate.getForEntity(
+                "/api/reservations?customerId=CUST-HTTP&limit=5", ReservationPage.class);
+        ResponseEntity<String> tooLarge = restTemplate.getForEntity(
+                "/api/reservations?customerId=CUST-HTTP&limit=1000", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(List.of(reservation), page.getBody().reservations());
+        assertNull(page.getBody().nextBefore());
+        assertEquals(HttpStatus.BAD_REQUEST, tooLarge.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject customer ids with spaces or over 64 characters")
+    void createEndpoint_InvalidCustomerId_ReturnsBadRequest() {
+        TimeSlotDTO slot = driveSlots(LocalDate.now().plusDays(6), 1).get(0);
+
+        for (String customerId : List.of("has space", "x".repeat(65))) {
+            ResponseEntity<String> response = restTemplate.postForEntity("/api/reservations",
+                    new ReservationRequest(DeliveryMethod.DRIVE, slot.date(), slot.id(), customerId), String.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), customerId);
+        }
+    }
+
+    private List<TimeSlotDTO> driveSlots(LocalDate from, int days) {
+        List<TimeSlotDTO> slots = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            slots.addAll(timeSlotService.getSlots(DeliveryMethod.DRIVE, from.plusDays(day)));
+        }
+        return slots;
+    }
+
+    private ReservationDTO book(TimeSlotDTO slot, String customerId) {
+        return reservationService.createReservation(
+                new ReservationRequest(slot.method(), slot.date(), slot.id(), customerId));
+    }
+}
@@ -0,0 +1,46 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the hot-path meters and their Prometheus export.
+ */
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:delivery-metrics")
+class DeliveryMetricsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should export slot query latency, rejections and Hibernate statements to Prometheus")
+    void prometheus_AfterRequests_ExportsDeliveryMeters() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        restTemplate.getForEntity("/api/time-slots?method=DRIVE&date=" + tomorrow, String.class);
+        restTemplate.getForEntity("/api/time-slots?method=DRIVE&date=" + tomorrow.minusDays(2), String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertNotNull(body);
+        assertTrue(body.contains("delivery_slots_query_seconds_bucket{method=\"DRIVE\""));
+        assertTrue(body.contains("delivery_slots_query_seconds_count{method=\"DRIVE\",} 2.0"));
+        assertTrue(body.contains("delivery_requests_rejected_total{reason=\"DATE_IN_PAST\",} 1.0"));
+        assertTrue(body.contains("delivery_reservations_booked_total{method=\"DRIVE\",}"));
+        assertTrue(body.contains("hibernate_statements_total"));
+    }
+}
@@ -0,0 +1,207 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyStore.
+ */
+class IdempotencyStoreTest {
+
+    private static final ReservationRequest REQUEST =
+            new ReservationRequest(DeliveryMethod.DRIVE, LocalDate.of(2030, 1, 15), 1L);
+    private static final String CLIENT = "client-a";
+
+    @Test
+    @DisplayName("Should run the work once and replay its result for a retry")
+    void execute_SameKey_ReplaysResult() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        Integer first = store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet);
+        Integer retry = store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(1, retry);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should keep the same key chosen by different clients apart")
+    void execute_SameKeyOtherClient_RunsAgain() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+        ReservationRequest other = new ReservationRequest(DeliveryMethod.DRIVE, LocalDate.of(2030, 1, 15), 2L);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        Integer first = store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet);
+        Integer second = store.execute("client-b", "key-1", other, calls::incrementAndGet);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void execute_SameKeyDifferentRequest_ThrowsException() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+        store.execute(CLIENT, "key-1", REQUEST, () -> 1);
+        ReservationRequest other = new ReservationRequest(DeliveryMethod.DRIVE, LocalDate.of(2030, 1, 15), 2L);
+
+        // Act & Assert
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> store.execute(CLIENT, "key-1", other, () -> 2));
+        assertEquals(InvalidRequestException.Reason.INVALID_IDEMPOTENCY_KEY, ex.getReason());
+    }
+
+    @Test
+    @DisplayName("Should reject blank and overlong keys")
+    void execute_MalformedKey_ThrowsException() {
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+
+        assertThrows(InvalidRequestException.class, () -> store.execute(CLIENT, " ", REQUEST, () -> 1));
+        assertThrows(InvalidRequestException.class,
+                () -> store.execute(CLIENT, "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), REQUEST, () -> 1));
+    }
+
+    @Test
+    @DisplayName("Should forget a failed attempt so it can be retried")
+    void execute_WorkFails_AllowsRetry() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> store.execute(CLIENT, "key-1", REQUEST, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        Integer retry = store.execute(CLIENT, "key-1", REQUEST, () -> 7);
+
+        // Assert
+        assertEquals(7, retry);
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should run concurrent duplicates once and give every caller the same result")
+    void execute_ConcurrentDuplicates_RunsOnce() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(4, 100, Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> store.execute(CLIENT, "key-1", REQUEST, () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            })));
+            started.await();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet)));
+            }
+            release.countDown();
+        }
+
+        // Assert
+        assertEquals(1, calls.get());
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest keys once a shard is full")
+    void execute_BeyondCapacity_EvictsOldest() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(1, 3, Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            store.execute(CLIENT, "key-" + i, REQUEST, calls::incrementAndGet);
+        }
+        store.execute(CLIENT, "key-4", REQUEST, calls::incrementAndGet);
+        store.execute(CLIENT, "key-0", REQUEST, calls::incrementAndGet);
+
+        // Assert
+        assertEquals(3, store.size());
+        assertEquals(6, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should not evict an attempt that is still running when a shard fills up")
+    void execute_FullShardWhileRunning_KeepsRunningAttempt() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(1, 1, Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> running = executor.submit(() -> store.execute(CLIENT, "key-1", REQUEST, () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            started.await();
+            store.execute(CLIENT, "key-2", REQUEST, () -> 0);
+            Future<Integer> retry = executor.submit(() -> store.execute(CLIENT, "key-1", REQUEST,
+                    calls::incrementAndGet));
+            release.countDown();
+
+            // Assert
+            assertEquals(1, running.get());
+            assertEquals(1, retry.get());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should forget keys once their time to live has passed")
+    void execute_Expired_RunsAgain() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(1, 100, Duration.ZERO);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet);
+        store.execute(CLIENT, "key-1", REQUEST, calls::incrementAndGet);
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
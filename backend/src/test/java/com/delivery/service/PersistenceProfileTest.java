@@ -0,0 +1,142 @@
+package com.delivery.service;
+
+import com.delivery.dto.SlotTemplateRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+import com.delivery.repository.SlotTemplateRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the migrated schema under the test profile,
+ * a file-backed H2 in PostgreSQL mode.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PersistenceProfileTest {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void databasePath(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("deliverydb")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SlotTemplateRepository slotTemplateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SlotTemplateService slotTemplateService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should build the schema from the Flyway migrations")
+    void startup_AppliesMigrations() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE success", Integer.class);
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'idx_reservation_slot_status'",
+                Integer.class);
+
+        assertTrue(applied >= 1);
+        assertEquals(1, indexes);
+    }
+
+    @Test
+    @DisplayName("Should give generated slots distinct ids from the time slot sequence")
+    void startup_SlotIdsFromSequence() {
+        Integer slots = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM time_slots", Integer.class);
+        Integer distinctIds = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM time_slots", Integer.class);
+        Long sequenceValue = jdbcTemplate.queryForObject("SELECT nextval('time_slots_seq')", Long.class);
+
+        assertTrue(slots > 0);
+        assertEquals(slots, distinctIds);
+        assertTrue(sequenceValue > jdbcTemplate.queryForObject("SELECT MAX(id) FROM time_slots", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should insert many entities with one sequence call and one JDBC batch")
+    void saveAll_SequenceIds_Batches() {
+        List<SlotTemplate> templates = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            templates.add(new SlotTemplate(DeliveryMethod.DRIVE, null,
+                    LocalTime.of(0, i), LocalTime.of(0, i + 1), 1, 999));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long insertsBefore = statistics.getEntityInsertCount();
+
+        transactionTemplate.executeWithoutResult(status -> slotTemplateRepository.saveAll(templates));
+
+        // At most one nextval for a fresh block of ids, then one batched INSERT rather than twenty
+        assertTrue(statistics.getPrepareStatementCount() - statementsBefore <= 2);
+        assertEquals(20, statistics.getEntityInsertCount() - insertsBefore);
+        assertTrue(templates.stream().allMatch(t -> t.getId() != null));
+    }
+
+    @Test
+    @DisplayName("Should number concurrent template replacements one after another")
+    void replaceTemplates_Concurrent_DistinctRevisions() throws Exception {
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> revisions = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                int capacity = i + 1;
+                revisions.add(executor.submit(() -> {
+                    start.await();
+                    SlotTemplateRequest request = new SlotTemplateRequest(List.of(
+                            new SlotTemplateRequest.Window(null, LocalTime.of(8, 0), LocalTime.of(20, 0), capacity)));
+                    return slotTemplateService.replaceTemplates(DeliveryMethod.DELIVERY_ASAP, request).get(0).revision();
+                }));
+            }
+            start.countDown();
+        }
+
+        Set<Long> distinct = new HashSet<>();
+        for (Future<Long> revision : revisions) {
+            distinct.add(revision.get());
+        }
+        assertEquals(writers, distinct.size());
+        assertEquals(Collections.max(distinct), slotTemplateRepository.findLatestRevision());
+        assertEquals(1, slotTemplateRepository.findAll().stream()
+                .filter(t -> t.getMethod() == DeliveryMethod.DELIVERY_ASAP)
+                .count());
+    }
+}
@@ -0,0 +1,162 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests hammering one slot with concurrent reservations under
+ * each {@link ReservationStrategy}. Every strategy must admit at most the
+ * slot's capacity; throughput is logged for comparison.
+ */
+class ReservationConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationConcurrencyTest.class);
+
+    private static final int CAPACITY = 10;
+    private static final int CALLERS = 200;
+
+    @Nested
+    @SpringBootTest
+    @TestPropertySource(properties = {
+            "delivery.reservations.strategy=IN_MEMORY",
+            "spring.datasource.url=jdbc:h2:mem:concurrency-in-memory",
+            "spring.jpa.show-sql=false"
+    })
+    class InMemory extends Scenario {
+    }
+
+    @Nested
+    @SpringBootTest
+    @TestPropertySource(properties = {
+            "delivery.reservations.strategy=OPTIMISTIC",
+            "spring.datasource.url=jdbc:h2:mem:concurrency-optimistic",
+            "spring.jpa.show-sql=false"
+    })
+    class Optimistic extends Scenario {
+    }
+
+    @Nested
+    @SpringBootTest
+    @TestPropertySource(properties = {
+            "delivery.reservations.strategy=PESSIMISTIC",
+            "spring.datasource.url=jdbc:h2:mem:concurrency-pessimistic",
+            "spring.jpa.show-sql=false"
+    })
+    class Pessimistic extends Scenario {
+    }
+
+    @Nested
+    @SpringBootTest
+    @TestPropertySource(properties = {
+            "delivery.reservations.strategy=CONDITIONAL_UPDATE",
+            "spring.datasource.url=jdbc:h2:mem:concurrency-conditional",
+            "spring.jpa.show-sql=false"
+    })
+    class ConditionalUpdate extends Scenario {
+    }
+
+    @RecordApplicationEvents
+    abstract static class Scenario {
+
+        @Autowired
+        private ReservationService reservationService;
+
+        @Autowired
+        private TimeSlotRepository timeSlotRepository;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private ApplicationEvents events;
+
+        @Test
+        @DisplayName("Should never admit more reservations than the slot capacity")
+        void createReservation_Concurrent_NoOversell() throws Exception {
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            TimeSlot slot = timeSlotRepository
+                    .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow).get(0);
+            jdbcTemplate.update("UPDATE time_slots SET capacity = ?, remaining = ? WHERE id = ?",
+                    CAPACITY, CAPACITY, slot.getId());
+            ReservationRequest request = new ReservationRequest(DeliveryMethod.DRIVE, tomorrow, slot.getId());
+
+            AtomicInteger admitted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            long started;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CALLERS; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            reservationService.createReservation(request);
+                            admitted.incrementAndGet();
+                        } catch (RuntimeException rejected) {
+                            // Full, busy or lock timeout: all count as rejections
+                        }
+                        return null;
+                    }));
+                }
+                started = System.nanoTime();
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            long elapsedMicros = (System.nanoTime() - started) / 1_000;
+
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM reservations WHERE time_slot_id = ?", Integer.class, slot.getId());
+            log.info("{}: {} of {} callers admitted in {} us, oversell {}",
+                    getClass().getSimpleName(), admitted.get(), CALLERS, elapsedMicros,
+                    Math.max(0, rows - CAPACITY));
+
+            assertTrue(admitted.get() > 0);
+            assertTrue(admitted.get() <= CAPACITY);
+            assertEquals(admitted.get(), rows);
+        }
+
+        @Test
+        @DisplayName("Should publish the count a cancellation leaves behind")
+        void cancelReservation_PublishesReleasedCount() {
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            TimeSlot slot = timeSlotRepository
+                    .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, tomorrow).get(0);
+            Long id = reservationService.createReservation(
+                    new ReservationRequest(DeliveryMethod.DELIVERY, tomorrow, slot.getId())).id();
+            events.clear();
+
+            reservationService.cancelReservation(id);
+
+            List<SlotAvailabilityChangedEvent> published = events.stream(SlotAvailabilityChangedEvent.class)
+                    .filter(e -> e.slotId().equals(slot.getId()))
+                    .toList();
+            assertEquals(1, published.size());
+            assertEquals(slot.getCapacity(), published.get(0).remaining());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationRequest;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.Reservation;
+import com.delivery.repository.ReservationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the statements Hibernate issues to read reservations,
+ * counted through its statistics against embedded H2.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-fetch-plan",
+        // Keep background jobs from adding statements while one is being counted
+        "delivery.slots.templates.reload-interval-ms=3600000",
+        "delivery.inventory.write-back-interval-ms=3600000"
+})
+class ReservationFetchPlanTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should list a customer's reservations in one statement however many there are")
+    void getCustomerReservations_AnySize_OneStatement() {
+        // Arrange: one customer with 3 reservations, another with 12 spread over several days
+        List<TimeSlotDTO> slots = driveSlots(LocalDate.now().plusDays(1), 4);
+        for (int i = 0; i < 15; i++) {
+            book(slots.get(i), i < 3 ? "FEW" : "MANY");
+        }
+
+        // Act
+        long fewStatements = statementsFor(() -> reservationService.getCustomerReservations("FEW", null, 50));
+        long manyStatements = statementsFor(() -> reservationService.getCustomerReservations("MANY", null, 50));
+        long entitiesBefore = statistics.getEntityLoadCount();
+        int listed = reservationService.getCustomerReservations("MANY", null, 50).reservations().size();
+
+        // Assert
+        assertEquals(12, listed);
+        assertEquals(1, fewStatements);
+        assertEquals(1, manyStatements);
+        assertEquals(entitiesBefore, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should read one reservation into its DTO in one statement without loading entities")
+    void getReservation_OneStatement() {
+        // Arrange
+        ReservationDTO booked = book(driveSlots(LocalDate.now().plusDays(5), 1).get(0), "ONE");
+        long entitiesBefore = statistics.getEntityLoadCount();
+
+        // Act
+        long statements = statementsFor(() -> assertEquals(booked, reservationService.getReservation(booked.id())));
+
+        // Assert
+        assertEquals(1, statements);
+        assertEquals(entitiesBefore, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should leave the slot unloaded by default and join it in under the entity graph")
+    void loadReservation_SlotLazyUnlessGraphRequested() {
+        // Arrange
+        ReservationDTO booked = book(driveSlots(LocalDate.now().plusDays(6), 1).get(0), null);
+
+        // Act
+        List<Reservation> plain = new ArrayList<>();
+        List<Reservation> withSlot = new ArrayList<>();
+        long plainStatements = statementsFor(() -> transactionTemplate.executeWithoutResult(
+                status -> plain.add(reservationRepository.findById(booked.id()).orElseThrow())));
+        long graphStatements = statementsFor(() -> transactionTemplate.executeWithoutResult(
+                status -> withSlot.add(reservationRepository.findWithTimeSlotById(booked.id()).orElseThrow())));
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(plain.get(0).getTimeSlot()));
+        assertTrue(Hibernate.isInitialized(withSlot.get(0).getTimeSlot()));
+        assertEquals(booked.startTime(), withSlot.get(0).getTimeSlot().getStartTime());
+        assertEquals(1, plainStatements);
+        assertEquals(1, graphStatements);
+    }
+
+    private long statementsFor(Runnable work) {
+        long before = statistics.getPrepareStatementCount();
+        work.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private List<TimeSlotDTO> driveSlots(LocalDate from, int days) {
+        List<TimeSlotDTO> slots = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            slots.addAll(timeSlotService.getSlots(DeliveryMethod.DRIVE, from.plusDays(day)));
+        }
+        return slots;
+    }
+
+    private ReservationDTO book(TimeSlotDTO slot, String customerId) {
+        return reservationService.createReservation(
+                new ReservationRequest(slot.method(), slot.date(), slot.id(), customerId));
+    }
+}
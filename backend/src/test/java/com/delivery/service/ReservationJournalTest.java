@@ -0,0 +1,126 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReservationJournal against a temporary file.
+ */
+class ReservationJournalTest {
+
+    private static final long EXPIRY = 4_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should make appended entries readable once durable")
+    void append_ThenRead_ReturnsEntries() throws Exception {
+        try (ReservationJournal journal = ReservationJournal.open(dir.resolve("j"), 16)) {
+            assertEquals(0, journal.append(100L, 1L, EXPIRY, null));
+            assertEquals(1, journal.append(101L, 2L, EXPIRY, "CUST-001"));
+
+            assertEquals(2, journal.durablePosition());
+            assertEquals(List.of(
+                    new ReservationJournal.Entry(0, 100L, 1L, EXPIRY, null),
+                    new ReservationJournal.Entry(1, 101L, 2L, EXPIRY, "CUST-001")
+            ), journal.read(0, 10));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(102L, 1L, EXPIRY, "x".repeat(65)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover entries past the checkpoint after reopening")
+    void reopen_RecoversUncheckpointedEntries() throws Exception {
+        Path file = dir.resolve("j");
+        try (ReservationJournal journal = ReservationJournal.open(file, 16)) {
+            journal.append(100L, 1L, EXPIRY, null);
+            journal.append(101L, 1L, EXPIRY, null);
+            journal.append(102L, 2L, EXPIRY, null);
+            journal.checkpoint(1);
+        }
+
+        try (ReservationJournal journal = ReservationJournal.open(file, 16)) {
+            assertEquals(1, journal.checkpoint());
+            assertEquals(3, journal.durablePosition());
+            assertEquals(List.of(101L, 102L), journal.read(journal.checkpoint(), 10).stream()
+                    .map(ReservationJournal.Entry::reservationId)
+                    .toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop recovery at a torn entry")
+    void reopen_TornEntry_StopsBeforeIt() throws Exception {
+        Path file = dir.resolve("j");
+        try (ReservationJournal journal = ReservationJournal.open(file, 16)) {
+            journal.append(100L, 1L, EXPIRY, null);
+            journal.append(101L, 1L, EXPIRY, null);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(ReservationJournal.HEADER_BYTES + ReservationJournal.RECORD_BYTES + 8);
+            raf.writeLong(999L);
+        }
+
+        try (ReservationJournal journal = ReservationJournal.open(file, 16)) {
+            assertEquals(1, journal.durablePosition());
+            assertEquals(2, journal.append(102L, 1L, EXPIRY, null) + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse checkpointed space when the ring wraps")
+    void append_AfterCheckpoint_WrapsAround() throws Exception {
+        Path file = dir.resolve("j");
+        try (ReservationJournal journal = ReservationJournal.open(file, 4)) {
+            for (long id = 0; id < 4; id++) {
+                journal.append(id, 1L, EXPIRY, null);
+            }
+            journal.checkpoint(3);
+            journal.append(4L, 1L, EXPIRY, null);
+            journal.append(5L, 1L, EXPIRY, null);
+            journal.append(6L, 1L, EXPIRY, null);
+        }
+
+        try (ReservationJournal journal = ReservationJournal.open(file, 4)) {
+            assertEquals(List.of(3L, 4L, 5L, 6L), journal.read(journal.checkpoint(), 10).stream()
+                    .map(ReservationJournal.Entry::reservationId)
+                    .toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a capacity whose ring does not fit one mapping")
+    void open_CapacityTooLarge_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReservationJournal.open(dir.resolve("j"), ReservationJournal.MAX_CAPACITY + 1));
+        assertThrows(IllegalArgumentException.class, () -> ReservationJournal.open(dir.resolve("j"), 0));
+    }
+
+    @Test
+    @DisplayName("Should give concurrent appenders distinct durable positions")
+    void append_Concurrent_AllDurable() throws Exception {
+        Set<Long> positions = ConcurrentHashMap.newKeySet();
+        try (ReservationJournal journal = ReservationJournal.open(dir.resolve("j"), 1024)) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 500; i++) {
+                    long id = i;
+                    executor.submit(() -> positions.add(journal.append(id, 1L, EXPIRY, null)));
+                }
+            }
+            assertEquals(500, positions.size());
+            assertEquals(500, journal.durablePosition());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.delivery.service;
+
+import com.delivery.config.ClusterProperties;
+import com.delivery.config.ReservationJournalProperties;
+import com.delivery.config.ReservationProperties;
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.TimeSlotRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for journaled reservations against embedded H2.
+ */
+@SpringBootTest(properties = {
+        "delivery.reservations.journal.enabled=true",
+        "delivery.reservations.journal.drain-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:reservation-journal"
+})
+class ReservationJournalWriterTest {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void journalPath(DynamicPropertyRegistry registry) {
+        registry.add("delivery.reservations.journal.path", () -> dir.resolve("reservations.journal").toString());
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationJournalWriter journalWriter;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationProperties reservationProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClusterProperties clusterProperties;
+
+    @Test
+    @DisplayName("Should acknowledge from the journal and persist on drain")
+    void createReservation_Journaled_PersistedOnDrain() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        TimeSlot slot = timeSlotRepository
+                .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow).get(0);
+
+        ReservationDTO created = reservationService.createReservation(
+                new ReservationRequest(DeliveryMethod.DRIVE, tomorrow, slot.getId(), "CUST-001"));
+
+        assertEquals(1, journalWriter.backlog());
+        assertEquals(slot.getId(), reservationService.getReservation(created.id()).slotId());
+        assertEquals("CUST-001", reservationService.getReservation(created.id()).customerId());
+        assertEquals(0, countReservations(created.id()));
+
+        assertEquals(1, journalWriter.drain());
+
+        assertEquals(0, journalWriter.backlog());
+        assertEquals(1, countReservations(created.id()));
+        assertEquals(slot.getId(), reservationService.getReservation(created.id()).slotId());
+        assertEquals("CUST-001", reservationService.getReservation(created.id()).customerId());
+    }
+
+    @Test
+    @DisplayName("Should not collide with ids assigned by JPA inserts")
+    void createReservation_JournaledAndBatch_DistinctIds() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<TimeSlot> slots = timeSlotRepository
+                .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, tomorrow);
+
+        ReservationDTO journaled = reservationService.createReservation(
+                new ReservationRequest(DeliveryMethod.DELIVERY, tomorrow, slots.get(0).getId()));
+        Long batched = reservationService.createReservations(List.of(
+                new ReservationRequest(DeliveryMethod.DELIVERY, tomorrow, slots.get(1).getId())
+        )).results().get(0).reservation().id();
+        journalWriter.drain();
+
+        assertNotEquals(journaled.id(), batched);
+        assertEquals(1, countReservations(journaled.id()));
+        assertEquals(1, countReservations(batched));
+    }
+
+    @Test
+    @DisplayName("Should start with the backlog pending when the database refuses the replay")
+    void replay_DatabaseUnreachable_StartsWithBacklog() throws Exception {
+        Path file = dir.resolve("unreachable.journal");
+        try (ReservationJournal journal = ReservationJournal.open(file, 16)) {
+            journal.append(900_001L, 7L, 4_000_000_000L, null);
+            journal.append(900_002L, 7L, 4_000_000_000L, "CUST-002");
+            journal.append(900_003L, 8L, 4_000_000_000L, null);
+        }
+        JdbcTemplate unreachable = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/nowhere"));
+
+        ReservationJournalWriter writer = new ReservationJournalWriter(
+                new ReservationJournalProperties(true, file, 16, 100, 1),
+                reservationProperties, clusterProperties, unreachable, entityManagerFactory);
+
+        try {
+            assertEquals(3, writer.backlog());
+            assertEquals("CUST-002", writer.pendingReservation(900_002L).customerId());
+            assertEquals(5, writer.reservedWithPending(7L, () -> 3));
+            assertEquals(0, writer.drain());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to start in clustered mode")
+    void construct_Clustered_ThrowsException() {
+        ClusterProperties clustered = new ClusterProperties(true, "http://localhost:8080", List.of(), 64,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), "secret");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ReservationJournalWriter(
+                        new ReservationJournalProperties(true, dir.resolve("clustered.journal"), 16, 100, 1),
+                        reservationProperties, clustered, jdbcTemplate, entityManagerFactory));
+        assertEquals("The reservation journal cannot be used in clustered mode", exception.getMessage());
+    }
+
+    private int countReservations(Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations WHERE id = ?", Integer.class, id);
+    }
+}
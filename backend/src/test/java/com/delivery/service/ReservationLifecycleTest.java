@@ -0,0 +1,114 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationDTO;
+import com.delivery.dto.ReservationRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+import com.delivery.entity.TimeSlot;
+import com.delivery.exception.InvalidReservationStateException;
+import com.delivery.repository.TimeSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for holds, confirmation, cancellation and expiry against embedded H2.
+ */
+@SpringBootTest(properties = {
+        "delivery.reservations.hold-ttl=1s",
+        "delivery.reservations.hold-tick-ms=50",
+        "spring.datasource.url=jdbc:h2:mem:reservation-lifecycle"
+})
+class ReservationLifecycleTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Should turn a hold into a booking on confirm")
+    void confirm_Hold_BecomesConfirmed() {
+        ReservationDTO hold = reserve(0);
+
+        ReservationDTO confirmed = reservationService.confirmReservation(hold.id());
+
+        assertEquals(ReservationStatus.HELD, hold.status());
+        assertEquals(ReservationStatus.CONFIRMED, confirmed.status());
+        assertNull(confirmed.expiresAt());
+        assertThrows(InvalidReservationStateException.class,
+                () -> reservationService.confirmReservation(hold.id()));
+    }
+
+    @Test
+    @DisplayName("Should free the slot when a booking is cancelled")
+    void cancel_Confirmed_FreesSlot() {
+        ReservationDTO hold = reserve(1);
+        reservationService.confirmReservation(hold.id());
+        assertEquals(0, remaining(hold.slotId()));
+
+        ReservationDTO cancelled = reservationService.cancelReservation(hold.id());
+
+        assertEquals(ReservationStatus.CANCELLED, cancelled.status());
+        assertEquals(1, remaining(hold.slotId()));
+        assertThrows(InvalidReservationStateException.class,
+                () -> reservationService.cancelReservation(hold.id()));
+    }
+
+    @Test
+    @DisplayName("Should expire an unconfirmed hold and free its slot")
+    void hold_NotConfirmed_ExpiresAndFreesSlot() throws Exception {
+        ReservationDTO hold = reserve(2);
+        assertEquals(0, remaining(hold.slotId()));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"EXPIRED".equals(status(hold.id())) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals("EXPIRED", status(hold.id()));
+        assertEquals(1, remaining(hold.slotId()));
+        assertThrows(InvalidReservationStateException.class,
+                () -> reservationService.confirmReservation(hold.id()));
+    }
+
+    private ReservationDTO reserve(int slotIndex) {
+        TimeSlot slot = timeSlotRepository
+                .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow).get(slotIndex);
+        return reservationService.createReservation(
+                new ReservationRequest(DeliveryMethod.DRIVE, tomorrow, slot.getId()));
+    }
+
+    private int remaining(Long slotId) {
+        return timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow).stream()
+                .filter(s -> s.id().equals(slotId))
+                .findFirst()
+                .orElseThrow()
+                .remaining();
+    }
+
+    private String status(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM reservations WHERE id = ?", String.class, id);
+    }
+}
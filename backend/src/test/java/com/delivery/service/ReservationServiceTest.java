@@ -1,30 +1,41 @@
 package com.delivery.service;
 
+import com.delivery.config.ReservationProperties;
+import com.delivery.dto.BatchReservationResponse;
 import com.delivery.dto.ReservationDTO;
 import com.delivery.dto.ReservationRequest;
 import com.delivery.entity.DeliveryMethod;
 import com.delivery.entity.Reservation;
+import com.delivery.entity.ReservationStatus;
 
 import com.delivery.entity.TimeSlot;
 import com.delivery.exception.InvalidRequestException;
+import com.delivery.exception.InvalidReservationStateException;
+import com.delivery.exception.SlotUnavailableException;
 
 import com.delivery.repository.ReservationRepository;
 import com.delivery.repository.TimeSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
-
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -42,7 +53,14 @@ class ReservationServiceTest {
     @Mock
     private TimeSlotService timeSlotService;
 
-    @InjectMocks
+    @Mock
+    private SlotCapacityGuard capacityGuard;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private ReservationService reservationService;
 
     private LocalDate today;
@@ -59,6 +77,14 @@ class ReservationServiceTest {
 
 
         validRequest = new ReservationRequest(DeliveryMethod.DRIVE, today, 1L);
+
+        meterRegistry = new SimpleMeterRegistry();
+        ReservationProperties properties = new ReservationProperties(
+                ReservationStrategy.IN_MEMORY, 3, Duration.ofMillis(1), 16, Duration.ofMillis(100), Duration.ofMinutes(10));
+        reservationService = new ReservationService(
+                reservationRepository, timeSlotRepository, timeSlotService, capacityGuard, eventPublisher,
+                TransactionOperations.withoutTransaction(), properties, new SlotLockManager(properties),
+                Optional.empty(), new DeliveryMetrics(meterRegistry));
     }
 
     @Test
@@ -67,6 +93,7 @@ class ReservationServiceTest {
         // Arrange
         doNothing().when(timeSlotService).validateMethodAndDate(any(), any());
         when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(availableSlot));
+        when(capacityGuard.tryAcquire(availableSlot)).thenReturn(0);
         when(reservationRepository.save(any())).thenAnswer(invocation -> {
             Reservation r = invocation.getArgument(0);
             r.setId(100L);
@@ -83,8 +110,72 @@ class ReservationServiceTest {
         assertEquals(DeliveryMethod.DRIVE, result.method());
         
         verify(reservationRepository).save(any());
+        verify(eventPublisher).publishEvent(any(SlotAvailabilityChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject reservation when slot is fully booked")
+    void createReservation_SlotFull_ThrowsException() {
+        // Arrange
+        doNothing().when(timeSlotService).validateMethodAndDate(any(), any());
+        when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(availableSlot));
+        when(capacityGuard.tryAcquire(availableSlot)).thenReturn(SlotCapacityGuard.FULL);
+
+        // Act & Assert
+        assertThrows(
+                SlotUnavailableException.class,
+                () -> reservationService.createReservation(validRequest)
+        );
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should retry on optimistic locking conflict and give up after max attempts")
+    void createReservation_OptimisticConflict_RetriesThenRejects() {
+        // Arrange
+        doNothing().when(timeSlotService).validateMethodAndDate(any(), any());
+        when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(availableSlot));
+        when(capacityGuard.tryAcquire(availableSlot))
+                .thenThrow(new ObjectOptimisticLockingFailureException(TimeSlot.class, 1L));
+
+        // Act & Assert
+        SlotUnavailableException exception = assertThrows(
+                SlotUnavailableException.class,
+                () -> reservationService.createReservation(validRequest)
+        );
+        assertEquals("Time slot is busy, please retry", exception.getMessage());
+        verify(capacityGuard, times(3)).tryAcquire(availableSlot);
+        verify(reservationRepository, never()).save(any());
+        assertEquals(2, meterRegistry.counter("delivery.reservations.retries").count());
+        assertEquals(1, meterRegistry.counter("delivery.reservations.retries.exhausted").count());
+        assertEquals(1, meterRegistry.timer("delivery.reservations.create", "outcome", "failure").count());
     }
 
+    @Test
+    @DisplayName("Should succeed when a retry follows an optimistic locking conflict")
+    void createReservation_OptimisticConflictThenSuccess_Reserves() {
+        // Arrange
+        doNothing().when(timeSlotService).validateMethodAndDate(any(), any());
+        when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(availableSlot));
+        when(capacityGuard.tryAcquire(availableSlot))
+                .thenThrow(new ObjectOptimisticLockingFailureException(TimeSlot.class, 1L))
+                .thenReturn(0);
+        when(reservationRepository.save(any())).thenAnswer(invocation -> {
+            Reservation r = invocation.getArgument(0);
+            r.setId(100L);
+            return r;
+        });
+
+        // Act
+        ReservationDTO result = reservationService.createReservation(validRequest);
+
+        // Assert
+        assertEquals(1L, result.slotId());
+        verify(capacityGuard, times(2)).tryAcquire(availableSlot);
+        assertEquals(1, meterRegistry.counter("delivery.reservations.retries").count());
+        assertEquals(1, meterRegistry.counter("delivery.reservations.booked", "method", "DRIVE").count());
+        assertEquals(1, meterRegistry.timer("delivery.reservations.create", "outcome", "success").count());
+    }
 
 
     @Test
@@ -120,13 +211,144 @@ class ReservationServiceTest {
         assertTrue(exception.getMessage().contains("does not match"));
     }
 
+    @Test
+    @DisplayName("Should book valid batch items and report failures per item")
+    void createReservations_MixedBatch_PartialSuccess() {
+        // Arrange
+        TimeSlot fullSlot = new TimeSlot(DeliveryMethod.DRIVE, today, LocalTime.of(11, 0), LocalTime.of(13, 0));
+        fullSlot.setId(2L);
+        LocalDate yesterday = today.minusDays(1);
+        doNothing().when(timeSlotService).validateMethodAndDate(DeliveryMethod.DRIVE, today);
+        doThrow(new InvalidRequestException(InvalidRequestException.Reason.DATE_IN_PAST, "Date cannot be in the past"))
+                .when(timeSlotService).validateMethodAndDate(DeliveryMethod.DRIVE, yesterday);
+        when(timeSlotRepository.findAllById(any())).thenReturn(List.of(availableSlot, fullSlot));
+        when(capacityGuard.tryAcquire(availableSlot)).thenReturn(0);
+        when(capacityGuard.tryAcquire(fullSlot)).thenReturn(SlotCapacityGuard.FULL);
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<Reservation> saved = invocation.getArgument(0);
+            saved.forEach(r -> r.setId(100L));
+            return List.of();
+        });
+
+        List<ReservationRequest> requests = List.of(
+                validRequest,
+                new ReservationRequest(DeliveryMethod.DRIVE, today, 2L),
+                new ReservationRequest(DeliveryMethod.DRIVE, yesterday, 1L),
+                new ReservationRequest(DeliveryMethod.DRIVE, today, 99L),
+                new ReservationRequest(DeliveryMethod.DRIVE, yesterday, 2L)
+        );
+
+        // Act
+        BatchReservationResponse response = reservationService.createReservations(requests);
+
+        // Assert
+        assertEquals(1, response.succeeded());
+        assertEquals(4, response.failed());
+        assertEquals(1L, response.results().get(0).reservation().slotId());
+        assertTrue(response.results().get(1).error().contains("fully booked"));
+        assertEquals("Date cannot be in the past", response.results().get(2).error());
+        assertTrue(response.results().get(3).error().contains("Time slot not found"));
+        verify(timeSlotService, times(1)).validateMethodAndDate(DeliveryMethod.DRIVE, yesterday);
+        verify(timeSlotRepository, times(1)).findAllById(any());
+        verify(reservationRepository).flush();
+    }
+
+    @Test
+    @DisplayName("Should create new reservations as holds with a deadline")
+    void createReservation_ValidRequest_CreatesHold() {
+        // Arrange
+        doNothing().when(timeSlotService).validateMethodAndDate(any(), any());
+        when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(availableSlot));
+        when(capacityGuard.tryAcquire(availableSlot)).thenReturn(0);
+        when(reservationRepository.save(any())).thenAnswer(invocation -> {
+            Reservation r = invocation.getArgument(0);
+            r.setId(100L);
+            return r;
+        });
+
+        // Act
+        ReservationDTO result = reservationService.createReservation(validRequest);
+
+        // Assert
+        assertEquals(ReservationStatus.HELD, result.status());
+        assertTrue(result.expiresAt().isAfter(Instant.now().plusSeconds(500)));
+        verify(eventPublisher).publishEvent(any(ReservationHeldEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should confirm a hold that has not lapsed")
+    void confirmReservation_Held_Confirms() {
+        // Arrange
+        ReservationDTO confirmed = new ReservationDTO(100L, availableSlot.getId(), availableSlot.getMethod(),
+                availableSlot.getDate(), availableSlot.getStartTime(), availableSlot.getEndTime(),
+                ReservationStatus.CONFIRMED, null, null);
+        when(reservationRepository.confirmHold(eq(100L), any())).thenReturn(1);
+        when(reservationRepository.findDTOById(100L)).thenReturn(Optional.of(confirmed));
+
+        // Act
+        ReservationDTO result = reservationService.confirmReservation(100L);
+
+        // Assert
+        assertEquals(ReservationStatus.CONFIRMED, result.status());
+        verify(capacityGuard, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Should reject confirming a reservation that is no longer held")
+    void confirmReservation_Expired_ThrowsException() {
+        // Arrange
+        Reservation expired = new Reservation(availableSlot);
+        expired.setId(100L);
+        expired.setStatus(ReservationStatus.EXPIRED);
+        when(reservationRepository.confirmHold(eq(100L), any())).thenReturn(0);
+        when(reservationRepository.findById(100L)).thenReturn(Optional.of(expired));
+
+        // Act & Assert
+        InvalidReservationStateException exception = assertThrows(
+                InvalidReservationStateException.class,
+                () -> reservationService.confirmReservation(100L)
+        );
+        assertEquals("Reservation 100 is EXPIRED and cannot be confirmed", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should give capacity back when a reservation is cancelled")
+    void cancelReservation_Active_ReleasesCapacity() {
+        // Arrange
+        Reservation cancelled = new Reservation(availableSlot);
+        cancelled.setId(100L);
+        cancelled.setStatus(ReservationStatus.CANCELLED);
+        when(reservationRepository.cancel(100L)).thenReturn(1);
+        when(reservationRepository.findWithTimeSlotById(100L)).thenReturn(Optional.of(cancelled));
+
+        // Act
+        ReservationDTO result = reservationService.cancelReservation(100L);
+
+        // Assert
+        assertEquals(ReservationStatus.CANCELLED, result.status());
+        verify(capacityGuard).release(availableSlot);
+        verify(eventPublisher).publishEvent(any(SlotAvailabilityChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should leave a hold alone when it was confirmed before expiry ran")
+    void expireHold_AlreadyConfirmed_DoesNothing() {
+        // Arrange
+        when(reservationRepository.expireHold(eq(100L), any())).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(reservationService.expireHold(100L));
+        verify(capacityGuard, never()).release(any());
+    }
+
     @Test
     @DisplayName("Should get reservation by ID")
     void getReservation_ValidId_ReturnsReservation() {
         // Arrange
-        Reservation reservation = new Reservation(availableSlot);
-        reservation.setId(100L);
-        when(reservationRepository.findById(100L)).thenReturn(Optional.of(reservation));
+        ReservationDTO reservation = new ReservationDTO(100L, availableSlot.getId(), availableSlot.getMethod(),
+                availableSlot.getDate(), availableSlot.getStartTime(), availableSlot.getEndTime(),
+                ReservationStatus.HELD, null, null);
+        when(reservationRepository.findDTOById(100L)).thenReturn(Optional.of(reservation));
 
         // Act
         ReservationDTO result = reservationService.getReservation(100L);
@@ -139,7 +361,7 @@ class ReservationServiceTest {
     @DisplayName("Should throw exception when reservation not found")
     void getReservation_NotFound_ThrowsException() {
         // Arrange
-        when(reservationRepository.findById(999L)).thenReturn(Optional.empty());
+        when(reservationRepository.findDTOById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
@@ -0,0 +1,99 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Should run concurrent calls for one key once and share the result")
+    void execute_ConcurrentSameKey_RunsOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+            while (runs.get() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < 99; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> runs.incrementAndGet())));
+            }
+            while (singleFlight.coalesced() < 99) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get());
+            }
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should propagate the leader's exception to every waiter")
+    void execute_Failure_SharedWithWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            await(started);
+            Future<Integer> waiter = executor.submit(() -> singleFlight.execute("key", () -> -1));
+            while (singleFlight.coalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, leader::get);
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            Exception waiterFailure = assertThrows(Exception.class, waiter::get);
+            assertInstanceOf(IllegalStateException.class, waiterFailure.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Should run the work again once the previous call has finished")
+    void execute_Sequential_RunsEachTime() {
+        AtomicInteger runs = new AtomicInteger();
+
+        singleFlight.execute("key", runs::incrementAndGet);
+        singleFlight.execute("key", runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
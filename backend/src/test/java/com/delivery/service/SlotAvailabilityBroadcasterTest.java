@@ -0,0 +1,239 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlotAvailabilityBroadcaster.
+ */
+class SlotAvailabilityBroadcasterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private SlotAvailabilityBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SlotAvailabilityBroadcaster(4, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should send the snapshot first and then deltas for the subscribed day")
+    void onAvailabilityChanged_MatchingDay_Delivered() throws Exception {
+        // Arrange
+        RecordingSender sender = new RecordingSender();
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, List::of, sender);
+        SlotAvailabilityChangedEvent event = changed(DeliveryMethod.DRIVE, DATE, 3);
+
+        // Act
+        broadcaster.onAvailabilityChanged(changed(DeliveryMethod.DELIVERY, DATE, 7));
+        broadcaster.onAvailabilityChanged(changed(DeliveryMethod.DRIVE, DATE.plusDays(1), 7));
+        broadcaster.onAvailabilityChanged(event);
+
+        // Assert
+        assertEquals(SlotAvailabilityBroadcaster.SNAPSHOT_EVENT, sender.next());
+        assertEquals(SlotAvailabilityBroadcaster.AVAILABILITY_EVENT, sender.next());
+        assertSame(event, sender.lastData);
+        assertNull(sender.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should send a change made while the snapshot was taken after the snapshot")
+    void register_ChangeDuringSnapshot_DeliveredAfterSnapshot() throws Exception {
+        // Arrange
+        RecordingSender sender = new RecordingSender();
+        SlotAvailabilityChangedEvent event = changed(DeliveryMethod.DRIVE, DATE, 3);
+
+        // Act
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, () -> {
+            broadcaster.onAvailabilityChanged(event);
+            return List.of();
+        }, sender);
+
+        // Assert
+        assertEquals(SlotAvailabilityBroadcaster.SNAPSHOT_EVENT, sender.next());
+        assertEquals(SlotAvailabilityBroadcaster.AVAILABILITY_EVENT, sender.next());
+        assertSame(event, sender.lastData);
+    }
+
+    @Test
+    @DisplayName("Should unregister a subscriber whose snapshot could not be taken")
+    void register_SnapshotFails_Unregisters() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> broadcaster.register(DeliveryMethod.DRIVE, DATE, () -> {
+            throw new IllegalStateException("Database unavailable");
+        }, new RecordingSender()));
+
+        // Assert
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber whose buffer overflows without blocking others")
+    void onAvailabilityChanged_SlowSubscriber_Dropped() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSender slow = new RecordingSender() {
+            @Override
+            public void send(String name, Object data) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSender fast = new RecordingSender();
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, List::of, slow);
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, List::of, fast);
+        assertEquals(2, broadcaster.subscriberCount());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            broadcaster.onAvailabilityChanged(changed(DeliveryMethod.DRIVE, DATE, i));
+            assertNotNull(fast.events.poll(5, TimeUnit.SECONDS));
+        }
+        release.countDown();
+
+        // Assert
+        assertTrue(slow.awaitClosed());
+        assertEquals(1, broadcaster.droppedCount());
+        assertEquals(1, broadcaster.subscriberCount());
+        assertFalse(fast.closed.get());
+    }
+
+    @Test
+    @DisplayName("Should keep publishing without waiting while a dropped subscriber's write is stuck")
+    void onAvailabilityChanged_WriteStuck_PublisherDoesNotBlock() throws Exception {
+        // Arrange: like SseEmitter, send and close share a monitor, and the stuck write ignores interrupts
+        Object monitor = new Object();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSender stuck = new RecordingSender() {
+            @Override
+            public void send(String name, Object data) {
+                synchronized (monitor) {
+                    writing.countDown();
+                    awaitUninterruptibly(release);
+                }
+            }
+
+            @Override
+            public void close() {
+                synchronized (monitor) {
+                    super.close();
+                }
+            }
+        };
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, List::of, stuck);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // Act: overflow the buffer while the snapshot write is stuck
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 10; i++) {
+                broadcaster.onAvailabilityChanged(changed(DeliveryMethod.DRIVE, DATE, i));
+            }
+        });
+
+        // Assert: dropped at once, and closed by its own thread once the write returns
+        assertEquals(1, broadcaster.droppedCount());
+        assertEquals(0, broadcaster.subscriberCount());
+        assertFalse(stuck.closed.get());
+        release.countDown();
+        assertTrue(stuck.awaitClosed());
+    }
+
+    @Test
+    @DisplayName("Should unregister a subscriber whose connection fails")
+    void send_Failure_Unregisters() throws Exception {
+        // Arrange
+        CountDownLatch failed = new CountDownLatch(1);
+        RecordingSender broken = new RecordingSender() {
+            @Override
+            public void send(String name, Object data) throws IOException {
+                failed.countDown();
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act
+        broadcaster.register(DeliveryMethod.DRIVE, DATE, List::of, broken);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (broadcaster.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(0, broadcaster.droppedCount());
+    }
+
+    private static SlotAvailabilityChangedEvent changed(DeliveryMethod method, LocalDate date, int remaining) {
+        return new SlotAvailabilityChangedEvent(1L, method, date, LocalTime.of(9, 0), remaining);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSender implements SlotAvailabilityBroadcaster.Sender {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile Object lastData;
+
+        @Override
+        public void send(String name, Object data) throws IOException {
+            lastData = data;
+            events.add(name);
+        }
+
+        @Override
+        public void heartbeat() {
+            events.add("heartbeat");
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+        boolean awaitClosed() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!closed.get() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return closed.get();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.delivery.service;
+
+import com.delivery.dto.ReservationRequest;
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the live availability stream endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:slot-stream")
+class SlotAvailabilityStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    @DisplayName("Should push a snapshot and then the new remaining count after a booking")
+    void stream_Booking_PushesAvailability() throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        TimeSlotDTO slot = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow).get(0);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/api/time-slots/stream?method=DRIVE&date=" + tomorrow))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                assertEquals("event:snapshot", readEventName(reader));
+
+                reservationService.createReservation(new ReservationRequest(DeliveryMethod.DRIVE, tomorrow, slot.id()));
+
+                assertEquals("event:availability", readEventName(reader));
+                String data = reader.readLine();
+                assertTrue(data.contains("\"slotId\":" + slot.id()));
+                assertTrue(data.contains("\"remaining\":" + (slot.remaining() - 1)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a stream for an invalid method before opening it")
+    void stream_InvalidMethod_ReturnsBadRequest() {
+        var response = restTemplate.getForEntity(
+                "/api/time-slots/stream?method=TELEPORT&date=" + LocalDate.now(), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private static String readEventName(BufferedReader reader) throws Exception {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("event:")) {
+                return line;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for SlotCalendarGenerator against embedded H2.
+ */
+@SpringBootTest
+class SlotCalendarGeneratorTest {
+
+    @Autowired
+    private SlotCalendarGenerator slotCalendarGenerator;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private SlotTemplateService slotTemplateService;
+
+    @Test
+    @DisplayName("Should materialize the whole horizon at startup")
+    void startup_MaterializesHorizon() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(timeSlotService.getHorizonDays() - 1L);
+
+        assertEquals(4, timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, today).size());
+        assertEquals(4, timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, lastDay).size());
+        assertEquals(2, timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY_TODAY, today).size());
+        assertEquals(19, timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY_ASAP, today).size());
+    }
+
+    @Test
+    @DisplayName("Should not insert anything when the horizon is already materialized")
+    void generate_AlreadyMaterialized_IsNoOp() {
+        long before = timeSlotRepository.count();
+
+        assertEquals(0, slotCalendarGenerator.generate(LocalDate.now()));
+        assertEquals(before, timeSlotRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should extend the horizon by one day when the calendar rolls over")
+    void generate_NextDay_InsertsOnlyNewDay() {
+        LocalDate lastDay = LocalDate.now().plusDays(timeSlotService.getHorizonDays() - 1L);
+        int perDay = 0;
+        for (DeliveryMethod method : DeliveryMethod.values()) {
+            perDay += slotTemplateService.getWindows(method, lastDay.plusDays(1)).size();
+        }
+
+        assertEquals(perDay, slotCalendarGenerator.generate(LocalDate.now().plusDays(1)));
+    }
+}
@@ -0,0 +1,174 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlotIndex and the packed SlotKey encoding.
+ */
+class SlotIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+    @Test
+    @DisplayName("Should pack a slot key into a non-zero long and unpack it again")
+    void pack_RoundTrips() {
+        for (DeliveryMethod method : DeliveryMethod.values()) {
+            SlotKey key = new SlotKey(method, DAY, LocalTime.of(23, 59));
+
+            long packed = key.packed();
+
+            assertNotEquals(0, packed);
+            assertEquals(key, SlotKey.unpack(packed));
+            assertEquals(DAY.toEpochDay(), SlotKey.epochDay(packed));
+        }
+        SlotKey early = new SlotKey(DeliveryMethod.DRIVE, LocalDate.of(1960, 2, 29), LocalTime.MIDNIGHT);
+        assertEquals(early, SlotKey.unpack(early.packed()));
+    }
+
+    @Test
+    @DisplayName("Should reject start times that are not a whole minute")
+    void pack_SecondsInStartTime_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SlotKey.pack(DeliveryMethod.DRIVE, DAY, LocalTime.of(9, 0, 30)));
+    }
+
+    @Test
+    @DisplayName("Should return the existing cell when a key is inserted twice")
+    void insert_ExistingKey_KeepsFirstState() {
+        SlotIndex index = new SlotIndex(16);
+        long key = SlotKey.pack(DeliveryMethod.DRIVE, DAY, LocalTime.of(9, 0));
+
+        int cell = index.insert(key, 7L, 10);
+        int again = index.insert(key, 7L, 3);
+
+        assertEquals(cell, again);
+        assertEquals(cell, index.find(key));
+        assertEquals(10, index.remaining(cell));
+        assertEquals(7L, index.slotId(cell));
+        assertEquals(SlotIndex.ABSENT, index.find(SlotKey.pack(DeliveryMethod.DELIVERY, DAY, LocalTime.of(9, 0))));
+    }
+
+    @Test
+    @DisplayName("Should keep cells and counters when the table grows")
+    void insert_BeyondInitialSize_Grows() {
+        SlotIndex index = new SlotIndex(4);
+        int slots = 5_000;
+
+        for (int i = 0; i < slots; i++) {
+            int cell = index.insert(key(i), i, i % 10);
+            assertTrue(index.compareAndSetRemaining(cell, i % 10, i % 10 + 1));
+        }
+
+        assertEquals(slots, index.size());
+        for (int i = 0; i < slots; i++) {
+            int cell = index.find(key(i));
+            assertEquals(i, index.slotId(cell));
+            assertEquals(i % 10 + 1, index.remaining(cell));
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop only keys of days before the cutoff")
+    void evictBefore_DropsPastDays() {
+        SlotIndex index = new SlotIndex(16);
+        long past = SlotKey.pack(DeliveryMethod.DRIVE, DAY.minusDays(1), LocalTime.of(9, 0));
+        long today = SlotKey.pack(DeliveryMethod.DRIVE, DAY, LocalTime.of(9, 0));
+        index.insert(past, 1L, 1);
+        int todayCell = index.insert(today, 2L, 1);
+
+        int evicted = index.evictBefore(DAY.toEpochDay());
+
+        assertEquals(1, evicted);
+        assertEquals(SlotIndex.ABSENT, index.find(past));
+        assertEquals(todayCell, index.find(today));
+        assertNotEquals(todayCell, index.insert(past, 1L, 1));
+    }
+
+    @Test
+    @DisplayName("Should reuse the cells of evicted days so the cell count stays bounded")
+    void evictBefore_RollingHorizon_CellCountBounded() {
+        SlotIndex index = new SlotIndex(16);
+        int slotsPerDay = 8;
+
+        for (int day = 0; day < 100; day++) {
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                long key = SlotKey.pack(DeliveryMethod.DRIVE, DAY.plusDays(day), LocalTime.of(slot + 8, 0));
+                int cell = index.insert(key, day * slotsPerDay + slot, slot);
+                assertEquals(slot, index.remaining(cell));
+                assertEquals(day * slotsPerDay + slot, index.slotId(cell));
+                assertFalse(index.clearDirty(cell));
+                index.markDirty(cell);
+            }
+            index.evictBefore(DAY.plusDays(day).toEpochDay());
+        }
+
+        // One day in the table, one held back since the last eviction, one ready for reuse
+        assertEquals(slotsPerDay, index.size());
+        assertTrue(index.cellCount() <= 3 * slotsPerDay, "cells allocated: " + index.cellCount());
+    }
+
+    @Test
+    @DisplayName("Should hold the cells of handed-off keys back until a whole calendar interval has passed")
+    void evict_HandoffBurst_CellsHeldBackUntilCalendarEviction() {
+        SlotIndex index = new SlotIndex(16);
+        for (int i = 0; i < 10; i++) {
+            long key = SlotKey.pack(DeliveryMethod.DRIVE, DAY.plusDays(5), LocalTime.of(8 + i, 0));
+            index.insert(key, i, 1);
+            index.evict(k -> k == key);
+        }
+        assertEquals(10, index.cellCount());
+
+        index.evictBefore(DAY.toEpochDay());
+        index.insert(SlotKey.pack(DeliveryMethod.DRIVE, DAY.plusDays(6), LocalTime.of(8, 0)), 10L, 1);
+        assertEquals(11, index.cellCount());
+
+        index.evictBefore(DAY.toEpochDay());
+        index.insert(SlotKey.pack(DeliveryMethod.DRIVE, DAY.plusDays(6), LocalTime.of(9, 0)), 11L, 1);
+        assertEquals(11, index.cellCount());
+    }
+
+    @Test
+    @DisplayName("Should not lose keys or counter updates under concurrent inserts and resizes")
+    void insert_Concurrent_NoLostUpdates() {
+        SlotIndex index = new SlotIndex(4);
+        int slots = 500;
+        int threads = 32;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < slots; i++) {
+                        int cell = index.find(key(i));
+                        if (cell == SlotIndex.ABSENT) {
+                            cell = index.insert(key(i), i, 0);
+                        }
+                        int current;
+                        do {
+                            current = index.remaining(cell);
+                        } while (!index.compareAndSetRemaining(cell, current, current + 1));
+                    }
+                });
+            }
+        }
+
+        assertEquals(slots, index.size());
+        assertEquals(slots, index.cellCount());
+        for (int i = 0; i < slots; i++) {
+            assertEquals(threads, index.remaining(index.find(key(i))));
+        }
+    }
+
+    private static long key(int i) {
+        DeliveryMethod method = DeliveryMethod.values()[i % DeliveryMethod.values().length];
+        return SlotKey.pack(method.ordinal(), DAY.toEpochDay() + i / 96, (i % 96) * 15);
+    }
+}
@@ -0,0 +1,121 @@
+package com.delivery.service;
+
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.ReservationStatus;
+import com.delivery.entity.TimeSlot;
+import com.delivery.repository.ReservationRepository;
+import com.delivery.repository.TimeSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SlotInventory with Mockito mocks.
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotInventoryTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+
+    @InjectMocks
+    private SlotInventory slotInventory;
+
+    private TimeSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        slot = new TimeSlot(DeliveryMethod.DELIVERY, LocalDate.now().plusDays(1),
+                LocalTime.of(16, 0), LocalTime.of(18, 0), 3);
+        slot.setId(7L);
+    }
+
+    @Test
+    @DisplayName("Should seed counter from existing reservations once")
+    void remaining_SeedsFromDatabaseOnce() {
+        // Arrange
+        when(reservationRepository.countByTimeSlotIdAndStatusIn(7L, ReservationStatus.ACTIVE)).thenReturn(1L);
+
+        // Act & Assert
+        assertEquals(2, slotInventory.remaining(slot));
+        assertEquals(2, slotInventory.remaining(slot));
+        verify(reservationRepository, times(1)).countByTimeSlotIdAndStatusIn(7L, ReservationStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Should reject once capacity is exhausted and admit again after release")
+    void tryAcquire_CapacityExhausted_Rejects() {
+        // Arrange
+        when(reservationRepository.countByTimeSlotIdAndStatusIn(7L, ReservationStatus.ACTIVE)).thenReturn(0L);
+
+        // Act & Assert
+        assertNotEquals(SlotCapacityGuard.FULL, slotInventory.tryAcquire(slot));
+        assertNotEquals(SlotCapacityGuard.FULL, slotInventory.tryAcquire(slot));
+        assertNotEquals(SlotCapacityGuard.FULL, slotInventory.tryAcquire(slot));
+        assertEquals(SlotCapacityGuard.FULL, slotInventory.tryAcquire(slot));
+
+        slotInventory.release(slot);
+        assertEquals(1, slotInventory.remaining(slot));
+        assertNotEquals(SlotCapacityGuard.FULL, slotInventory.tryAcquire(slot));
+    }
+
+    @Test
+    @DisplayName("Should never admit more than capacity under concurrency")
+    void tryAcquire_Concurrent_NoOversell() throws Exception {
+        // Arrange
+        when(reservationRepository.countByTimeSlotIdAndStatusIn(7L, ReservationStatus.ACTIVE)).thenReturn(0L);
+        int threads = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (slotInventory.tryAcquire(slot) != SlotCapacityGuard.FULL) {
+                        admitted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        // Assert
+        assertEquals(3, admitted.get());
+        assertEquals(0, slotInventory.remaining(slot));
+    }
+
+    @Test
+    @DisplayName("Should write back changed counters only")
+    void writeBack_FlushesDirtySlots() {
+        // Arrange
+        when(reservationRepository.countByTimeSlotIdAndStatusIn(7L, ReservationStatus.ACTIVE)).thenReturn(0L);
+        slotInventory.tryAcquire(slot);
+
+        // Act
+        slotInventory.writeBack();
+        slotInventory.writeBack();
+
+        // Assert
+        verify(timeSlotRepository, times(1)).updateRemaining(7L, 2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.delivery.service;
+
+import com.delivery.config.ReservationProperties;
+import com.delivery.exception.SlotUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlotLockManager.
+ */
+class SlotLockManagerTest {
+
+    private SlotLockManager slotLockManager;
+
+    @BeforeEach
+    void setUp() {
+        slotLockManager = new SlotLockManager(new ReservationProperties(
+                ReservationStrategy.IN_MEMORY, 5, Duration.ofMillis(5), 10, Duration.ofMillis(50), Duration.ofMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("Should round the stripe count up to a power of two")
+    void constructor_RoundsStripesToPowerOfTwo() {
+        assertEquals(16, slotLockManager.stripeCount());
+    }
+
+    @Test
+    @DisplayName("Should serialize work on the same slot")
+    void withLock_SameSlot_Serializes() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        SlotLockManager patient = new SlotLockManager(new ReservationProperties(
+                ReservationStrategy.IN_MEMORY, 5, Duration.ofMillis(5), 16, Duration.ofSeconds(10), Duration.ofMinutes(10)));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                executor.submit(() -> patient.withLock(42L, () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    return inside.decrementAndGet();
+                }));
+            }
+        }
+
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    @DisplayName("Should reject fast when the stripe stays busy past the timeout")
+    void withLock_BusyStripe_RejectsAfterTimeout() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> slotLockManager.withLock(7L, () -> {
+                held.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            held.await();
+
+            SlotUnavailableException exception = assertThrows(
+                    SlotUnavailableException.class,
+                    () -> slotLockManager.withLock(7L, () -> null)
+            );
+            assertEquals("Time slot is busy, please retry", exception.getMessage());
+            assertEquals(1, slotLockManager.timeouts(slotLockManager.stripeIndex(7L)));
+
+            release.countDown();
+            holder.get();
+        }
+    }
+
+    @Test
+    @DisplayName("Should export wait time and timeouts per stripe")
+    void bindTo_RegistersPerStripeMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        slotLockManager.bindTo(registry);
+
+        slotLockManager.withLock(3L, () -> null);
+
+        String stripe = Integer.toString(slotLockManager.stripeIndex(3L));
+        assertEquals(1.0, registry.get("delivery.slot.lock.wait").tag("stripe", stripe).functionTimer().count());
+        assertEquals(16, registry.get("delivery.slot.lock.timeouts").functionCounters().size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.delivery.service;
+
+import com.delivery.dto.TimeSlotDTO;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.exception.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for SlotRangeService and the streamed range endpoint against embedded H2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:slot-range")
+class SlotRangeServiceTest {
+
+    @Autowired
+    private SlotRangeService slotRangeService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should return every bookable slot in the range in date, method, time order")
+    void forEachSlot_AllMethods_ReturnsOrderedRange() {
+        LocalDate today = LocalDate.now();
+        List<TimeSlotDTO> slots = new ArrayList<>();
+
+        slotRangeService.forEachSlot(null, today, today.plusDays(2), slots::add);
+
+        // DRIVE and DELIVERY for three days, DELIVERY_TODAY only today, no ASAP
+        assertEquals(4 * 2 * 3 + 2, slots.size());
+        assertTrue(slots.stream().noneMatch(s -> s.method() == DeliveryMethod.DELIVERY_ASAP));
+        assertTrue(slots.stream()
+                .filter(s -> s.method() == DeliveryMethod.DELIVERY_TODAY)
+                .allMatch(s -> s.date().equals(today)));
+        assertEquals(slots.stream()
+                .sorted(Comparator.comparing(TimeSlotDTO::date)
+                        .thenComparing(s -> s.method().name())
+                        .thenComparing(TimeSlotDTO::startTime))
+                .toList(), slots);
+    }
+
+    @Test
+    @DisplayName("Should restrict the range to a single method")
+    void forEachSlot_SingleMethod_ReturnsOnlyThatMethod() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<TimeSlotDTO> slots = new ArrayList<>();
+
+        slotRangeService.forEachSlot(DeliveryMethod.DRIVE, tomorrow, tomorrow.plusDays(9), slots::add);
+
+        assertEquals(40, slots.size());
+        assertTrue(slots.stream().allMatch(s -> s.method() == DeliveryMethod.DRIVE));
+    }
+
+    @Test
+    @DisplayName("Should scan on a connection held by a read-only transaction so the fetch size applies")
+    void forEachSlot_RunsInReadOnlyTransaction() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<Boolean> readOnly = new ArrayList<>();
+        List<Boolean> connectionBound = new ArrayList<>();
+
+        slotRangeService.forEachSlot(DeliveryMethod.DRIVE, tomorrow, tomorrow, slot -> {
+            readOnly.add(TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            connectionBound.add(TransactionSynchronizationManager.hasResource(dataSource));
+        });
+
+        assertEquals(List.of(true, true, true, true), readOnly);
+        assertEquals(List.of(true, true, true, true), connectionBound);
+    }
+
+    @Test
+    @DisplayName("Should reject a range that ends before it starts or leaves the horizon")
+    void validateRange_InvalidRange_ThrowsException() {
+        LocalDate today = LocalDate.now();
+
+        InvalidRequestException reversed = assertThrows(InvalidRequestException.class,
+                () -> slotRangeService.validateRange(null, today.plusDays(2), today));
+        assertEquals("Range end cannot be before its start", reversed.getMessage());
+
+        InvalidRequestException beyond = assertThrows(InvalidRequestException.class,
+                () -> slotRangeService.validateRange(null, today, today.plusDays(60)));
+        assertEquals("Date is beyond the 30-day booking horizon", beyond.getMessage());
+
+        assertThrows(InvalidRequestException.class,
+                () -> slotRangeService.validateRange(DeliveryMethod.DELIVERY_ASAP, today, today));
+    }
+
+    @Test
+    @DisplayName("Should stream the whole horizon as one JSON array")
+    void rangeEndpoint_StreamsJsonArray() {
+        LocalDate today = LocalDate.now();
+        String url = "/api/time-slots/range?from=" + today + "&to=" + today.plusDays(29);
+
+        ResponseEntity<TimeSlotDTO[]> response = restTemplate.getForEntity(url, TimeSlotDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4 * 2 * 30 + 2, response.getBody().length);
+    }
+
+    @Test
+    @DisplayName("Should answer 400 before streaming when the range is invalid")
+    void rangeEndpoint_InvalidRange_ReturnsBadRequest() {
+        LocalDate today = LocalDate.now();
+        String url = "/api/time-slots/range?method=DRIVE&from=" + today.plusDays(3) + "&to=" + today;
+
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
@@ -0,0 +1,188 @@
+package com.delivery.service;
+
+import com.delivery.dto.SlotTemplateDTO;
+import com.delivery.dto.SlotTemplateRequest;
+import com.delivery.entity.DeliveryMethod;
+import com.delivery.entity.SlotTemplate;
+import com.delivery.exception.InvalidRequestException;
+import com.delivery.repository.SlotTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SlotTemplateService with Mockito mocks.
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotTemplateServiceTest {
+
+    @Mock
+    private SlotTemplateRepository slotTemplateRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SlotTemplateService slotTemplateService;
+
+    private LocalDate monday;
+    private LocalDate tuesday;
+
+    @BeforeEach
+    void setUp() {
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        tuesday = monday.plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Should seed and compile the default layouts when no templates are stored")
+    void init_NoTemplates_SeedsDefaults() {
+        // Arrange
+        when(slotTemplateRepository.count()).thenReturn(0L);
+        when(slotTemplateRepository.findAll()).thenReturn(SlotTemplateService.defaultTemplates());
+
+        // Act
+        slotTemplateService.init();
+
+        // Assert
+        verify(slotTemplateRepository).saveAll(any());
+        assertEquals(4, slotTemplateService.getWindows(DeliveryMethod.DRIVE, monday).size());
+        assertEquals(4, slotTemplateService.getWindows(DeliveryMethod.DELIVERY, monday).size());
+        assertEquals(2, slotTemplateService.getWindows(DeliveryMethod.DELIVERY_TODAY, monday).size());
+        assertEquals(19, slotTemplateService.getWindows(DeliveryMethod.DELIVERY_ASAP, monday).size());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should let weekday templates replace the every-day layout on that weekday")
+    void getWindows_WeekdayTemplates_OverrideEveryDay() {
+        // Arrange
+        List<SlotTemplate> templates = new ArrayList<>();
+        templates.add(new SlotTemplate(DeliveryMethod.DRIVE, null, LocalTime.of(9, 0), LocalTime.of(11, 0), 1, 1));
+        templates.add(new SlotTemplate(DeliveryMethod.DRIVE, DayOfWeek.MONDAY,
+                LocalTime.of(10, 30), LocalTime.of(11, 0), 5, 1));
+        templates.add(new SlotTemplate(DeliveryMethod.DRIVE, DayOfWeek.MONDAY,
+                LocalTime.of(10, 0), LocalTime.of(10, 30), 5, 1));
+        when(slotTemplateRepository.findAll()).thenReturn(templates);
+
+        // Act
+        slotTemplateService.reload(false);
+
+        // Assert
+        List<SlotWindow> mondayWindows = slotTemplateService.getWindows(DeliveryMethod.DRIVE, monday);
+        assertEquals(2, mondayWindows.size());
+        assertEquals(LocalTime.of(10, 0), mondayWindows.get(0).startTime());
+        assertEquals(5, mondayWindows.get(0).capacity());
+        assertEquals(1, slotTemplateService.getWindows(DeliveryMethod.DRIVE, tuesday).size());
+        assertTrue(slotTemplateService.getWindows(DeliveryMethod.DELIVERY, monday).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find the window that most recently started")
+    void findWindowAt_ReturnsLatestStartedWindow() {
+        // Arrange
+        when(slotTemplateRepository.findAll()).thenReturn(SlotTemplateService.defaultTemplates());
+        slotTemplateService.reload(false);
+
+        // Act & Assert
+        assertEquals(LocalTime.of(14, 0), slotTemplateService
+                .findWindowAt(DeliveryMethod.DELIVERY_ASAP, monday, LocalTime.of(14, 35)).startTime());
+        assertNull(slotTemplateService.findWindowAt(DeliveryMethod.DELIVERY_TODAY, monday, LocalTime.of(9, 0)));
+    }
+
+    @Test
+    @DisplayName("Should reject overlapping windows")
+    void replaceTemplates_OverlappingWindows_ThrowsException() {
+        // Arrange
+        SlotTemplateRequest request = new SlotTemplateRequest(List.of(
+                new SlotTemplateRequest.Window(null, LocalTime.of(9, 0), LocalTime.of(10, 0), 1),
+                new SlotTemplateRequest.Window(null, LocalTime.of(9, 30), LocalTime.of(10, 30), 1)
+        ));
+
+        // Act & Assert
+        InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> slotTemplateService.replaceTemplates(DeliveryMethod.DRIVE, request)
+        );
+        assertTrue(exception.getMessage().contains("overlap"));
+        verify(slotTemplateRepository, never()).deleteByMethod(any());
+    }
+
+    @Test
+    @DisplayName("Should reject window times that are not whole minutes")
+    void replaceTemplates_SecondsInWindow_ThrowsException() {
+        // Arrange
+        SlotTemplateRequest request = new SlotTemplateRequest(List.of(
+                new SlotTemplateRequest.Window(null, LocalTime.of(9, 0, 30), LocalTime.of(10, 0), 1)
+        ));
+
+        // Act & Assert
+        InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> slotTemplateService.replaceTemplates(DeliveryMethod.DRIVE, request)
+        );
+        assertEquals("Window times must be whole minutes: 09:00:30", exception.getMessage());
+        verify(slotTemplateRepository, never()).deleteByMethod(any());
+    }
+
+    @Test
+    @DisplayName("Should take the revision from the counter before replacing the layout")
+    void replaceTemplates_TakesRevisionFromCounter() {
+        // Arrange
+        SlotTemplateRequest request = new SlotTemplateRequest(List.of(
+                new SlotTemplateRequest.Window(null, LocalTime.of(9, 0), LocalTime.of(10, 0), 3)
+        ));
+        when(slotTemplateRepository.findCurrentRevision()).thenReturn(7L);
+        when(slotTemplateRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<SlotTemplateDTO> saved;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            saved = slotTemplateService.replaceTemplates(DeliveryMethod.DRIVE, request);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        InOrder order = inOrder(slotTemplateRepository);
+        order.verify(slotTemplateRepository).advanceRevision();
+        order.verify(slotTemplateRepository).findCurrentRevision();
+        order.verify(slotTemplateRepository).deleteByMethod(DeliveryMethod.DRIVE);
+        assertEquals(7L, saved.get(0).revision());
+        verify(slotTemplateRepository, never()).findLatestRevision();
+    }
+
+    @Test
+    @DisplayName("Should recompile and publish when a newer revision is stored")
+    void reloadIfChanged_NewRevision_PublishesEvent() {
+        // Arrange
+        when(slotTemplateRepository.findLatestRevision()).thenReturn(2L);
+        when(slotTemplateRepository.findAll()).thenReturn(SlotTemplateService.defaultTemplates());
+
+        // Act
+        slotTemplateService.reloadIfChanged();
+
+        // Assert
+        assertEquals(2L, slotTemplateService.getRevision());
+        verify(eventPublisher).publishEvent(new SlotTemplatesReloadedEvent(2L));
+    }
+}
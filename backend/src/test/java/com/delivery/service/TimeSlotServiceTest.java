@@ -5,20 +5,27 @@ import com.delivery.entity.DeliveryMethod;
 
 import com.delivery.entity.TimeSlot;
 import com.delivery.exception.InvalidRequestException;
+import com.delivery.repository.SlotTemplateRepository;
 import com.delivery.repository.TimeSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,7 +40,22 @@ class TimeSlotServiceTest {
     @Mock
     private TimeSlotRepository timeSlotRepository;
 
-    @InjectMocks
+    @Mock
+    private SlotCapacityGuard capacityGuard;
+
+    @Mock
+    private SlotTemplateRepository slotTemplateRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ClusterRouter clusterRouter;
+
+    private SlotAvailabilitySnapshots availabilitySnapshots;
+
+    private SlotTemplateService slotTemplateService;
+
     private TimeSlotService timeSlotService;
 
     private LocalDate today;
@@ -43,15 +65,24 @@ class TimeSlotServiceTest {
     void setUp() {
         today = LocalDate.now();
         tomorrow = today.plusDays(1);
+        availabilitySnapshots = new SlotAvailabilitySnapshots(capacityGuard, Duration.ofMinutes(1));
+        when(slotTemplateRepository.findAll()).thenReturn(SlotTemplateService.defaultTemplates());
+        slotTemplateService = new SlotTemplateService(slotTemplateRepository, eventPublisher);
+        slotTemplateService.reload(false);
+        lenient().when(clusterRouter.isLocal(any(), any())).thenReturn(true);
+        lenient().when(capacityGuard.remaining(anyLong(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        lenient().when(capacityGuard.currentRemaining(any(), anyLong(), anyInt())).thenCallRealMethod();
+        timeSlotService = new TimeSlotService(
+                timeSlotRepository, capacityGuard, availabilitySnapshots, slotTemplateService, clusterRouter,
+                new DeliveryMetrics(new SimpleMeterRegistry()), 30);
     }
 
     @Test
     @DisplayName("Should return 4 standard slots for DRIVE method")
     void getSlots_DriveMethod_ReturnsFourSlots() {
         // Arrange
-        when(timeSlotRepository.findByMethodAndDate(DeliveryMethod.DRIVE, tomorrow))
-                .thenReturn(Collections.emptyList());
-        when(timeSlotRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(materialize(DeliveryMethod.DRIVE, tomorrow));
 
         // Act
         List<TimeSlotDTO> slots = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
@@ -63,16 +94,15 @@ class TimeSlotServiceTest {
         assertEquals(LocalTime.of(16, 0), slots.get(3).startTime());
         assertEquals(LocalTime.of(18, 0), slots.get(3).endTime());
 
-        verify(timeSlotRepository).saveAll(any());
+        verify(timeSlotRepository, never()).saveAll(any());
     }
 
     @Test
     @DisplayName("Should return 4 standard slots for DELIVERY method")
     void getSlots_DeliveryMethod_ReturnsFourSlots() {
         // Arrange
-        when(timeSlotRepository.findByMethodAndDate(DeliveryMethod.DELIVERY, tomorrow))
-                .thenReturn(Collections.emptyList());
-        when(timeSlotRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, tomorrow))
+                .thenReturn(materialize(DeliveryMethod.DELIVERY, tomorrow));
 
         // Act
         List<TimeSlotDTO> slots = timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
@@ -86,9 +116,8 @@ class TimeSlotServiceTest {
     @DisplayName("Should return 2 limited slots for DELIVERY_TODAY method")
     void getSlots_DeliveryTodayMethod_ReturnsTwoSlots() {
         // Arrange
-        when(timeSlotRepository.findByMethodAndDate(DeliveryMethod.DELIVERY_TODAY, today))
-                .thenReturn(Collections.emptyList());
-        when(timeSlotRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY_TODAY, today))
+                .thenReturn(materialize(DeliveryMethod.DELIVERY_TODAY, today));
 
         // Act
         List<TimeSlotDTO> slots = timeSlotService.getSlots(DeliveryMethod.DELIVERY_TODAY, today);
@@ -135,6 +164,18 @@ class TimeSlotServiceTest {
         assertEquals("Date cannot be in the past", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Should throw exception when date is beyond the booking horizon")
+    void getSlots_BeyondHorizon_ThrowsException() {
+        // Act & Assert
+        InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> timeSlotService.getSlots(DeliveryMethod.DRIVE, today.plusDays(30))
+        );
+        assertEquals("Date is beyond the 30-day booking horizon", exception.getMessage());
+        verifyNoInteractions(timeSlotRepository);
+    }
+
     @Test
     @DisplayName("Should return existing slots without creating new ones")
     void getSlots_ExistingSlots_ReturnsWithoutCreating() {
@@ -143,7 +184,7 @@ class TimeSlotServiceTest {
                 new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0)),
                 new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(11, 0), LocalTime.of(13, 0))
         );
-        when(timeSlotRepository.findByMethodAndDate(DeliveryMethod.DRIVE, tomorrow))
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
                 .thenReturn(existingSlots);
 
         // Act
@@ -155,14 +196,180 @@ class TimeSlotServiceTest {
     }
 
     @Test
-    @DisplayName("Should return slot definitions for different methods")
-    void getSlotDefinitions_ReturnsCorrectSlots() {
+    @DisplayName("Should serve reads from the day's snapshot and patch it when availability changes")
+    void getSlots_SnapshotPatchedOnAvailabilityChange() {
+        // Arrange
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(List.of(slot));
+        when(capacityGuard.remaining(slot)).thenReturn(10);
+
+        // Act
+        List<TimeSlotDTO> first = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+        timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+        availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+        List<TimeSlotDTO> second = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+
+        // Assert
+        assertEquals(10, first.get(0).remaining());
+        assertEquals(9, second.get(0).remaining());
+        verify(timeSlotRepository, times(1)).findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow);
+    }
+
+    @Test
+    @DisplayName("Should patch from the capacity guard's count so a late event does not roll it back")
+    void onAvailabilityChanged_LateEvent_PatchesCurrentCount() {
+        // Arrange
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(List.of(slot));
+        when(capacityGuard.remaining(slot)).thenReturn(10);
+        timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+        when(capacityGuard.remaining(eq(SlotKey.pack(slot)), anyInt())).thenReturn(7);
+
+        // Act
+        availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+
+        // Assert
+        assertEquals(7, timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow).get(0).remaining());
+    }
+
+    @Test
+    @DisplayName("Should patch from the count the guard re-reads so an out-of-order event does not roll it back")
+    void onAvailabilityChanged_OutOfOrderEvent_PatchesLatestCount() {
+        // Arrange
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(List.of(slot));
+        when(capacityGuard.remaining(slot)).thenReturn(10);
+        timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+        doReturn(8).when(capacityGuard).currentRemaining(eq(1L), anyLong(), anyInt());
+
+        // Act: the booking that left 8 is patched first, the earlier one that left 9 after it
+        availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 8));
+        availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+
+        // Assert
+        assertEquals(8, timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow).get(0).remaining());
+    }
+
+    @Test
+    @DisplayName("Should re-read a slot changed while its day was being loaded")
+    void getSlots_ChangedDuringLoad_PublishesLatestCount() {
+        // Arrange
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenAnswer(invocation -> {
+                    availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                            1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+                    return List.of(slot);
+                });
+        when(capacityGuard.remaining(slot)).thenReturn(10);
+        doReturn(9).when(capacityGuard).currentRemaining(eq(1L), anyLong(), anyInt());
+
+        // Act
+        List<TimeSlotDTO> slots = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+
+        // Assert
+        assertEquals(9, slots.get(0).remaining());
+    }
+
+    @Test
+    @DisplayName("Should ignore the count of a booking that rolled back")
+    void onAvailabilityRolledBack_KeepsCount() {
+        // Arrange
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(List.of(slot));
+        when(capacityGuard.remaining(slot)).thenReturn(10);
+        timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+
+        // Act
+        availabilitySnapshots.onAvailabilityRolledBack(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+
+        // Assert
+        assertEquals(10, timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow).get(0).remaining());
+    }
+
+    @Test
+    @DisplayName("Should not load days that were never read")
+    void onAvailabilityChanged_UnreadDay_DoesNothing() {
+        // Act
+        availabilitySnapshots.onAvailabilityChanged(new SlotAvailabilityChangedEvent(
+                1L, DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), 9));
+
         // Assert
-        assertEquals(4, timeSlotService.getSlotDefinitions(DeliveryMethod.DRIVE).size());
-        assertEquals(4, timeSlotService.getSlotDefinitions(DeliveryMethod.DELIVERY).size());
-        assertEquals(2, timeSlotService.getSlotDefinitions(DeliveryMethod.DELIVERY_TODAY).size());
-        assertEquals(0, timeSlotService.getSlotDefinitions(DeliveryMethod.DELIVERY_ASAP).size());
+        verifyNoInteractions(timeSlotRepository);
     }
 
+    @Test
+    @DisplayName("Should keep serving a stale snapshot while it is refreshed in the background")
+    void getSlots_StaleSnapshot_RefreshedInBackground() throws Exception {
+        // Arrange
+        availabilitySnapshots = new SlotAvailabilitySnapshots(capacityGuard, Duration.ZERO);
+        timeSlotService = new TimeSlotService(
+                timeSlotRepository, capacityGuard, availabilitySnapshots, slotTemplateService, clusterRouter,
+                new DeliveryMetrics(new SimpleMeterRegistry()), 30);
+        TimeSlot slot = new TimeSlot(DeliveryMethod.DRIVE, tomorrow, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.setId(1L);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow))
+                .thenReturn(List.of(slot));
+        when(capacityGuard.remaining(slot)).thenReturn(10, 7);
+
+        // Act
+        timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+        List<TimeSlotDTO> stale = timeSlotService.getSlots(DeliveryMethod.DRIVE, tomorrow);
+
+        // Assert
+        assertEquals(10, stale.get(0).remaining());
+        verify(timeSlotRepository, timeout(1000).times(2))
+                .findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DRIVE, tomorrow);
+    }
 
+    @Test
+    @DisplayName("Should answer a burst of identical requests with one query")
+    void getSlots_ConcurrentIdenticalRequests_QueriesOnce() throws Exception {
+        // Arrange
+        List<TimeSlot> slots = materialize(DeliveryMethod.DELIVERY, tomorrow);
+        when(timeSlotRepository.findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, tomorrow))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return slots;
+                });
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<TimeSlotDTO>>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return timeSlotService.getSlots(DeliveryMethod.DELIVERY, tomorrow);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        for (Future<List<TimeSlotDTO>> result : results) {
+            assertEquals(4, result.get().size());
+        }
+        verify(timeSlotRepository, times(1)).findByMethodAndDateOrderByStartTimeAsc(DeliveryMethod.DELIVERY, tomorrow);
+    }
+
+    private List<TimeSlot> materialize(DeliveryMethod method, LocalDate date) {
+        return slotTemplateService.getWindows(method, date).stream()
+                .map(w -> new TimeSlot(method, date, w.startTime(), w.endTime(), w.capacity()))
+                .toList();
+    }
 }
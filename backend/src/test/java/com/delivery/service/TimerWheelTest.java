@@ -0,0 +1,63 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimerWheel.
+ */
+class TimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    @DisplayName("Should fire an entry on the tick its deadline falls in, not before")
+    void advanceTo_FiresAtDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, START);
+        wheel.schedule("a", START + 55);
+
+        assertEquals(List.of(), wheel.advanceTo(START + 50));
+        assertEquals(List.of("a"), wheel.advanceTo(START + 60));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should fire overdue entries on the next tick")
+    void schedule_PastDeadline_FiresNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, START);
+        wheel.schedule("late", START - 1_000);
+
+        assertEquals(List.of("late"), wheel.advanceTo(START + 10));
+    }
+
+    @Test
+    @DisplayName("Should cascade far deadlines through every level and fire each exactly once, on time")
+    void advanceTo_RandomDeadlines_FireOnTime() {
+        TimerWheel<Long> wheel = new TimerWheel<>(1, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = START + 1 + random.nextInt(20_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = START; now < START + 20_000_001; now += 997) {
+            for (Long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(deadline > now - 997, "fired late");
+                fired++;
+            }
+        }
+        fired += wheel.advanceTo(START + 20_001_000).size();
+        assertEquals(deadlines.size(), fired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -1,6 +1,7 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
+import { Subscription, switchMap } from 'rxjs';
 import { MethodSelectionComponent } from './components/method-selection/method-selection.component';
 import { TimeSlotSelectionComponent } from './components/time-slot-selection/time-slot-selection.component';
 import { ConfirmationComponent } from './components/confirmation/confirmation.component';
@@ -22,10 +23,11 @@ import {
   templateUrl: './app.component.html',
   styles: []
 })
-export class AppComponent implements OnInit {
+export class AppComponent implements OnInit, OnDestroy {
   // Data
   deliveryMethods: DeliveryMethod[] = [];
   timeSlots: TimeSlot[] = [];
+  private availabilityUpdates?: Subscription;
 
   // Selections
   selectedMethod: DeliveryMethod | null = null;
@@ -90,11 +92,15 @@ export class AppComponent implements OnInit {
 
     this.loadingSlots = true;
     this.selectedSlot = null;
+    this.availabilityUpdates?.unsubscribe();
 
-    this.deliveryService.getTimeSlots(this.selectedMethod, this.selectedDate).subscribe({
+    const method = this.selectedMethod;
+    const date = this.selectedDate;
+    this.deliveryService.getTimeSlots(method, date).subscribe({
       next: (slots) => {
         this.timeSlots = slots;
         this.loadingSlots = false;
+        this.watchAvailability(method, date);
       },
       error: (err: ApiError) => {
         this.errorMessage = err.message;
@@ -103,6 +109,19 @@ export class AppComponent implements OnInit {
     });
   }
 
+  private watchAvailability(method: string, date: string): void {
+    this.availabilityUpdates = this.deliveryService.watchAvailability(method, date).subscribe(change => {
+      const slot = this.timeSlots.find(s => s.id === change.slotId);
+      if (slot) {
+        slot.remaining = change.remaining;
+      }
+    });
+  }
+
+  ngOnDestroy(): void {
+    this.availabilityUpdates?.unsubscribe();
+  }
+
   onDateSelect(date: string): void {
     this.selectedDate = date;
     this.loadTimeSlots();
@@ -119,7 +138,10 @@ export class AppComponent implements OnInit {
       slotId: slot.id
     };
 
-    this.deliveryService.createReservation(request).subscribe({
+    // A new reservation is a hold; confirm it straight away
+    this.deliveryService.createReservation(request).pipe(
+      switchMap(hold => this.deliveryService.confirmReservation(hold.id))
+    ).subscribe({
       next: (reservation) => {
         this.reservation = reservation;
       },
@@ -6,14 +6,27 @@ export interface TimeSlot {
     date: string;
     startTime: string;
     endTime: string;
+    capacity: number;
+    remaining: number;
+}
+
+export interface SlotAvailabilityChange {
+    slotId: number;
+    method: string;
+    date: string;
+    startTime: string;
+    remaining: number;
 }
 
 export interface ReservationRequest {
     method: string;
     date: string;
     slotId: number;
+    customerId?: string;
 }
 
+export type ReservationStatus = 'HELD' | 'CONFIRMED' | 'CANCELLED' | 'EXPIRED';
+
 export interface Reservation {
     id: number;
     slotId: number;
@@ -21,6 +34,9 @@ export interface Reservation {
     date: string;
     startTime: string;
     endTime: string;
+    status: ReservationStatus;
+    expiresAt: string | null;
+    customerId: string | null;
 }
 
 export interface ApiError {
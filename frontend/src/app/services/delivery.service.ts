@@ -1,9 +1,9 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpErrorResponse } from '@angular/common/http';
-import { Observable, throwError } from 'rxjs';
-import { catchError } from 'rxjs/operators';
+import { HttpClient, HttpErrorResponse, HttpHeaders } from '@angular/common/http';
+import { Observable, throwError, timer } from 'rxjs';
+import { catchError, retry } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
-import { DeliveryMethod, TimeSlot, ReservationRequest, Reservation, ApiError } from '../models/models';
+import { DeliveryMethod, TimeSlot, SlotAvailabilityChange, ReservationRequest, Reservation, ApiError } from '../models/models';
 
 @Injectable({
     providedIn: 'root'
@@ -24,8 +24,37 @@ export class DeliveryService {
         }).pipe(catchError(this.handleError));
     }
 
+    watchAvailability(method: string, date: string): Observable<SlotAvailabilityChange> {
+        return new Observable<SlotAvailabilityChange>(subscriber => {
+            const params = new URLSearchParams({ method, date });
+            const source = new EventSource(`${this.apiUrl}/time-slots/stream?${params}`);
+            source.addEventListener('availability', event =>
+                subscriber.next(JSON.parse((event as MessageEvent).data)));
+            // EventSource reconnects on its own; the next snapshot makes up for missed changes
+            return () => source.close();
+        });
+    }
+
     createReservation(request: ReservationRequest): Observable<Reservation> {
-        return this.http.post<Reservation>(`${this.apiUrl}/reservations`, request)
+        // Network failures are retried under the same key, so a lost response cannot book twice
+        const headers = new HttpHeaders({ 'Idempotency-Key': crypto.randomUUID() });
+        return this.http.post<Reservation>(`${this.apiUrl}/reservations`, request, { headers })
+            .pipe(
+                retry({
+                    count: 2,
+                    delay: (error: HttpErrorResponse) => error.status === 0 ? timer(500) : throwError(() => error)
+                }),
+                catchError(this.handleError)
+            );
+    }
+
+    confirmReservation(id: number): Observable<Reservation> {
+        return this.http.post<Reservation>(`${this.apiUrl}/reservations/${id}/confirm`, null)
+            .pipe(catchError(this.handleError));
+    }
+
+    cancelReservation(id: number): Observable<Reservation> {
+        return this.http.post<Reservation>(`${this.apiUrl}/reservations/${id}/cancel`, null)
             .pipe(catchError(this.handleError));
     }
 